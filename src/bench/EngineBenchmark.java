@@ -0,0 +1,398 @@
+/**
+ * Class:				EngineBenchmark.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Benchmark the engine hot paths over parameterised topologies.
+ * 						Covers link computation, treeify, ideal, RPL and ETX routing, DODAG forests and
+ * 						TreeNode.hasChild against CompactTree.lca over line, grid, preset and generated meshes,
+ * 						for each link model asked for. Each case is warmed up, then run for a fixed
+ * 						time, reporting throughput, allocation and GC activity per operation.
+ * 
+ * 						Run with:
+ * 							java -cp <classes> bench.EngineBenchmark [options]
+ * 						Options:
+ * 							--sizes 10,100,1000		node counts for generated topologies
+ * 							--topologies line,grid		any of line, grid, random, jittered, cluster,
+ * 														corridor, preset
+ * 							--radio A,B				link models to cover, any of A, B, quasi,
+ * 														logdist, prr
+ * 							--bench computePaths,...	any of computePaths, treeify, routeIdeal,
+ * 														routeRPL, routeETX, dodagForest, hasChild, lca
+ * 							--warmup 500				warmup time per case (ms)
+ * 							--time 1000				measurement time per case (ms)
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package bench;
+
+
+//import libraries
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+//import packages
+import ctrl.SimEngine;
+import datatype.BoundingBox;
+import datatype.CompactTree;
+import datatype.LowpanNode;
+import datatype.MeshGenerator;
+import datatype.MeshGraph;
+import datatype.RouteEngine;
+import datatype.Scenario;
+import datatype.TreeNode;
+
+
+
+
+public class EngineBenchmark
+{
+	//declaring static class constants
+	public static final String[] TOPOLOGIES = {"line", "grid", "random", "jittered", "cluster", "corridor", "preset"};
+	public static final String[] BENCHMARKS = {"computePaths", "treeify", "routeIdeal", "routeRPL", "routeETX", "dodagForest", "hasChild", "lca"};
+	public static final int RANGE = 100;
+	public static final int SPACING = 90;
+	public static final int MARGIN = 2*RANGE;
+	private static final int ROUTE_PAIRS = 64;
+	private static final int FOREST_ROOTS = 4;
+	private static final long SEED = 0x10A9A7L;
+	private static final String[] FLAGS = {"--sizes", "--topologies", "--radio", "--bench", "--warmup", "--time"};
+	private static final String USAGE = "Usage: java bench.EngineBenchmark [--sizes N,...] [--topologies KIND,...] [--radio MODEL,...]"
+			+ " [--bench NAME,...] [--warmup MS] [--time MS]";
+	
+	//declaring static variables
+	private static long sink;
+	
+	
+	//main runtime
+	public static void main(String[] args)
+	{
+		//defaults
+		int[] sizes = {10, 100, 1000, 10000, 100000};
+		List<String> topologies = Arrays.asList("line", "grid", "random", "preset");
+		List<String> radios = Arrays.asList("A", "B");
+		List<String> benchmarks = Arrays.asList(BENCHMARKS);
+		long warmupMs = 500;
+		long timeMs = 1000;
+		
+		//parse arguments, every flag takes exactly one value
+		for (int i=0; i<args.length; i+=2)
+		{
+			if (!Arrays.asList(FLAGS).contains(args[i]))
+			{
+				terminate("Unknown flag \"" + args[i] + "\" found");
+			}
+			if (i+1 >= args.length)
+			{
+				terminate("Flag \"" + args[i] + "\" expects a value");
+			}
+			try
+			{
+				switch (args[i])
+				{
+					case ("--sizes"):
+						sizes = Arrays.stream(args[i+1].split(",")).mapToInt(Integer::parseInt).toArray();
+						break;
+					case ("--topologies"):
+						topologies = Arrays.asList(args[i+1].split(","));
+						for (String topology : topologies)
+						{
+							if (!Arrays.asList(TOPOLOGIES).contains(topology))
+							{
+								terminate("Unknown topology \"" + topology + "\" found");
+							}
+						}
+						break;
+					case ("--radio"):
+						radios = Arrays.asList(args[i+1].split(","));
+						for (String radio : radios)
+						{
+							if (SimEngine.createLinkModel(radio) == null)
+							{
+								terminate("Unknown link model \"" + radio + "\" found");
+							}
+						}
+						break;
+					case ("--bench"):
+						benchmarks = Arrays.asList(args[i+1].split(","));
+						for (String benchmark : benchmarks)
+						{
+							if (!Arrays.asList(BENCHMARKS).contains(benchmark))
+							{
+								terminate("Unknown benchmark \"" + benchmark + "\" found");
+							}
+						}
+						break;
+					case ("--warmup"):
+						warmupMs = Long.parseLong(args[i+1]);
+						break;
+					case ("--time"):
+						timeMs = Long.parseLong(args[i+1]);
+						break;
+				}
+			}
+			catch (NumberFormatException e)
+			{
+				terminate("Flag \"" + args[i] + "\" expects a number, found \"" + args[i+1] + "\"");
+			}
+		}
+		
+		//presets have fixed sizes, so each is only run once
+		int[] presets = new int[SimEngine.PRESET_COUNT];
+		for (int i=0; i<presets.length; i++)
+		{
+			presets[i] = i;
+		}
+		
+		System.out.println(String.format("%-10s %8s %7s %-13s %14s %14s %14s %10s %6s %8s",
+				"topology", "nodes", "radio", "benchmark", "ops/s", "us/op", "B/op", "MB/s", "gc", "gc-ms"));
+		for (String topology : topologies)
+		{
+			int[] cases = topology.equals("preset") ? presets : sizes;
+			for (int size : cases)
+			{
+				for (String radio : radios)
+				{
+					SimEngine engine = build(topology, size);
+					engine.setLinkModel(SimEngine.createLinkModel(radio));
+					String label = topology.equals("preset") ? "preset-" + (size+1) : topology;
+					
+					for (String benchmark : benchmarks)
+					{
+						System.out.println(run(label, engine, radio, benchmark, warmupMs, timeMs));
+					}
+				}
+			}
+		}
+		System.out.println("(sink " + sink + ")");
+	}
+	
+	
+	//print what went wrong and how to run the benchmark, then quit
+	private static void terminate(String message)
+	{
+		System.out.println(message + "\n" + USAGE + "\nTerminating...\n");
+		System.exit(0);
+	}
+	
+	
+	//build a mesh of the given shape, for presets size is the preset number
+	public static SimEngine build(String topology, int size)
+	{
+		SimEngine engine;
+		switch (topology)
+		{
+			//nodes evenly spaced along a single line
+			case ("line"):
+				engine = new SimEngine(new BoundingBox(size*SPACING + 2*MARGIN, 2*MARGIN));
+				for (int i=0; i<size; i++)
+				{
+					engine.addNode("n" + i, RANGE, MARGIN + i*SPACING, MARGIN);
+				}
+				return engine;
+			
+			//nodes on a square lattice
+			case ("grid"):
+				int side = (int)Math.ceil(Math.sqrt(size));
+				engine = new SimEngine(new BoundingBox(side*SPACING + 2*MARGIN, side*SPACING + 2*MARGIN));
+				for (int i=0; i<size; i++)
+				{
+					engine.addNode("n" + i, RANGE, MARGIN + (i%side)*SPACING, MARGIN + (i/side)*SPACING);
+				}
+				return engine;
+			
+			//seeded procedural meshes, loaded in one bulk operation
+			case ("random"):
+			case ("jittered"):
+			case ("cluster"):
+			case ("corridor"):
+				String kind = topology.equals("jittered") ? MeshGenerator.KIND_GRID : topology;
+				Scenario scenario = new MeshGenerator(SEED, "n").generate(kind, size, RANGE);
+				engine = new SimEngine(new BoundingBox(scenario.getWidth(), scenario.getHeight()));
+				engine.loadScenario(scenario);
+				return engine;
+			
+			//built in example configurations
+			case ("preset"):
+				engine = new SimEngine(new BoundingBox(ctrl.LowpanSim.HEADLESS_X, ctrl.LowpanSim.HEADLESS_Y));
+				engine.loadPreset(size);
+				return engine;
+			
+			default:
+				throw new IllegalArgumentException("Unknown topology " + topology);
+		}
+	}
+	
+	
+	//get the operation to be timed for a benchmark
+	private static Runnable operation(String benchmark, SimEngine engine)
+	{
+		//fixed pseudo random source/destination/root triples
+		MeshGraph graph = engine.getMeshGraph();
+		Random rand = new Random(SEED);
+		LowpanNode[][] pairs = new LowpanNode[ROUTE_PAIRS][3];
+		for (LowpanNode[] pair : pairs)
+		{
+			for (int i=0; i<pair.length; i++)
+			{
+				pair[i] = graph.getNode(rand.nextInt(graph.size()));
+			}
+		}
+		int[] cursor = {0};
+		
+		switch (benchmark)
+		{
+			case ("computePaths"):
+				return () -> {
+					engine.computePaths();
+					sink += engine.getTopologyEpoch();
+				};
+			case ("treeify"):
+				return () -> {
+					LowpanNode[] pair = pairs[cursor[0]++ % ROUTE_PAIRS];
+					sink += pair[0].treeify().getChildren().size();
+				};
+			case ("routeIdeal"):
+				return () -> {
+					LowpanNode[] pair = pairs[cursor[0]++ % ROUTE_PAIRS];
+					ArrayList<LowpanNode> route = engine.routeIdeal(pair[0], pair[1]);
+					sink += (route == null) ? 0 : route.size();
+				};
+			case ("routeRPL"):
+				//one root for every query, as in the UI, DODAGs are kept per root between queries
+				return () -> {
+					LowpanNode[] pair = pairs[cursor[0]++ % ROUTE_PAIRS];
+					ArrayList<LowpanNode> route = engine.routeRPL(pair[0], pair[1], pairs[0][2]);
+					sink += (route == null) ? 0 : route.size();
+				};
+			case ("routeETX"):
+				return () -> {
+					LowpanNode[] pair = pairs[cursor[0]++ % ROUTE_PAIRS];
+					ArrayList<LowpanNode> route = engine.routeEtx(pair[0], pair[1]);
+					sink += (route == null) ? 0 : route.size();
+				};
+			case ("dodagForest"):
+				//every DODAG from FOREST_ROOTS roots at once, built from scratch on each call
+				int[] roots = new int[FOREST_ROOTS];
+				for (int i=0; i<FOREST_ROOTS; i++)
+				{
+					roots[i] = graph.indexOf(pairs[i][2]);
+				}
+				return () -> {
+					sink += RouteEngine.get().dodagForest(graph, roots, false).getSize(0);
+				};
+			case ("hasChild"):
+				//search the DODAG of each root, trees are built ahead of time
+				ArrayList<TreeNode<LowpanNode>> trees = new ArrayList<TreeNode<LowpanNode>>(ROUTE_PAIRS);
+				for (int i=0; i<ROUTE_PAIRS; i++)
+				{
+					trees.add(pairs[i][2].treeify());
+				}
+				return () -> {
+					int i = cursor[0]++ % ROUTE_PAIRS;
+					sink += trees.get(i).hasChild(pairs[i][1]) ? 1 : 0;
+				};
+			case ("lca"):
+				//common ancestor of each pair in the DODAG of each root, trees are built ahead of time
+				CompactTree[] compact = new CompactTree[ROUTE_PAIRS];
+				for (int i=0; i<ROUTE_PAIRS; i++)
+				{
+					compact[i] = engine.getDodag(pairs[i][2]).toCompactTree();
+				}
+				return () -> {
+					int i = cursor[0]++ % ROUTE_PAIRS;
+					int a = compact[i].indexOf(pairs[i][0]);
+					int b = compact[i].indexOf(pairs[i][1]);
+					sink += (a < 0 || b < 0) ? 0 : compact[i].lca(a, b);
+				};
+			default:
+				throw new IllegalArgumentException("Unknown benchmark " + benchmark);
+		}
+	}
+	
+	
+	//warm up then time a single case
+	private static String run(String topology, SimEngine engine, String radio, String benchmark, long warmupMs, long timeMs)
+	{
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		int nodes = engine.getNodes().size();
+		try
+		{
+			Runnable op = operation(benchmark, engine);
+			
+			//warmup
+			long end = System.nanoTime() + warmupMs*1000000;
+			while (System.nanoTime() < end)
+			{
+				op.run();
+			}
+			
+			//measure
+			long gcCount = gcCount();
+			long gcTime = gcTime();
+			long allocated = threads.getThreadAllocatedBytes(thread);
+			long start = System.nanoTime();
+			long ops = 0;
+			long elapsed;
+			do
+			{
+				op.run();
+				ops++;
+				elapsed = System.nanoTime() - start;
+			}
+			while (elapsed < timeMs*1000000);
+			allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+			
+			double seconds = elapsed / 1e9;
+			return String.format("%-10s %8d %7s %-13s %14.1f %14.2f %14d %10.1f %6d %8d",
+					topology, nodes, radio, benchmark,
+					ops/seconds,
+					(elapsed/1e3)/ops,
+					allocated/ops,
+					(allocated/1e6)/seconds,
+					gcCount() - gcCount,
+					gcTime() - gcTime);
+		}
+		//recursive and exponential structures give out on large meshes, report rather than abort the suite
+		catch (StackOverflowError e)
+		{
+			return String.format("%-10s %8d %7s %-13s %14s", topology, nodes, radio, benchmark, "stack overflow");
+		}
+		catch (OutOfMemoryError e)
+		{
+			return String.format("%-10s %8d %7s %-13s %14s", topology, nodes, radio, benchmark, "out of memory");
+		}
+	}
+	
+	
+	//total collections over all collectors
+	private static long gcCount()
+	{
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			count += Math.max(0, gc.getCollectionCount());
+		}
+		return count;
+	}
+	
+	
+	//total collection time over all collectors (ms)
+	private static long gcTime()
+	{
+		long time = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			time += Math.max(0, gc.getCollectionTime());
+		}
+		return time;
+	}
+}
@@ -0,0 +1,442 @@
+/**
+ * Class:				ExperimentRunner.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Monte Carlo experiments over many random meshes, run on every core.
+ * 						Each trial generates its own mesh, links it under the chosen link model,
+ * 						and routes a sample of random node pairs both on least hops routes and
+ * 						under the chosen routing mode, measuring connectivity, hop counts and the
+ * 						stretch of the routing mode over least hops. Every trial draws all of its
+ * 						randomness from its own seed, worked out from the experiment seed and the
+ * 						trial number alone, and trials are totalled in trial order, so results are
+ * 						the same whatever the number of threads.
+ * 
+ * 						Run with:
+ * 							java -cp <classes> bench.ExperimentRunner [options]
+ * 						Options:
+ * 							--generate random 500		mesh kind and node count, any of random, grid,
+ * 														cluster, corridor
+ * 							--range 100				node range (px)
+ * 							--radio B					link model, any of A, B, quasi, logdist, prr
+ * 							--routing rpl				any of rpl (least hops DODAGs), rpl-etx (least ETX
+ * 														DODAGs), etx (least ETX routes)
+ * 							--roots 1					border routers per trial for rpl and rpl-etx
+ * 							--trials 100				number of meshes
+ * 							--pairs 200				node pairs routed per mesh
+ * 							--seed 1					experiment seed
+ * 							--threads 8				worker threads, all cores by default
+ * 							--csv FILE					write one row per trial to FILE
+ * 							--json FILE				write settings, summary and trials to FILE
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package bench;
+
+
+//import libraries
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//import packages
+import ctrl.SimEngine;
+import datatype.BoundingBox;
+import datatype.DodagForest;
+import datatype.MeshGenerator;
+import datatype.MeshGraph;
+import datatype.RouteEngine;
+import datatype.Scenario;
+
+
+
+
+public class ExperimentRunner
+{
+	//declaring static class constants
+	public static final String ROUTING_RPL = "rpl";
+	public static final String ROUTING_RPL_ETX = "rpl-etx";
+	public static final String ROUTING_ETX = "etx";
+	public static final String[] ROUTINGS = {ROUTING_RPL, ROUTING_RPL_ETX, ROUTING_ETX};
+	public static final String[] COLUMNS = {"nodes", "links", "degree", "connectivity", "idealHops", "routeHops", "routed", "stretch", "maxStretch"};
+	private static final int NODES = 0;
+	private static final int LINKS = 1;
+	private static final int DEGREE = 2;
+	private static final int CONNECTIVITY = 3;
+	private static final int IDEAL_HOPS = 4;
+	private static final int ROUTE_HOPS = 5;
+	private static final int ROUTED = 6;
+	private static final int STRETCH = 7;
+	private static final int MAX_STRETCH = 8;
+	private static final String NAME_PREFIX = "n";
+	private static final String[] FLAGS = {"--generate", "--range", "--radio", "--routing", "--roots", "--trials", "--pairs",
+			"--seed", "--threads", "--csv", "--json"};
+	private static final String USAGE = "Usage: java bench.ExperimentRunner [--generate KIND N] [--range PX] [--radio MODEL]"
+			+ " [--routing MODE] [--roots N] [--trials N] [--pairs N] [--seed N] [--threads N] [--csv FILE] [--json FILE]";
+	
+	//declaring local instance variables
+	private final String kind;
+	private final int count;
+	private final int range;
+	private final String radio;
+	private final String routing;
+	private final int roots;
+	private final int pairs;
+	private final long seed;
+	
+	
+	//generic constructor
+	public ExperimentRunner(String kind, int count, int range, String radio, String routing, int roots, int pairs, long seed)
+	{
+		this.kind = kind;
+		this.count = count;
+		this.range = range;
+		this.radio = radio;
+		this.routing = routing;
+		this.roots = roots;
+		this.pairs = pairs;
+		this.seed = seed;
+	}
+	
+	
+	/* run trials, spread over threads, each measuring one mesh
+	 *
+	 * RETURN results[trial][column] with columns as in COLUMNS, in trial order
+	 */
+	public double[][] run(int trials, int threads) throws InterruptedException, ExecutionException
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+		try
+		{
+			ArrayList<Future<double[]>> pending = new ArrayList<Future<double[]>>(trials);
+			for (int t=0; t<trials; t++)
+			{
+				long trialSeed = trialSeed(seed, t);
+				pending.add(pool.submit(() -> trial(trialSeed)));
+			}
+			double[][] results = new double[trials][];
+			for (int t=0; t<trials; t++)
+			{
+				results[t] = pending.get(t).get();
+			}
+			return results;
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+	
+	
+	//generate, link and route over a single mesh, every random choice drawn from trialSeed
+	public double[] trial(long trialSeed)
+	{
+		//mesh and link model both come from the trial seed
+		Scenario scenario = new MeshGenerator(trialSeed, NAME_PREFIX).generate(kind, count, range);
+		SimEngine engine = new SimEngine(new BoundingBox(scenario.getWidth(), scenario.getHeight()));
+		engine.setLinkModel(SimEngine.createLinkModel(radio, trialSeed));
+		engine.loadScenario(scenario);
+		MeshGraph graph = engine.getMeshGraph();
+		RouteEngine router = RouteEngine.get();
+		Random rand = new Random(trialSeed);
+		int n = graph.size();
+		
+		//border routers are picked before any pairs, so they do not depend on the pair count
+		DodagForest forest = null;
+		if (!routing.equals(ROUTING_ETX))
+		{
+			int[] borders = new int[Math.min(roots, n)];
+			for (int i=0; i<borders.length; i++)
+			{
+				borders[i] = rand.nextInt(n);
+			}
+			forest = router.dodagForest(graph, borders, routing.equals(ROUTING_RPL_ETX));
+		}
+		
+		//route random pairs both ways, stretch only counts pairs routed both ways
+		double[] result = new double[COLUMNS.length];
+		int connected = 0;
+		int routed = 0;
+		long idealHops = 0;
+		long routeHops = 0;
+		double stretch = 0;
+		double maxStretch = 0;
+		for (int p=0; p<pairs && n > 1; p++)
+		{
+			int src = rand.nextInt(n);
+			int dest = rand.nextInt(n-1);
+			dest += (dest >= src) ? 1 : 0;
+			
+			int[] ideal = router.route(graph, src, dest);
+			if (ideal == null)
+			{
+				continue;
+			}
+			connected++;
+			idealHops += ideal.length-1;
+			int[] route = (forest == null) ? router.routeEtx(graph, src, dest) : forest.route(src, dest);
+			if (route != null)
+			{
+				double ratio = (double)(route.length-1) / (ideal.length-1);
+				routed++;
+				routeHops += route.length-1;
+				stretch += ratio;
+				maxStretch = Math.max(maxStretch, ratio);
+			}
+		}
+		
+		result[NODES] = n;
+		result[LINKS] = graph.linkCount();
+		result[DEGREE] = (n > 0) ? 2.0*graph.linkCount()/n : 0;
+		result[CONNECTIVITY] = (pairs > 0) ? (double)connected/pairs : 0;
+		result[IDEAL_HOPS] = (connected > 0) ? (double)idealHops/connected : 0;
+		result[ROUTE_HOPS] = (routed > 0) ? (double)routeHops/routed : 0;
+		result[ROUTED] = (connected > 0) ? (double)routed/connected : 0;
+		result[STRETCH] = (routed > 0) ? stretch/routed : 0;
+		result[MAX_STRETCH] = maxStretch;
+		return result;
+	}
+	
+	
+	/* mean, standard deviation, min and max of every column, totalled in trial order
+	 *
+	 * RETURN summary[column][statistic]
+	 */
+	public static double[][] summarize(double[][] results)
+	{
+		double[][] summary = new double[COLUMNS.length][4];
+		for (int c=0; c<COLUMNS.length; c++)
+		{
+			double sum = 0;
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (double[] result : results)
+			{
+				sum += result[c];
+				min = Math.min(min, result[c]);
+				max = Math.max(max, result[c]);
+			}
+			double mean = (results.length > 0) ? sum/results.length : 0;
+			double square = 0;
+			for (double[] result : results)
+			{
+				square += (result[c]-mean)*(result[c]-mean);
+			}
+			summary[c][0] = mean;
+			summary[c][1] = (results.length > 1) ? Math.sqrt(square/(results.length-1)) : 0;
+			summary[c][2] = (results.length > 0) ? min : 0;
+			summary[c][3] = (results.length > 0) ? max : 0;
+		}
+		return summary;
+	}
+	
+	
+	//seed of a single trial, a SplitMix64 step from the experiment seed so neighbouring trials are unrelated
+	public static long trialSeed(long seed, int trial)
+	{
+		long z = seed + (trial+1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+	
+	//write one row per trial, false if the file could not be written
+	public static boolean writeCsv(String path, double[][] results, long seed)
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(path)))
+		{
+			out.println("trial,seed," + String.join(",", COLUMNS));
+			for (int t=0; t<results.length; t++)
+			{
+				StringBuilder row = new StringBuilder(t + "," + trialSeed(seed, t));
+				for (double value : results[t])
+				{
+					row.append(',').append(format(value));
+				}
+				out.println(row);
+			}
+			return !out.checkError();
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+	
+	
+	//write settings, summary and every trial, false if the file could not be written
+	public boolean writeJson(String path, double[][] results, double[][] summary, int threads)
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(path)))
+		{
+			out.println("{");
+			out.println(String.format("  \"settings\": {\"generate\": \"%s\", \"nodes\": %d, \"range\": %d, \"radio\": \"%s\", "
+					+ "\"routing\": \"%s\", \"roots\": %d, \"trials\": %d, \"pairs\": %d, \"seed\": %d, \"threads\": %d},",
+					kind, count, range, radio, routing, roots, results.length, pairs, seed, threads));
+			out.println("  \"summary\": {");
+			for (int c=0; c<COLUMNS.length; c++)
+			{
+				out.println(String.format("    \"%s\": {\"mean\": %s, \"stdev\": %s, \"min\": %s, \"max\": %s}%s",
+						COLUMNS[c], format(summary[c][0]), format(summary[c][1]), format(summary[c][2]), format(summary[c][3]),
+						(c < COLUMNS.length-1) ? "," : ""));
+			}
+			out.println("  },");
+			out.println("  \"trials\": [");
+			for (int t=0; t<results.length; t++)
+			{
+				StringBuilder row = new StringBuilder("    {\"trial\": " + t + ", \"seed\": " + trialSeed(seed, t));
+				for (int c=0; c<COLUMNS.length; c++)
+				{
+					row.append(", \"").append(COLUMNS[c]).append("\": ").append(format(results[t][c]));
+				}
+				out.println(row.append((t < results.length-1) ? "}," : "}"));
+			}
+			out.println("  ]");
+			out.println("}");
+			return !out.checkError();
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+	
+	
+	//plain number, the same on every locale
+	private static String format(double value)
+	{
+		return String.format(Locale.ROOT, "%.6f", value);
+	}
+	
+	
+	//main runtime
+	public static void main(String[] args) throws InterruptedException, ExecutionException
+	{
+		//defaults
+		String kind = MeshGenerator.KIND_RANDOM;
+		int count = 500;
+		int range = EngineBenchmark.RANGE;
+		String radio = "B";
+		String routing = ROUTING_RPL;
+		int roots = 1;
+		int trials = 100;
+		int pairs = 200;
+		long seed = 1;
+		int threads = Runtime.getRuntime().availableProcessors();
+		String csv = null;
+		String json = null;
+		
+		//parse arguments, every flag takes one value apart from --generate which takes two
+		for (int i=0; i<args.length; i+=2)
+		{
+			int values = args[i].equals("--generate") ? 2 : 1;
+			if (!Arrays.asList(FLAGS).contains(args[i]))
+			{
+				terminate("Unknown flag \"" + args[i] + "\" found");
+			}
+			if (i+values >= args.length)
+			{
+				terminate("Flag \"" + args[i] + "\" expects " + values + ((values == 1) ? " value" : " values"));
+			}
+			try
+			{
+				switch (args[i])
+				{
+					case ("--generate"):
+						kind = args[i+1];
+						count = Integer.parseInt(args[i+2]);
+						i++;
+						break;
+					case ("--range"):
+						range = Integer.parseInt(args[i+1]);
+						break;
+					case ("--radio"):
+						radio = args[i+1];
+						break;
+					case ("--routing"):
+						routing = args[i+1];
+						break;
+					case ("--roots"):
+						roots = Integer.parseInt(args[i+1]);
+						break;
+					case ("--trials"):
+						trials = Integer.parseInt(args[i+1]);
+						break;
+					case ("--pairs"):
+						pairs = Integer.parseInt(args[i+1]);
+						break;
+					case ("--seed"):
+						seed = Long.parseLong(args[i+1]);
+						break;
+					case ("--threads"):
+						threads = Integer.parseInt(args[i+1]);
+						break;
+					case ("--csv"):
+						csv = args[i+1];
+						break;
+					case ("--json"):
+						json = args[i+1];
+						break;
+				}
+			}
+			catch (NumberFormatException e)
+			{
+				terminate("Flag \"" + args[i] + "\" expects a number");
+			}
+		}
+		if (!Arrays.asList(MeshGenerator.KINDS).contains(kind) || count < 1 || range < 1)
+		{
+			terminate("Flag \"--generate\" expects <" + String.join("|", MeshGenerator.KINDS) + "> <node count>");
+		}
+		if (SimEngine.createLinkModel(radio) == null)
+		{
+			terminate("Unknown link model \"" + radio + "\" found");
+		}
+		if (!Arrays.asList(ROUTINGS).contains(routing) || roots < 1 || trials < 1 || pairs < 1 || threads < 1)
+		{
+			terminate("Routing must be one of " + String.join(", ", ROUTINGS) + ", and counts must be positive");
+		}
+		
+		ExperimentRunner runner = new ExperimentRunner(kind, count, range, radio, routing, roots, pairs, seed);
+		long start = System.nanoTime();
+		double[][] results = runner.run(trials, threads);
+		double took = (System.nanoTime() - start)/1e9;
+		double[][] summary = summarize(results);
+		
+		System.out.println(String.format("%d trials of %s %d, radio %s, routing %s (%d roots), %d pairs each, seed %d, %d threads, %.2f s",
+				trials, kind, count, radio, routing, roots, pairs, seed, threads, took));
+		System.out.println(String.format("%-14s %12s %12s %12s %12s", "metric", "mean", "stdev", "min", "max"));
+		for (int c=0; c<COLUMNS.length; c++)
+		{
+			System.out.println(String.format("%-14s %12.4f %12.4f %12.4f %12.4f", COLUMNS[c], summary[c][0], summary[c][1], summary[c][2], summary[c][3]));
+		}
+		if (csv != null)
+		{
+			System.out.println(writeCsv(csv, results, seed) ? "Trials written to " + csv : "Could not write to " + csv);
+		}
+		if (json != null)
+		{
+			System.out.println(runner.writeJson(json, results, summary, threads) ? "Summary written to " + json : "Could not write to " + json);
+		}
+	}
+	
+	
+	//print what went wrong and how to run the experiments, then quit
+	private static void terminate(String message)
+	{
+		System.out.println(message + "\n" + USAGE + "\nTerminating...\n");
+		System.exit(0);
+	}
+}
@@ -0,0 +1,418 @@
+/**
+ * Class:				ComputeWorker.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Own the SimEngine on a single background thread, away from the Swing
+ * 						event thread. Every edit to the mesh is queued here and applied in bursts:
+ * 						all edits waiting when the worker wakes are applied together, a node moved
+ * 						many times in one burst is relinked once, and one snapshot of the mesh and
+ * 						requested routes is built per burst. Snapshots are published atomically and
+ * 						handed to the listener on the delivery executor, newest first, at most one
+ * 						hand over waiting at a time. An edit that throws is skipped, and the
+ * 						failure handed to the error listener on the delivery executor, again at
+ * 						most one waiting at a time.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package ctrl;
+
+
+//import libraries
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+//import packages
+import datatype.CompactTree;
+import datatype.DodagForest;
+import datatype.LowpanNode;
+import datatype.MeshGraph;
+import datatype.Metrics;
+import datatype.RouteCache;
+import datatype.TopologySnapshot;
+import ui.RouteRequester;
+
+
+
+
+public class ComputeWorker implements Runnable, RouteRequester
+{
+	//declaring static class constants
+	public static final String THREAD_NAME = "compute-worker";
+	private static final int NO_NODE = -1;
+	
+	//declaring local instance variables
+	private final SimEngine engine;
+	private final Executor delivery;
+	private final Consumer<TopologySnapshot> listener;
+	private final Consumer<RuntimeException> errors;
+	private final ArrayDeque<Runnable> edits;				// guarded by this
+	private int srcId, destId, rootId;						// guarded by this
+	private int[] borderIds;								// guarded by this
+	private boolean forestEtx;								// guarded by this
+	private boolean requestChanged;							// guarded by this
+	private final LinkedHashSet<LowpanNode> moved;			// worker thread only
+	private final RouteCache routes;						// worker thread only
+	private MeshGraph frozenFrom, frozen;					// worker thread only, last live graph copied and its copy
+	private final AtomicReference<TopologySnapshot> latest;
+	private final AtomicBoolean deliveryPending;
+	private final AtomicBoolean errorPending;
+	private Thread thread;
+	
+	
+	//generic constructor
+	public ComputeWorker(SimEngine engine, Executor delivery, Consumer<TopologySnapshot> listener, Consumer<RuntimeException> errors)
+	{
+		this.engine = engine;
+		this.delivery = delivery;
+		this.listener = listener;
+		this.errors = errors;
+		edits = new ArrayDeque<Runnable>();
+		srcId = NO_NODE;
+		destId = NO_NODE;
+		rootId = NO_NODE;
+		borderIds = new int[0];
+		forestEtx = false;
+		requestChanged = false;
+		moved = new LinkedHashSet<LowpanNode>();
+		routes = new RouteCache(engine);
+		frozenFrom = null;
+		frozen = null;
+		latest = new AtomicReference<TopologySnapshot>(null);
+		deliveryPending = new AtomicBoolean(false);
+		errorPending = new AtomicBoolean(false);
+		thread = null;
+	}
+	
+	
+	//start the worker thread, the first snapshot is published straight away
+	public synchronized void start()
+	{
+		if (thread == null)
+		{
+			requestChanged = true;
+			thread = new Thread(this, THREAD_NAME);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+	
+	
+	//get the most recently published snapshot, null before the first
+	public TopologySnapshot getSnapshot()
+	{
+		return latest.get();
+	}
+	
+	
+	/* queue an edit to the whole engine, run on the worker thread in the order submitted
+	 * node changes queued before it are relinked first, so the edit sees them in place
+	 */
+	public void submit(Consumer<SimEngine> edit)
+	{
+		enqueue(() ->
+		{
+			relinkMoved();
+			edit.accept(engine);
+		});
+	}
+	
+	
+	/* queue an edit to the whole engine, as submit(), that hands back a result
+	 *
+	 * RETURN future completed with the result of the edit once it has been applied
+	 */
+	public <T> CompletableFuture<T> request(Function<SimEngine, T> edit)
+	{
+		CompletableFuture<T> result = new CompletableFuture<T>();
+		enqueue(() ->
+		{
+			relinkMoved();
+			try
+			{
+				result.complete(edit.apply(engine));
+			}
+			catch (RuntimeException e)
+			{
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+	
+	
+	/* queue a change to the node with an ID, which may move it or change its range
+	 * the node is relinked once, however many changes it gets in the same burst
+	 */
+	public void editNode(int id, Consumer<LowpanNode> change)
+	{
+		enqueue(() ->
+		{
+			LowpanNode node = engine.getNode(id);
+			if (node != null)
+			{
+				change.accept(node);
+				if (!moved.add(node))
+				{
+					Metrics.EDITS_COALESCED.inc();
+				}
+			}
+		});
+	}
+	
+	
+	@Override
+	//remember which routes to compute with each snapshot, building a fresh one if they changed
+	public synchronized void requestRoutes(LowpanNode src, LowpanNode dest, LowpanNode root)
+	{
+		int s = (src == null) ? NO_NODE : src.getId();
+		int d = (dest == null) ? NO_NODE : dest.getId();
+		int r = (root == null) ? NO_NODE : root.getId();
+		if (s != srcId || d != destId || r != rootId)
+		{
+			srcId = s;
+			destId = d;
+			rootId = r;
+			requestChanged = true;
+			notifyAll();
+		}
+	}
+	
+	
+	@Override
+	//remember which border routers to grow DODAGs from with each snapshot, building a fresh one if they changed
+	public synchronized void requestForest(Collection<LowpanNode> borderRouters, boolean etx)
+	{
+		int[] ids = new int[borderRouters.size()];
+		int i = 0;
+		for (LowpanNode node : borderRouters)
+		{
+			ids[i++] = node.getId();
+		}
+		if (!Arrays.equals(ids, borderIds) || etx != forestEtx)
+		{
+			borderIds = ids;
+			forestEtx = etx;
+			requestChanged = true;
+			notifyAll();
+		}
+	}
+	
+	
+	@Override
+	//apply queued edits a burst at a time, publishing one snapshot per burst
+	public void run()
+	{
+		while (true)
+		{
+			//wait for something to do, then take everything queued so far
+			ArrayList<Runnable> burst;
+			int src, dest, root;
+			int[] borders;
+			boolean etx;
+			synchronized (this)
+			{
+				while (edits.isEmpty() && !requestChanged)
+				{
+					try
+					{
+						wait();
+					}
+					catch (InterruptedException e)
+					{
+						return;
+					}
+				}
+				burst = new ArrayList<Runnable>(edits);
+				edits.clear();
+				requestChanged = false;
+				src = srcId;
+				dest = destId;
+				root = rootId;
+				borders = borderIds;
+				etx = forestEtx;
+			}
+			
+			//a bad edit is skipped, the worker must outlive it, and the first failure is reported
+			RuntimeException failed = null;
+			for (Runnable edit : burst)
+			{
+				try
+				{
+					edit.run();
+				}
+				catch (RuntimeException e)
+				{
+					if (failed == null)
+					{
+						failed = e;
+					}
+				}
+			}
+			relinkMoved();
+			publish(src, dest, root, borders, etx);
+			if (failed != null)
+			{
+				report(failed);
+			}
+		}
+	}
+	
+	
+	//hand a failed edit to the error listener, dropped if a report is still waiting or being shown
+	private void report(RuntimeException failed)
+	{
+		if (errorPending.compareAndSet(false, true))
+		{
+			delivery.execute(() ->
+			{
+				try
+				{
+					errors.accept(failed);
+				}
+				finally
+				{
+					errorPending.set(false);
+				}
+			});
+		}
+	}
+	
+	
+	//add an edit to the queue and wake the worker
+	private synchronized void enqueue(Runnable edit)
+	{
+		edits.add(edit);
+		notifyAll();
+	}
+	
+	
+	//relink every node changed since the last relink, skipping any removed since
+	private void relinkMoved()
+	{
+		for (LowpanNode node : moved)
+		{
+			if (engine.getNodes().contains(node))
+			{
+				engine.relinkNode(node);
+			}
+		}
+		moved.clear();
+	}
+	
+	
+	//build a snapshot of the mesh and requested routes, then hand it over
+	private void publish(int src, int dest, int root, int[] borders, boolean rankByEtx)
+	{
+		long start = Metrics.start();
+		//link qualities are worked out here, and nodes copied, once per topology, so a burst that only changes requests reuses the copy
+		MeshGraph live = engine.getMeshGraph();
+		if (live != frozenFrom)
+		{
+			live.getQualities();
+			frozen = live.freeze();
+			frozenFrom = live;
+		}
+		MeshGraph graph = frozen;
+		LowpanNode s = engine.getNode(src);
+		LowpanNode d = engine.getNode(dest);
+		LowpanNode r = engine.getNode(root);
+		
+		ArrayList<LowpanNode> ideal = null;
+		ArrayList<LowpanNode> rpl = null;
+		ArrayList<LowpanNode> etx = null;
+		long etxTime = -1;
+		CompactTree dodag = null;
+		DodagForest forest = null;
+		if (borders.length > 0)
+		{
+			ArrayList<LowpanNode> roots = new ArrayList<LowpanNode>(borders.length);
+			for (int id : borders)
+			{
+				LowpanNode node = engine.getNode(id);
+				if (node != null)
+				{
+					roots.add(node);
+				}
+			}
+			forest = engine.getDodagForest(roots, rankByEtx);
+		}
+		if (s != null && d != null)
+		{
+			ideal = frozen(graph, routes.getIdealRoute(s, d));
+			etx = frozen(graph, routes.getEtxRoute(s, d));
+			etxTime = routes.getEtxTime(s, d);
+		}
+		
+		//border routers, if any, take over RPL routing from the single root
+		if (forest != null)
+		{
+			if (s != null && d != null)
+			{
+				rpl = frozen(graph, engine.routeRPL(s, d, forest));
+			}
+		}
+		else if (r != null)
+		{
+			dodag = frozen(graph, engine.getDodag(r).toCompactTree());
+			if (s != null && d != null)
+			{
+				rpl = frozen(graph, routes.getRplRoute(s, d, r));
+			}
+		}
+		latest.set(new TopologySnapshot(graph, engine.getLinkModel(), engine.getMaxRange(), ideal, rpl, etx, etxTime, dodag, forest));
+		Metrics.stop(Metrics.SNAPSHOT, start);
+		
+		//a hand over still waiting will pick up this snapshot, so only one is ever queued
+		if (deliveryPending.compareAndSet(false, true))
+		{
+			delivery.execute(() ->
+			{
+				deliveryPending.set(false);
+				listener.accept(latest.get());
+			});
+		}
+	}
+	
+	
+	//same route over the frozen copies of its nodes
+	private static ArrayList<LowpanNode> frozen(MeshGraph graph, ArrayList<LowpanNode> route)
+	{
+		if (route == null)
+		{
+			return null;
+		}
+		ArrayList<LowpanNode> copy = new ArrayList<LowpanNode>(route.size());
+		for (LowpanNode node : route)
+		{
+			copy.add(graph.getNode(graph.indexOfId(node.getId())));
+		}
+		return copy;
+	}
+	
+	
+	//same tree over the frozen copies of its nodes
+	private static CompactTree frozen(MeshGraph graph, CompactTree tree)
+	{
+		LowpanNode[] nodes = new LowpanNode[tree.size()];
+		int[] parent = new int[tree.size()];
+		for (int i=0; i<tree.size(); i++)
+		{
+			nodes[i] = graph.getNode(graph.indexOfId(tree.getNode(i).getId()));
+			parent[i] = tree.getParent(i);
+		}
+		return new CompactTree(nodes, parent);
+	}
+}
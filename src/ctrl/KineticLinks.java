@@ -0,0 +1,216 @@
+/**
+ * Class:				KineticLinks.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Keep the links of a moving mesh up to date a tick at a time, without
+ * 						relinking every node every tick. Only pairs of nodes within link distance
+ * 						plus a skin are tracked (a Verlet list), and the list is rebuilt once any
+ * 						node has moved half the skin, before an untracked pair could close the gap.
+ * 						Each tracked pair holds a certificate: with nodes moving at most maxStep a
+ * 						tick, a pair a gap of g from its link distance cannot cross it for
+ * 						g/(2*maxStep) ticks, so it is filed in a timing wheel and only looked at
+ * 						again on the tick its certificate runs out.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package ctrl;
+
+
+//import libraries
+import java.awt.Point;
+import java.util.Arrays;
+
+//import packages
+import datatype.LowpanNode;
+import datatype.Metrics;
+
+
+
+
+public class KineticLinks
+{
+	//declaring static class constants
+	public static final int SKIN_TICKS = 8;
+	private static final int WHEEL = 64;
+	private static final int INITIAL_CAPACITY = 16;
+	
+	//declaring local instance variables
+	private final SimEngine engine;
+	private LowpanNode[] nodes;
+	private int[] indexOfId;
+	private double maxStep;
+	private int skin;
+	private int[] homeX, homeY;
+	private int[] pairA, pairB;
+	private int pairCount;
+	private int[][] wheel;
+	private int[] wheelSize;
+	private long tick;
+	
+	
+	//generic constructor
+	public KineticLinks(SimEngine engine)
+	{
+		this.engine = engine;
+		nodes = new LowpanNode[0];
+		indexOfId = new int[0];
+		homeX = new int[0];
+		homeY = new int[0];
+		pairA = new int[INITIAL_CAPACITY];
+		pairB = new int[INITIAL_CAPACITY];
+		pairCount = 0;
+		wheel = new int[WHEEL][INITIAL_CAPACITY];
+		wheelSize = new int[WHEEL];
+		tick = 0;
+	}
+	
+	
+	//generic getters
+	public int getPairCount()
+	{
+		return pairCount;
+	}
+	public int getSkin()
+	{
+		return skin;
+	}
+	
+	
+	/* start tracking a set of nodes, whose links must be correct as they stand,
+	 * none of which will move further than maxStep pixels in any one tick
+	 */
+	public void reset(LowpanNode[] nodes, double maxStep)
+	{
+		this.nodes = nodes;
+		this.maxStep = Math.max(1, maxStep);
+		skin = (int)Math.ceil(2 * SKIN_TICKS * this.maxStep);
+		
+		int limit = 0;
+		for (LowpanNode node : nodes)
+		{
+			limit = Math.max(limit, node.getId()+1);
+		}
+		indexOfId = new int[limit];
+		for (int i=0; i<nodes.length; i++)
+		{
+			indexOfId[nodes[i].getId()] = i;
+		}
+		rebuild();
+	}
+	
+	
+	//bring links up to date after every node has made its move for the next tick
+	public void update()
+	{
+		tick++;
+		
+		//once anything may have crossed the skin the pair list no longer covers every link
+		long half = (long)skin * skin / 4;
+		for (int i=0; i<nodes.length; i++)
+		{
+			Point loc = nodes[i].getLocation();
+			long dx = loc.x - homeX[i];
+			long dy = loc.y - homeY[i];
+			if (dx*dx + dy*dy > half)
+			{
+				rebuild();
+				return;
+			}
+		}
+		
+		//otherwise only pairs whose certificates ran out this tick need checking
+		//pairs are always filed at least a tick ahead, so this slot is not added to while it is read
+		int slot = (int)(tick % WHEEL);
+		int count = wheelSize[slot];
+		wheelSize[slot] = 0;
+		for (int k=0; k<count; k++)
+		{
+			check(wheel[slot][k]);
+		}
+		Metrics.KINETIC_CHECKS.add(count);
+	}
+	
+	
+	//track every pair within link distance plus the skin, and bring each of their links up to date
+	private void rebuild()
+	{
+		long start = Metrics.start();
+		pairCount = 0;
+		for (int s=0; s<WHEEL; s++)
+		{
+			wheelSize[s] = 0;
+		}
+		homeX = new int[nodes.length];
+		homeY = new int[nodes.length];
+		for (int i=0; i<nodes.length; i++)
+		{
+			homeX[i] = nodes[i].getLocation().x;
+			homeY[i] = nodes[i].getLocation().y;
+		}
+		
+		//each pair is tracked exactly once, from the lower ID side
+		for (int i=0; i<nodes.length; i++)
+		{
+			LowpanNode self = nodes[i];
+			int reach = engine.reach(self) + skin;
+			for (LowpanNode pair : engine.getCandidates(self.getLocation(), reach))
+			{
+				if (self.getId() < pair.getId() && pair.getId() < indexOfId.length &&
+					nodes[indexOfId[pair.getId()]] == pair &&
+					self.getLocation().distance(pair.getLocation()) <= engine.linkDistance(self, pair) + skin)
+				{
+					addPair(i, indexOfId[pair.getId()]);
+				}
+			}
+		}
+		for (int p=0; p<pairCount; p++)
+		{
+			check(p);
+		}
+		Metrics.stop(Metrics.KINETIC_REBUILD, start);
+	}
+	
+	
+	//bring the link of a tracked pair up to date, and file it under the tick its certificate runs out
+	private void check(int p)
+	{
+		LowpanNode a = nodes[pairA[p]];
+		LowpanNode b = nodes[pairB[p]];
+		double d = a.getLocation().distance(b.getLocation());
+		double linkDistance = engine.linkDistance(a, b);
+		engine.setLinked(a, b, d <= linkDistance);
+		
+		long safe = (long)(Math.abs(d - linkDistance) / (2*maxStep));
+		schedule(p, tick + Math.max(1, Math.min(safe, WHEEL-1)));
+	}
+	
+	
+	//add a pair to the list of tracked pairs
+	private void addPair(int a, int b)
+	{
+		if (pairCount == pairA.length)
+		{
+			pairA = Arrays.copyOf(pairA, 2*pairCount);
+			pairB = Arrays.copyOf(pairB, 2*pairCount);
+		}
+		pairA[pairCount] = a;
+		pairB[pairCount] = b;
+		pairCount++;
+	}
+	
+	
+	//file a pair in the timing wheel to be checked on the given tick
+	private void schedule(int p, long when)
+	{
+		int slot = (int)(when % WHEEL);
+		if (wheelSize[slot] == wheel[slot].length)
+		{
+			wheel[slot] = Arrays.copyOf(wheel[slot], 2*wheelSize[slot]);
+		}
+		wheel[slot][wheelSize[slot]++] = p;
+	}
+}
@@ -2,14 +2,24 @@
  * Class:				LowpanSim.java
  * Project:				Lowpan Network Sim
  * Author:				Jason Van Kerkhoven
- * Date of Update:		12/02/2017
- * Version:				1.0.0
+ * Date of Update:		18/10/2026
+ * Version:				2.0.0
  * 
  * Purpose:				Draw a lowpan mesh network using intuitive user controls.
  * 						Build to allow users to better grasp the goal of the overall project.
  * 						Support various strength lowpan nodes for realism.
  * 
- * Update Log:			v1.0.0
+ * Update Log:			v2.0.0
+ * 							- links found through a SpatialGrid, only edited nodes relinked
+ * 							- link and route computation moved onto a ComputeWorker thread
+ * 							- headless command line mode over SimEngine
+ * 							- nodes held in an ID-indexed NodeRegistry
+ * 							- pluggable LinkModel replaces the boolean radio type
+ * 							- scenario files, mesh generators and mobility models added
+ * 							- packet simulation with traffic models and latency histograms
+ * 							- ETX routing and multi-root DODAG forests added
+ * 							- metrics overlay and file dump added
+ * 						v1.0.0
  * 							- null
  */
 package ctrl;
@@ -26,11 +36,30 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 //import packages
-import datatype.IdDispatcher;
+import datatype.BoundingBox;
+import datatype.Dodag;
+import datatype.DodagForest;
+import datatype.LinkListener;
+import datatype.LinkModel;
 import datatype.LowpanNode;
+import datatype.MeshGenerator;
+import datatype.MeshGraph;
+import datatype.Metrics;
+import datatype.MobilityModel;
+import datatype.RoutingTable;
+import datatype.Scenario;
+import datatype.TopologySnapshot;
+import datatype.TrafficModel;
 import ui.NetworkView;
 import ui.NodeCanvas;
 
@@ -45,12 +74,20 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 	public static final int MIN_RANGE = NodeCanvas.NODE_DIAMETER/2;
 	public static final int DEFAULT_RANGE = 100;
 	public static final String DEFAULT_NAME = "new_node";
+	public static final int HEADLESS_X = 1016;
+	public static final int HEADLESS_Y = 650;
+	public static final String GENERATED_NAME = "g";
+	public static final long DEFAULT_SEED = 1;
 	
 	//declaring local instance variables
-	private HashSet<LowpanNode> nodes;
-	private IdDispatcher dispatch;
+	private SimEngine engine;
+	private ComputeWorker worker;
 	private NetworkView ui;
-	private boolean radioType;		// T => easy || F => real
+	private BoundingBox area;				// worker thread only, copy of the canvas size
+	private MobilitySim mobility;			// worker thread only
+	private Timer mobilityTimer;
+	private volatile int mobilitySpeed;
+	private AtomicBoolean tickPending;
 	
 	
 	//generic constructor
@@ -61,57 +98,221 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 	//base constructor
 	public LowpanSim(boolean fullscreen)
 	{
-		//initialize
-		nodes = new HashSet<LowpanNode>();
-		dispatch = new IdDispatcher();
-		ui = new NetworkView(WINDOW_NAME, nodes, fullscreen, this, this, this, this);
+		//initialize, from here on the engine is only touched on the worker thread
+		engine = new SimEngine(null);
+		worker = new ComputeWorker(engine, SwingUtilities::invokeLater, snapshot -> ui.setSnapshot(snapshot), e ->
+				JOptionPane.showMessageDialog(ui,
+						"An edit to the mesh failed and was skipped:\n" + e,
+						"Edit Error",
+						JOptionPane.ERROR_MESSAGE));
+		ui = new NetworkView(WINDOW_NAME, fullscreen, this, this, this, this, worker);
+		area = new BoundingBox(HEADLESS_X, HEADLESS_Y);		// until the canvas is first sized, see componentResized()
+		engine.setSizeReporter(area);
+		worker.start();
 		ui.enabledKeyInput();
-		radioType = true;
+		
+		//nodes stay put until a mobility model is picked
+		mobility = null;
+		mobilitySpeed = 1;
+		tickPending = new AtomicBoolean(false);
+		mobilityTimer = new Timer((int)(MobilitySim.TICK*1000), e -> stepMobility());
 	}
 	
 	
 	//create a new node
 	public void addNode(String name, int range, int locX, int locY)
 	{
-		int id = dispatch.getNextID();
-		LowpanNode node = new LowpanNode(id, name, range, locX, locY, ui);
-		nodes.add(node);
-		
-		ui.updateRoutingSelectors(nodes);
-		computePaths();
+		worker.request(engine -> engine.addNode(name, range, locX, locY)).thenAcceptAsync(node ->
+		{
+			if (node == null)
+			{
+				JOptionPane.showMessageDialog(ui,
+						"No node IDs left, remove a node first.",
+						"Add Node Error",
+						JOptionPane.ERROR_MESSAGE);
+			}
+		}, SwingUtilities::invokeLater);
 	}
 	
 	
-	//remove a node from simulation
+	//remove a node from simulation, by ID since the UI only holds snapshot copies
 	public void removeNode(LowpanNode node)
 	{
-		for (LowpanNode neighbour : node.getNeighbours())
+		int id = node.getId();
+		worker.submit(engine ->
 		{
-			neighbour.removeNeighbour(node);
-		}
-		
-		nodes.remove(node);
-		dispatch.retireID(node.getId());
-		node = null;
-		
-		ui.updateRoutingSelectors(nodes);
-		computePaths();
+			LowpanNode live = engine.getNode(id);
+			if (live != null)
+			{
+				engine.removeNode(live);
+			}
+		});
 	}
 	
 	
 	//remove all nodes from simulator
 	public void removeAllNodes()
 	{
-		nodes.clear();
+		worker.submit(SimEngine::removeAllNodes);
+	}
+	
+	
+	//change link model, relinking the whole mesh
+	public void setLinkModel(LinkModel linkModel)
+	{
+		worker.submit(engine -> engine.setLinkModel(linkModel));
+	}
+	
+	
+	//replace all nodes with one of the preset configurations
+	public void loadPreset(int preset)
+	{
+		worker.submit(engine -> engine.loadPreset(preset));
+	}
+	
+	
+	//replace all nodes with those saved in a scenario file, read and linked on the worker
+	public void loadScenario(String path)
+	{
+		worker.request(engine ->
+		{
+			Scenario scenario = Scenario.read(path);
+			if (scenario != null)
+			{
+				engine.loadScenario(scenario);
+			}
+			return (scenario != null);
+		}).thenAcceptAsync(loaded ->
+		{
+			if (!loaded)
+			{
+				JOptionPane.showMessageDialog(ui,
+						"Could not load a scenario from " + path,
+						"Scenario Error",
+						JOptionPane.ERROR_MESSAGE);
+			}
+		}, SwingUtilities::invokeLater);
+	}
+	
+	
+	//save all nodes and their links to a scenario file, text if it ends in .txt
+	public void saveScenario(String path)
+	{
+		worker.request(engine -> engine.toScenario(true).write(path)).thenAcceptAsync(saved ->
+		{
+			if (!saved)
+			{
+				JOptionPane.showMessageDialog(ui,
+						"Could not write to " + path,
+						"Scenario Error",
+						JOptionPane.ERROR_MESSAGE);
+			}
+		}, SwingUtilities::invokeLater);
+	}
+	
+	
+	//replace all nodes with a generated mesh filling the canvas, ranges picked for about MeshGenerator.MEAN_DEGREE links per node
+	public void generate(String kind, int n, long seed)
+	{
+		int width = ui.getCurrentX();
+		int height = ui.getCurrentY();
+		int range = Math.max(MIN_RANGE, MeshGenerator.rangeFor(n, width, height));
+		worker.submit(engine -> engine.loadScenario(new MeshGenerator(seed, GENERATED_NAME).generate(kind, n, width, height, range)));
+	}
+	
+	
+	/* send traffic through the mesh as it stands, on the worker, then show how it went
+	 * flows go from every node up to root, or from src to dest over the DODAG rooted at root, or on least hops routes if root is null
+	 */
+	public void simulateTraffic(String kind, long interval, int seconds, boolean toRoot, LowpanNode src, LowpanNode dest, LowpanNode root)
+	{
+		int s = (src == null) ? -1 : src.getId();
+		int d = (dest == null) ? -1 : dest.getId();
+		int r = (root == null) ? -1 : root.getId();
+		worker.request(engine ->
+		{
+			PacketSim sim = new PacketSim(engine.getMeshGraph());
+			Dodag dodag = (engine.getNode(r) == null) ? null : engine.getDodag(engine.getNode(r));
+			if (toRoot)
+			{
+				if (sim.addReporting(dodag, kind, interval, -1, DEFAULT_SEED) == null)
+				{
+					return null;
+				}
+			}
+			else if (engine.getNode(s) != null && engine.getNode(d) != null && (r == -1 || dodag != null))
+			{
+				sim.addFlow(engine.getNode(s), engine.getNode(d), dodag, 0, PacketSim.createTraffic(kind, interval, DEFAULT_SEED), -1);
+			}
+			else
+			{
+				return null;
+			}
+			sim.run(seconds * 1000000L);
+			return sim.report();
+		}).thenAcceptAsync(report ->
+		{
+			if (report == null)
+			{
+				JOptionPane.showMessageDialog(ui,
+						toRoot ? "A DODAG root must be selected." : "A source and destination must be selected.",
+						"Traffic Error",
+						JOptionPane.ERROR_MESSAGE);
+			}
+			else
+			{
+				ui.showTrafficReport(report);
+			}
+		}, SwingUtilities::invokeLater);
+	}
+	
+	
+	//start moving every node under a mobility model, or stop them all with null
+	public void setMobility(String kind)
+	{
+		worker.submit(engine -> mobility = (kind == null) ? null : new MobilitySim(engine, MobilitySim.createModel(kind, DEFAULT_SEED)));
+		if (kind == null)
+		{
+			mobilityTimer.stop();
+		}
+		else
+		{
+			mobilityTimer.start();
+		}
 	}
 	
 	
-	//get all nodes in simulation
-	public HashSet<LowpanNode> getNodes()
+	//run mobility at a multiple of real time, by running that many ticks each tick period
+	public void setMobilitySpeed(int speed)
 	{
-		return nodes;
+		mobilitySpeed = speed;
+	}
+	
+	
+	//queue the ticks for one tick period, skipped if the worker has not finished the last lot
+	private void stepMobility()
+	{
+		if (tickPending.compareAndSet(false, true))
+		{
+			int ticks = mobilitySpeed;
+			worker.submit(engine ->
+			{
+				try
+				{
+					if (mobility != null)
+					{
+						mobility.advance(ticks);
+					}
+				}
+				finally
+				{
+					tickPending.set(false);
+				}
+			});
+		}
 	}
 	
+	
 	@Override
 	//respond to update/remove req from interface
 	public void actionPerformed(ActionEvent ae) 
@@ -119,90 +320,94 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 		//get active node
 		LowpanNode activeNode = ui.getActiveNode();
 		String cmd = ae.getActionCommand();
-
-		//source is altering radio type
-		if (cmd.equals(NetworkView.RADIO_TYPE_A))
+		
+		//source is altering link model
+		if (cmd.equals(NetworkView.LINK_MODEL))
 		{
-			radioType = true;
-			this.computePaths();
-			ui.update();
+			this.setLinkModel(SimEngine.createLinkModel(ui.getLinkModelKind()));
 		}
-		else if (cmd.equals(NetworkView.RADIO_TYPE_B))
+		
+		//change to a preset
+		else if (presetOf(cmd) != -1)
 		{
-			radioType = false;
-			this.computePaths();
-			ui.update();
+			this.loadPreset(presetOf(cmd));
 		}
 		
-		//change to linear preset
-		else if (cmd.equals(NetworkView.PRESETS[0]))
-		{
-			dispatch.reset();
-			this.removeAllNodes();
-			this.addNode("Mercury", 100, 85, 320);
-			this.addNode("Venus", 100, 265, 320);
-			this.addNode("Earth", 100, 445, 320);
-			this.addNode("Mars", 100, 625, 320);
-			this.addNode("Ceres", 100, 805, 320);
-			ui.update();
-		}
-		//change to tree preset
-		else if (cmd.equals(NetworkView.PRESETS[1]))
-		{
-			dispatch.reset();
-			this.removeAllNodes();
-			this.addNode("Clarke", 100, 505, 50);
-			this.addNode("Asimov", 100, 325, 110);
-			this.addNode("Heinlein", 100, 685, 110);
-			this.addNode("Kennedy", 100, 205, 260);
-			this.addNode("Banks", 100, 445, 260);
-			this.addNode("Adams", 100, 685, 260);
-			this.addNode("Capek", 75, 115, 350);
-			this.addNode("Boulle", 70, 295, 350);
-			this.addNode("Cherryh", 80, 385, 470);
-			this.addNode("Herbert", 65, 235, 470);
-			ui.update();
-		}
-		//change to sparse preset
-		else if (cmd.equals(NetworkView.PRESETS[2]))
-		{
-			dispatch.reset();
-			this.removeAllNodes();
-			this.addNode("Isengard TA", 175, 650, 175);
-			this.addNode("Minas Tirith CA", 100, 430, 290);
-			this.addNode("Minas Morgul CA", 100, 310, 170);
-			this.addNode("Rivendell CA", 100, 260, 295);
-			this.addNode("Barad-dur CA", 100, 400, 430);
-			this.addNode("Helm's Deep CA", 100, 550, 550);
-			ui.update();
-		}
-		//change to cluster preset
-		else if (cmd.equals(NetworkView.PRESETS[3]))
-		{
-			dispatch.reset();
-			this.removeAllNodes();
-			//TODO add something
-			ui.update();
-		}
-		//change to matrix preset
-		else if (cmd.equals(NetworkView.PRESETS[4]))
-		{
-			dispatch.reset();
-			this.removeAllNodes();
-			this.addNode("Julius", 100, 235, 110);
-			this.addNode("Augustus", 100, 415, 110);
-			this.addNode("Tiberius", 100, 595, 110);
-			this.addNode("Caligula", 100, 325, 200);
-			this.addNode("Claudius", 100, 505, 200);
-			this.addNode("Nero", 100, 235, 290);
-			this.addNode("Titus", 100, 415, 290);
-			this.addNode("Aurelius", 100, 595, 290);
-			this.addNode("Commodus", 100, 325, 380);
-			this.addNode("Septimius", 100, 505, 380);
-			this.addNode("Constantine", 100, 235, 470);
-			this.addNode("Valerian", 100, 415, 470);
-			this.addNode("Pertinax", 100, 595, 470);
-			ui.update();
+		//start, stop or speed up node movement
+		else if (cmd.startsWith(NetworkView.MENU_MOBILITY_SPEED))
+		{
+			this.setMobilitySpeed(Integer.parseInt(cmd.substring(NetworkView.MENU_MOBILITY_SPEED.length())));
+		}
+		else if (cmd.equals(NetworkView.MENU_MOBILITY_OFF))
+		{
+			this.setMobility(null);
+		}
+		else if (cmd.startsWith(NetworkView.MENU_MOBILITY))
+		{
+			this.setMobility(cmd.substring(NetworkView.MENU_MOBILITY.length()));
+		}
+		
+		//replace all nodes with a generated mesh
+		else if (cmd.equals(NetworkView.MENU_GENERATE))
+		{
+			if (ui.chooseGenerator())
+			{
+				Integer count = ui.getGeneratorCount();
+				Long seed = ui.getGeneratorSeed();
+				if (count == null || count < 1 || seed == null)
+				{
+					JOptionPane.showMessageDialog(ui,
+							"Node count must be a positive number, and seed a number.",
+							"Generate Error",
+							JOptionPane.ERROR_MESSAGE);
+				}
+				else
+				{
+					this.generate(ui.getGeneratorKind(), count, seed);
+				}
+			}
+		}
+		
+		//send traffic through the mesh and report on it
+		else if (cmd.equals(NetworkView.MENU_TRAFFIC))
+		{
+			if (ui.chooseTraffic())
+			{
+				Integer interval = ui.getTrafficInterval();
+				Integer seconds = ui.getTrafficSeconds();
+				if (interval == null || interval < 1 || seconds == null || seconds < 1)
+				{
+					JOptionPane.showMessageDialog(ui,
+							"Mean interval and simulated time must be positive numbers.",
+							"Traffic Error",
+							JOptionPane.ERROR_MESSAGE);
+				}
+				else
+				{
+					//pairs follow RPL routes only while RPL routing is on, reports always climb the DODAG
+					boolean toRoot = ui.isTrafficToRoot();
+					this.simulateTraffic(ui.getTrafficKind(), interval*1000L, seconds, toRoot,
+							ui.getSourceNode(), ui.getDestinationNode(), (toRoot || ui.isRplRouting()) ? ui.getRootNode() : null);
+				}
+			}
+		}
+		
+		//load or save the whole mesh
+		else if (cmd.equals(NetworkView.MENU_OPEN_SCENARIO))
+		{
+			String path = ui.chooseScenarioFile(false);
+			if (path != null)
+			{
+				this.loadScenario(path);
+			}
+		}
+		else if (cmd.equals(NetworkView.MENU_SAVE_SCENARIO))
+		{
+			String path = ui.chooseScenarioFile(true);
+			if (path != null)
+			{
+				this.saveScenario(path);
+			}
 		}
 		
 		//source is alternating node information
@@ -217,7 +422,7 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 						this.removeNode(activeNode);
 						ui.setActiveNode(null);
 						break;
-	
+					
 					//update active node
 					case (NetworkView.BTN_UPDATE):
 						//get inputs
@@ -237,16 +442,16 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 						}
 						else
 						{
-							//update node 
-							activeNode.setLocation(x, y);
-							activeNode.setName(name);
-							activeNode.setRange(range);
-							
-							//update ui
-							ui.setActiveNode(activeNode);
+							//update node, the ui follows once the worker publishes it
+							worker.editNode(activeNode.getId(), node ->
+							{
+								node.setLocation(x, y);
+								node.setName(name);
+								node.setRange(range);
+							});
 						}
 						break;
-						
+					
 					//add new node
 					case (NetworkView.BTN_NEW_NODE):
 						Dimension cs = ui.getCanvasSize();
@@ -256,14 +461,8 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 					//remove all nodes
 					case (NetworkView.BTN_REMOVE_ALL):
 						this.removeAllNodes();
-						dispatch.reset();
 						break;
 				}
-				
-				
-				//update mesh and routing selectors
-				ui.updateRoutingSelectors(nodes);
-				ui.update();
 			}
 		}
 	}
@@ -276,19 +475,12 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 		ui.enabledKeyInput();			//hacc solution
 		int buff = NodeCanvas.NODE_DIAMETER;
 		
-		//determine if any node selected
-		for (LowpanNode node : nodes)
+		//determine if any node selected, from what is on screen
+		TopologySnapshot snapshot = ui.getSnapshot();
+		LowpanNode node = (snapshot == null) ? null : snapshot.getNodeAt(click.getX(), click.getY(), buff);
+		if (node != null)
 		{
-			Point loc = node.getLocation();
-			int nodeX = loc.x;
-			int nodeY = loc.y;
-			
-			//check if click was on node
-			if (nodeX-buff <= click.getX() && click.getX() <= nodeX+buff &&
-				nodeY-buff <= click.getY() && click.getY() <= nodeY+buff)
-			{
-				ui.setActiveNode(node);
-			}
+			ui.setActiveNode(node);
 		}
 	}
 	
@@ -297,7 +489,7 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 	//keyboard press
 	public void keyPressed(KeyEvent ke)
 	{
-		boolean pathingFlag = true;
+		Consumer<LowpanNode> change = null;		// non-null => active node moved or changed range
 		LowpanNode activeNode = ui.getActiveNode();
 		if (activeNode != null)
 		{
@@ -305,115 +497,90 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 			{
 				//move up a step
 				case (KeyEvent.VK_UP):
-					activeNode.decY();
+					change = LowpanNode::decY;
 					break;
-					
+				
 				//move down a step
 				case (KeyEvent.VK_DOWN):
-					activeNode.incY();
+					change = LowpanNode::incY;
 					break;
 				
 				//move left a step
 				case (KeyEvent.VK_LEFT):
-					activeNode.decX();
+					change = LowpanNode::decX;
 					break;
 				
 				//move right a step
 				case (KeyEvent.VK_RIGHT):
-					activeNode.incX();
+					change = LowpanNode::incX;
 					break;
-					
+				
 				//increase range
 				case (KeyEvent.VK_EQUALS):
-					activeNode.incRange();
+					change = LowpanNode::incRange;
 					break;
 				
 				//decrease range
 				case (KeyEvent.VK_MINUS):
-					activeNode.decRange();
+					change = LowpanNode::decRange;
 					break;
-					
+				
 				//switch nodes (maybe)
 				default:
-					pathingFlag = false;
 					if (ke.getKeyCode() >= KeyEvent.VK_0 && ke.getKeyCode() <= KeyEvent.VK_9)
 					{
 						int id = ke.getKeyCode() - 0x30;
-						for (LowpanNode node : nodes)
+						LowpanNode node = (ui.getSnapshot() == null) ? null : ui.getSnapshot().getNode(id);
+						if (node != null)
 						{
-							if (node.getId() == id)
-							{
-								ui.setActiveNode(node);
-								break;
-							}
+							ui.setActiveNode(node);
 						}
 					}
 					break;
 			}
-			ui.update();
-		}
-		
-		//TODO VERY INEFFICENT -- CONSIDER REWRITE
-		//update mesh paths for all nodes
-		if (pathingFlag)
-		{
-			computePaths();
+			
+			//only the active node has changed, a held key's repeats are relinked together on the worker
+			if (change != null)
+			{
+				worker.editNode(activeNode.getId(), change);
+			}
 		}
 	}
 	
 	
-	//compute all node paths
-	public void computePaths()
+	//map a preset menu command to its preset number, -1 if not a preset
+	private static int presetOf(String cmd)
 	{
-		/*
-		 * TODO
-		 * Lines 304-310 are always called twice (self adds pair, pair adds self) x2
-		 * with self and pair being swapped between calls
-		 * 
-		 * While the LowpanNode data-type prevents redundant neighbors and guards against
-		 * non-applicable removals, this is still unnecessary function calls.
-		 * 
-		 * Would be good to write a more elegant algorithm as opposed to the brute-force
-		 * "compare all in N to all others in N" algorithm currently implemented
-		 */
-		
-		//iterate for all nodes in manifest
-		for (LowpanNode self : nodes)
+		for (int i=0; i<NetworkView.PRESETS.length; i++)
 		{
-			//iterate for all nodes in manifest
-			for (LowpanNode pair : nodes)
+			if (cmd.equals(NetworkView.PRESETS[i]))
 			{
-				//compare all nodes to all other nodes that are not itself
-				if (!self.equals(pair))
-				{
-					//check if radio-well intersection for easy radio
-					//check for radio-well containing node for realistic radio
-					double d = self.getLocation().distance(pair.getLocation());
-					if ( (radioType && (self.getLocation().distance(pair.getLocation()) <= self.getRange()+pair.getRange()))
-						|| (!radioType && (d <= self.getRange() && d <= pair.getRange())) )
-					{
-						self.addNeighbour(pair);
-						pair.addNeighbour(self);
-					}
-					else
-					{
-						self.removeNeighbour(pair);
-						pair.removeNeighbour(self);
-					}
-				}
+				return i;
 			}
 		}
+		return -1;
 	}
 	
 	
-	//handle resizing of main window
+	//handle resizing of main window, the new canvas size is read here on the EDT and handed to the worker
 	@Override
 	public void componentResized(ComponentEvent arg0)
 	{
-		for (LowpanNode node : nodes)
+		int width = ui.getCurrentX();
+		int height = ui.getCurrentY();
+		worker.submit(engine ->
 		{
-			node.validateLocation();
-		}
+			area.setSize(width, height);
+			for (LowpanNode node : engine.getNodes())
+			{
+				Point old = new Point(node.getLocation());
+				node.validateLocation();
+				if (!old.equals(node.getLocation()))
+				{
+					engine.relinkNode(node);
+				}
+			}
+		});
 	}
 	
 	
@@ -428,13 +595,380 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 	@Override public void componentShown(ComponentEvent arg0) {}
 	
 	
+	//run the engine without any windows, printing the mesh and any requested routes
+	private static void runHeadless(int preset, LinkModel linkModel, String load, Scenario generated, String save,
+			String mobility, int moveSeconds, long seed, int[] ideal, int[] rpl, int[] etx, int[] roots, boolean rankByEtx,
+			boolean table, int simulate, String traffic, long interval, int sensors, String metrics)
+	{
+		if (metrics != null)
+		{
+			Metrics.setEnabled(true);
+		}
+		
+		//a loaded or generated scenario may be bigger than the default area
+		Scenario scenario = generated;
+		BoundingBox area = new BoundingBox(HEADLESS_X, HEADLESS_Y);
+		if (load != null)
+		{
+			scenario = Scenario.read(load);
+			if (scenario == null)
+			{
+				System.out.println("Could not load a scenario from \"" + load + "\"\nTerminating...\n");
+				System.exit(0);
+			}
+		}
+		if (scenario != null)
+		{
+			area = new BoundingBox(Math.max(HEADLESS_X, scenario.getWidth()), Math.max(HEADLESS_Y, scenario.getHeight()));
+		}
+		
+		SimEngine engine = new SimEngine(area);
+		if (linkModel != null)
+		{
+			engine.setLinkModel(linkModel);
+		}
+		if (preset != -1)
+		{
+			engine.loadPreset(preset);
+		}
+		if (scenario != null)
+		{
+			engine.loadScenario(scenario);
+		}
+		
+		//let the nodes wander before anything is printed or saved
+		if (mobility != null)
+		{
+			int[] changes = new int[2];
+			LinkListener counter = new LinkListener()
+			{
+				@Override
+				public void linkAdded(LowpanNode a, LowpanNode b)
+				{
+					changes[0]++;
+				}
+				
+				@Override
+				public void linkRemoved(LowpanNode a, LowpanNode b)
+				{
+					changes[1]++;
+				}
+				
+				@Override public void linksRebuilt() {}
+			};
+			engine.addLinkListener(counter);
+			int ticks = (int)Math.round(moveSeconds / MobilitySim.TICK);
+			new MobilitySim(engine, MobilitySim.createModel(mobility, seed)).advance(ticks);
+			engine.removeLinkListener(counter);
+			System.out.println("Moved under " + mobility + " mobility for " + moveSeconds + " s (" + ticks + " ticks): "
+					+ changes[0] + " links made, " + changes[1] + " broken");
+		}
+		if (save != null)
+		{
+			System.out.println(engine.toScenario(true).write(save) ? "Scenario written to " + save : "Could not write scenario to " + save);
+		}
+		
+		//print mesh
+		MeshGraph graph = engine.getMeshGraph();
+		System.out.println(graph.size() + " nodes, " + graph.linkCount() + " links, radio " + engine.getLinkModel().getName());
+		for (int i=0; i<graph.size(); i++)
+		{
+			LowpanNode node = graph.getNode(i);
+			String s = node + " \"" + node.getName() + "\" @ (" + node.getLocation().x + ", " + node.getLocation().y + ")"
+					+ " range " + node.getRange() + ":";
+			for (int k=graph.getOffsets()[i]; k<graph.getOffsets()[i+1]; k++)
+			{
+				s += " " + graph.getNode(graph.getAdjacency()[k]).getId();
+			}
+			System.out.println(s);
+		}
+		
+		//print next hop table, one row per source
+		if (table)
+		{
+			RoutingTable routes = engine.getRoutingTable();
+			System.out.println("Next hops (row = source, column = destination):");
+			for (int src=0; src<graph.size(); src++)
+			{
+				String s = graph.getNode(src).getId() + ":";
+				for (int dest=0; dest<graph.size(); dest++)
+				{
+					int hop = routes.getNextHop(src, dest);
+					s += " " + ((hop == RoutingTable.UNREACHABLE) ? "-" : ""+graph.getNode(hop).getId());
+				}
+				System.out.println(s);
+			}
+		}
+		
+		//print routes
+		if (ideal != null)
+		{
+			printRoute("Ideal", engine, ideal[0], ideal[1], -1);
+		}
+		if (rpl != null)
+		{
+			printRoute("RPL", engine, rpl[0], rpl[1], rpl[2]);
+		}
+		if (etx != null)
+		{
+			printEtxRoute(engine, etx[0], etx[1]);
+		}
+		if (roots != null)
+		{
+			printForest(engine, roots, rankByEtx, ideal);
+		}
+		
+		//send packets along each requested route, and from every node up to the sensor root
+		if (simulate > 0)
+		{
+			PacketSim sim = new PacketSim(graph);
+			if (ideal != null && engine.getNode(ideal[0]) != null && engine.getNode(ideal[1]) != null)
+			{
+				sim.addFlow(engine.getNode(ideal[0]), engine.getNode(ideal[1]), null, 0, PacketSim.createTraffic(traffic, interval, seed), -1);
+			}
+			if (rpl != null && engine.getNode(rpl[0]) != null && engine.getNode(rpl[1]) != null && engine.getNode(rpl[2]) != null)
+			{
+				sim.addFlow(engine.getNode(rpl[0]), engine.getNode(rpl[1]), engine.getDodag(engine.getNode(rpl[2])), 0, PacketSim.createTraffic(traffic, interval, seed+1), -1);
+			}
+			LowpanNode sensorRoot = engine.getNode(sensors);
+			if (sensors != -1 && sim.addReporting((sensorRoot == null) ? null : engine.getDodag(sensorRoot), traffic, interval, -1, seed) == null)
+			{
+				System.out.println("Sensors: unknown node ID " + sensors);
+			}
+			sim.run(simulate * 1000000L);
+			System.out.print(sim.report());
+		}
+		
+		//write out where the time went
+		if (metrics != null)
+		{
+			System.out.println(Metrics.dump(metrics) ? "Metrics written to " + metrics : "Could not write metrics to " + metrics);
+		}
+	}
+	
+	
+	//print a single route between node IDs
+	private static void printRoute(String type, SimEngine engine, int srcId, int destId, int dodagId)
+	{
+		LowpanNode src = engine.getNode(srcId);
+		LowpanNode dest = engine.getNode(destId);
+		LowpanNode dodag = (dodagId == -1) ? null : engine.getNode(dodagId);
+		ArrayList<LowpanNode> route = null;
+		
+		if (src == null || dest == null || (dodagId != -1 && dodag == null))
+		{
+			System.out.println(type + ": unknown node ID");
+			return;
+		}
+		else if (dodag == null)
+		{
+			route = engine.routeIdeal(src, dest);
+		}
+		else
+		{
+			route = engine.routeRPL(src, dest, dodag);
+		}
+		
+		String s = type + ":";
+		if (route != null)
+		{
+			for (LowpanNode node : route)
+			{
+				s += " " + node.getId();
+			}
+		}
+		else
+		{
+			s += " No Routes";
+		}
+		System.out.println(s);
+	}
+	
+	
+	/* build the link model named on the command line, ignoring case
+	 *
+	 * RETURN model
+	 * OTHERWISE return null if name is not one of LinkModel.KINDS
+	 */
+	private static LinkModel linkModelOf(String name)
+	{
+		for (String kind : LinkModel.KINDS)
+		{
+			if (kind.equalsIgnoreCase(name))
+			{
+				return SimEngine.createLinkModel(kind);
+			}
+		}
+		return null;
+	}
+	
+	
+	//print the least ETX route between node IDs, with its cost and how long it took to find
+	private static void printEtxRoute(SimEngine engine, int srcId, int destId)
+	{
+		LowpanNode src = engine.getNode(srcId);
+		LowpanNode dest = engine.getNode(destId);
+		if (src == null || dest == null)
+		{
+			System.out.println("ETX: unknown node ID");
+			return;
+		}
+		
+		long start = System.nanoTime();
+		ArrayList<LowpanNode> route = engine.routeEtx(src, dest);
+		long took = System.nanoTime() - start;
+		
+		String s = "ETX:";
+		if (route != null)
+		{
+			for (LowpanNode node : route)
+			{
+				s += " " + node.getId();
+			}
+			s += String.format(" (cost %.2f)", engine.getMeshGraph().routeCost(route));
+		}
+		else
+		{
+			s += " No Routes";
+		}
+		System.out.println(s + String.format(" in %.3f ms", took/1e6));
+	}
+	
+	
+	//print the DODAGs grown from every root ID at once, and the route between the pair in pair if given
+	private static void printForest(SimEngine engine, int[] rootIds, boolean rankByEtx, int[] pair)
+	{
+		ArrayList<LowpanNode> roots = new ArrayList<LowpanNode>();
+		for (int id : rootIds)
+		{
+			if (engine.getNode(id) == null)
+			{
+				System.out.println("Forest: unknown node ID " + id);
+				return;
+			}
+			roots.add(engine.getNode(id));
+		}
+		
+		//one line per DODAG, ranks are hops or total ETX to the root
+		MeshGraph graph = engine.getMeshGraph();
+		DodagForest forest = engine.getDodagForest(roots, rankByEtx);
+		int[] depth = new int[forest.getRootCount()];
+		double[] rank = new double[forest.getRootCount()];
+		for (int i=0; i<graph.size(); i++)
+		{
+			int owner = forest.getOwner(i);
+			if (owner != DodagForest.NONE)
+			{
+				depth[owner] = Math.max(depth[owner], forest.getDepth(i));
+				rank[owner] = Math.max(rank[owner], forest.getRank(i));
+			}
+		}
+		int joined = 0;
+		for (int r=0; r<forest.getRootCount(); r++)
+		{
+			joined += forest.getSize(r);
+			System.out.println(String.format("DODAG root %d: %d nodes, depth %d, max rank %.2f (%s)",
+					graph.getNode(forest.getRoot(r)).getId(), forest.getSize(r), depth[r], rank[r],
+					rankByEtx ? DodagForest.OBJECTIVE_ETX : DodagForest.OBJECTIVE_HOPS));
+		}
+		System.out.println((graph.size() - joined) + " nodes joined no DODAG");
+		
+		//route across the forest, by way of the border routers if the ends joined different DODAGs
+		if (pair != null)
+		{
+			LowpanNode src = engine.getNode(pair[0]);
+			LowpanNode dest = engine.getNode(pair[1]);
+			ArrayList<LowpanNode> route = (src == null || dest == null) ? null : engine.routeRPL(src, dest, forest);
+			String s = "Forest:";
+			if (route != null)
+			{
+				for (LowpanNode node : route)
+				{
+					s += " " + node.getId();
+				}
+			}
+			else
+			{
+				s += " No Routes";
+			}
+			System.out.println(s);
+		}
+	}
+	
+	
+	//parse comma separated node IDs, null if any is not a number
+	private static int[] parseIds(String list)
+	{
+		try
+		{
+			String[] parts = list.split(",");
+			int[] ids = new int[parts.length];
+			for (int i=0; i<parts.length; i++)
+			{
+				ids[i] = Integer.parseInt(parts[i].trim());
+			}
+			return ids;
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+	
+	
+	//parse integer arguments following a flag
+	private static int[] parseArgs(String[] args, int start, int count)
+	{
+		if (start+count > args.length)
+		{
+			return null;
+		}
+		try
+		{
+			int[] values = new int[count];
+			for (int i=0; i<count; i++)
+			{
+				values[i] = Integer.parseInt(args[start+i]);
+			}
+			return values;
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+	
+	
 	//main runtime
 	public static void main(String[] args)
 	{
 		//parse arguments
 		boolean fullscreen = false;
-		for (String flag : args)
+		boolean headless = false;
+		int preset = -1;
+		LinkModel linkModel = null;
+		int[] ideal = null;
+		int[] rpl = null;
+		int[] etx = null;
+		int[] roots = null;
+		boolean rankByEtx = false;
+		boolean table = false;
+		int simulate = 0;
+		String traffic = TrafficModel.PERIODIC;
+		long interval = PacketSim.DEFAULT_INTERVAL;
+		int sensors = -1;
+		String metrics = null;
+		String load = null;
+		String save = null;
+		String generate = null;
+		int count = 0;
+		long seed = DEFAULT_SEED;
+		String mobility = null;
+		int moveSeconds = 0;
+		for (int i=0; i<args.length; i++)
 		{
+			String flag = args[i];
+			int[] values = null;
 			switch (flag)
 			{
 				//fullscreen flag
@@ -443,6 +977,231 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 					fullscreen = true;
 					break;
 				
+				//headless flag
+				case("--headless"):
+					headless = true;
+					break;
+				
+				//preset flag, numbered as in presets menu
+				case("-p"):
+				case("--preset"):
+					values = parseArgs(args, i+1, 1);
+					if (values != null && values[0] >= 1 && values[0] <= SimEngine.PRESET_COUNT)
+					{
+						preset = values[0]-1;
+						i += 1;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects a preset number 1-" + SimEngine.PRESET_COUNT + "\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//link model flag, radio A and B as before or any other model by name
+				case("-r"):
+				case("--radio"):
+					linkModel = (i+1 < args.length) ? linkModelOf(args[i+1]) : null;
+					if (linkModel != null)
+					{
+						i += 1;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects a link model, one of " + String.join(", ", LinkModel.KINDS) + "\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//ideal route flag
+				case("--route"):
+					ideal = parseArgs(args, i+1, 2);
+					if (ideal == null)
+					{
+						System.out.println("Flag \"" + flag + "\" expects <src ID> <dest ID>\nTerminating...\n");
+						System.exit(0);
+					}
+					i += 2;
+					break;
+				
+				//rpl route flag
+				case("--rpl"):
+					rpl = parseArgs(args, i+1, 3);
+					if (rpl == null)
+					{
+						System.out.println("Flag \"" + flag + "\" expects <src ID> <dest ID> <DODAG ID>\nTerminating...\n");
+						System.exit(0);
+					}
+					i += 3;
+					break;
+				
+				//least ETX route flag
+				case("--etx"):
+					etx = parseArgs(args, i+1, 2);
+					if (etx == null)
+					{
+						System.out.println("Flag \"" + flag + "\" expects <src ID> <dest ID>\nTerminating...\n");
+						System.exit(0);
+					}
+					i += 2;
+					break;
+				
+				//border router flags, growing one DODAG per root ranked by the objective
+				case("--roots"):
+					roots = (i+1 < args.length) ? parseIds(args[i+1]) : null;
+					if (roots == null)
+					{
+						System.out.println("Flag \"" + flag + "\" expects <ID,ID,...>\nTerminating...\n");
+						System.exit(0);
+					}
+					i += 1;
+					break;
+				case("--objective"):
+					if (i+1 < args.length && (args[i+1].equals(DodagForest.OBJECTIVE_HOPS) || args[i+1].equals(DodagForest.OBJECTIVE_ETX)))
+					{
+						rankByEtx = args[i+1].equals(DodagForest.OBJECTIVE_ETX);
+						i += 1;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects <" + DodagForest.OBJECTIVE_HOPS + "|" + DodagForest.OBJECTIVE_ETX + ">\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//next hop table flag
+				case("--table"):
+					table = true;
+					break;
+				
+				//packet simulation flag
+				case("--simulate"):
+					values = parseArgs(args, i+1, 1);
+					if (values != null && values[0] > 0)
+					{
+						simulate = values[0];
+						i += 1;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects a number of seconds\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//traffic model flag, for every simulated flow
+				case("--traffic"):
+					values = parseArgs(args, i+2, 1);
+					if (values != null && values[0] > 0 && Arrays.asList(TrafficModel.KINDS).contains(args[i+1]))
+					{
+						traffic = args[i+1];
+						interval = values[0] * 1000L;
+						i += 2;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects <" + String.join("|", TrafficModel.KINDS) + "> <mean interval ms>\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//sensor reporting flag, every node sends to the root
+				case("--sensors"):
+					values = parseArgs(args, i+1, 1);
+					if (values != null)
+					{
+						sensors = values[0];
+						i += 1;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects <root ID>\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//metrics dump flag
+				case("--metrics"):
+					if (i+1 < args.length)
+					{
+						metrics = args[i+1];
+						i += 1;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects a file name\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//scenario file flags
+				case("--load"):
+				case("--save"):
+					if (i+1 < args.length)
+					{
+						if (flag.equals("--load"))
+						{
+							load = args[i+1];
+						}
+						else
+						{
+							save = args[i+1];
+						}
+						i += 1;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects a file name\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//generated mesh flag
+				case("--generate"):
+					values = parseArgs(args, i+2, 1);
+					if (values != null && values[0] > 0 && Arrays.asList(MeshGenerator.KINDS).contains(args[i+1]))
+					{
+						generate = args[i+1];
+						count = values[0];
+						i += 2;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects <" + String.join("|", MeshGenerator.KINDS) + "> <node count>\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//mobility flag
+				case("--mobility"):
+					values = parseArgs(args, i+2, 1);
+					if (values != null && values[0] > 0 && Arrays.asList(MobilityModel.KINDS).contains(args[i+1]))
+					{
+						mobility = args[i+1];
+						moveSeconds = values[0];
+						i += 2;
+					}
+					else
+					{
+						System.out.println("Flag \"" + flag + "\" expects <" + String.join("|", MobilityModel.KINDS) + "> <seconds>\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
+				//seed flag, for generated meshes and mobility
+				case("--seed"):
+					try
+					{
+						seed = Long.parseLong((i+1 < args.length) ? args[i+1] : "");
+						i += 1;
+					}
+					catch (NumberFormatException e)
+					{
+						System.out.println("Flag \"" + flag + "\" expects a number\nTerminating...\n");
+						System.exit(0);
+					}
+					break;
+				
 				//unknown flag
 				default:
 					System.out.println("Unknown flag \"" + flag + "\" found\nTerminating...\n");
@@ -451,7 +1210,40 @@ public class LowpanSim implements MouseListener, ActionListener, KeyListener, Co
 			}
 		}
 		
+		//run without windows
+		if (headless)
+		{
+			Scenario generated = (generate == null) ? null : new MeshGenerator(seed, GENERATED_NAME).generate(generate, count, DEFAULT_RANGE);
+			runHeadless(preset, linkModel, load, generated, save, mobility, moveSeconds, seed, ideal, rpl, etx, roots, rankByEtx, table, simulate, traffic, interval, sensors, metrics);
+		}
 		//create new simulator
-		LowpanSim sim = new LowpanSim(fullscreen);
+		else
+		{
+			//collect from the start, and write out when the window closes
+			if (metrics != null)
+			{
+				String file = metrics;
+				Metrics.setEnabled(true);
+				Runtime.getRuntime().addShutdownHook(new Thread(() -> Metrics.dump(file)));
+			}
+			
+			LowpanSim sim = new LowpanSim(fullscreen);
+			if (linkModel != null)
+			{
+				sim.setLinkModel(linkModel);
+			}
+			if (preset != -1)
+			{
+				sim.loadPreset(preset);
+			}
+			if (load != null)
+			{
+				sim.loadScenario(load);
+			}
+			if (generate != null)
+			{
+				sim.generate(generate, count, seed);
+			}
+		}
 	}
 }
\ No newline at end of file
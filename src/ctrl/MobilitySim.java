@@ -0,0 +1,164 @@
+/**
+ * Class:				MobilitySim.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Move every node of the mesh under a mobility model, in fixed ticks of TICK
+ * 						simulated seconds, keeping links up to date through KineticLinks rather than
+ * 						relinking the whole mesh each tick. Runs on whichever thread owns the engine.
+ * 						Anything else changing the mesh between ticks (nodes added, removed, moved
+ * 						by hand, a new link model) is spotted from the topology epoch, and tracking
+ * 						starts over from the mesh as it then stands.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package ctrl;
+
+
+//import libraries
+import java.util.Arrays;
+
+//import packages
+import datatype.GroupMobility;
+import datatype.LowpanNode;
+import datatype.Metrics;
+import datatype.MobilityModel;
+import datatype.RandomWalk;
+import datatype.RandomWaypoint;
+import ui.SizeReporter;
+
+
+
+
+public class MobilitySim
+{
+	//declaring static class constants
+	public static final double TICK = 0.1;					// simulated seconds
+	public static final double MIN_SPEED = 5;				// pixels per second
+	public static final double MAX_SPEED = 30;
+	public static final double PAUSE = 2;					// seconds
+	public static final double WALK_INTERVAL = 2;			// seconds
+	public static final int GROUPS = 4;
+	public static final double MEMBER_SPEED = 5;
+	public static final double GROUP_RADIUS = 60;
+	
+	//declaring local instance variables
+	private final SimEngine engine;
+	private final MobilityModel model;
+	private final KineticLinks links;
+	private LowpanNode[] nodes;
+	private double[] x, y;
+	private long epoch;
+	private long ticks;
+	
+	
+	//generic constructor
+	public MobilitySim(SimEngine engine, MobilityModel model)
+	{
+		this.engine = engine;
+		this.model = model;
+		links = new KineticLinks(engine);
+		nodes = null;
+		x = new double[0];
+		y = new double[0];
+		epoch = -1;
+		ticks = 0;
+	}
+	
+	
+	/* build one of the named mobility models with default speeds
+	 *
+	 * RETURN model
+	 * OTHERWISE return null if kind is not one of MobilityModel.KINDS
+	 */
+	public static MobilityModel createModel(String kind, long seed)
+	{
+		switch (kind)
+		{
+			case (MobilityModel.WAYPOINT):
+				return new RandomWaypoint(seed, MIN_SPEED, MAX_SPEED, PAUSE);
+			case (MobilityModel.WALK):
+				return new RandomWalk(seed, MIN_SPEED, MAX_SPEED, WALK_INTERVAL);
+			case (MobilityModel.GROUP):
+				return new GroupMobility(seed, GROUPS, MIN_SPEED, MAX_SPEED, MEMBER_SPEED, GROUP_RADIUS);
+			default:
+				return null;
+		}
+	}
+	
+	
+	//generic getters
+	public MobilityModel getModel()
+	{
+		return model;
+	}
+	public long getTicks()
+	{
+		return ticks;
+	}
+	public KineticLinks getLinks()
+	{
+		return links;
+	}
+	
+	
+	//run a number of ticks back to back
+	public void advance(int count)
+	{
+		for (int i=0; i<count; i++)
+		{
+			tick();
+		}
+	}
+	
+	
+	//move every node on by one tick, then bring links up to date
+	public void tick()
+	{
+		long start = Metrics.start();
+		SizeReporter area = engine.getSizeReporter();
+		int width = area.getCurrentX();
+		int height = area.getCurrentY();
+		if (engine.getTopologyEpoch() != epoch)
+		{
+			resync(width, height);
+		}
+		
+		model.step(x, y, width, height, TICK);
+		for (int i=0; i<nodes.length; i++)
+		{
+			engine.moveNode(nodes[i], (int)Math.round(x[i]), (int)Math.round(y[i]));
+		}
+		links.update();
+		engine.nodesMoved();
+		epoch = engine.getTopologyEpoch();
+		ticks++;
+		Metrics.stop(Metrics.MOBILITY_TICK, start);
+	}
+	
+	
+	//pick up the mesh as it now stands, the model only starts over if the nodes themselves changed
+	private void resync(int width, int height)
+	{
+		LowpanNode[] current = engine.getNodes().toArray(new LowpanNode[0]);
+		boolean sameNodes = Arrays.equals(current, nodes);
+		nodes = current;
+		x = new double[nodes.length];
+		y = new double[nodes.length];
+		for (int i=0; i<nodes.length; i++)
+		{
+			x[i] = nodes[i].getLocation().x;
+			y[i] = nodes[i].getLocation().y;
+		}
+		if (!sameNodes)
+		{
+			model.reset(x, y, width, height);
+		}
+		
+		//rounding to whole pixels can add up to a pixel to any one move
+		links.reset(nodes, model.getMaxSpeed()*TICK + 1);
+	}
+}
@@ -0,0 +1,468 @@
+/**
+ * Class:				PacketSim.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Discrete-event simulation of packets moving hop by hop through the mesh.
+ * 						Each flow sends packets along its ideal route, or its RPL route over one
+ * 						of the engine's DODAGs, spaced out by its traffic model (periodic, Poisson
+ * 						or bursty). Every node transmits one packet at a time, each transmission
+ * 						taking the hop delay, so packets queue at busy nodes, and are dropped
+ * 						once a node's queue is full. Delivery ratio, throughput and latency
+ * 						percentiles are collected per flow in Histograms, and packets live only
+ * 						as pooled events, so memory stays the same however long it runs.
+ * 
+ * 						All times are in microseconds of simulated time.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package ctrl;
+
+
+//import libraries
+import java.util.ArrayList;
+import java.util.Random;
+
+//import packages
+import datatype.BurstyTraffic;
+import datatype.CompactTree;
+import datatype.Dodag;
+import datatype.EventQueue;
+import datatype.Histogram;
+import datatype.LowpanNode;
+import datatype.MeshGraph;
+import datatype.PeriodicTraffic;
+import datatype.PoissonTraffic;
+import datatype.RouteEngine;
+import datatype.SimEvent;
+import datatype.TrafficModel;
+
+
+
+
+public class PacketSim
+{
+	//declaring static class constants
+	public static final long DEFAULT_HOP_DELAY = 4000;		// ~127 byte frame at 250 kbit/s
+	public static final long DEFAULT_INTERVAL = 1000000;
+	public static final int DEFAULT_QUEUE_LIMIT = 16;		// packets waiting at a node before it drops more
+	private static final int REPORTED_FLOWS = 32;
+	private static final int EVENT_EMIT = 1;
+	private static final int EVENT_HOP = 2;
+	
+	//declaring local instance variables
+	private MeshGraph graph;
+	private EventQueue queue;
+	private long now;
+	private long hopDelay;
+	private long[] busyUntil;
+	private int[] queued;
+	private int queueLimit;
+	private ArrayList<Flow> flows;
+	private long processed;
+	
+	
+	//generic constructor
+	public PacketSim(MeshGraph graph)
+	{
+		this.graph = graph;
+		queue = new EventQueue();
+		now = 0;
+		hopDelay = DEFAULT_HOP_DELAY;
+		busyUntil = new long[graph.size()];
+		queued = new int[graph.size()];
+		queueLimit = DEFAULT_QUEUE_LIMIT;
+		flows = new ArrayList<Flow>();
+		processed = 0;
+	}
+	
+	
+	//generic getters
+	public long getTime()
+	{
+		return now;
+	}
+	public long getEventsProcessed()
+	{
+		return processed;
+	}
+	public ArrayList<Flow> getFlows()
+	{
+		return flows;
+	}
+	
+	
+	//generic setters
+	public void setHopDelay(long hopDelay)
+	{
+		this.hopDelay = hopDelay;
+	}
+	public void setQueueLimit(int queueLimit)
+	{
+		this.queueLimit = queueLimit;
+	}
+	
+	
+	/* build one of the named traffic models, with the given mean interval between packets in microseconds
+	 * each flow needs its own, as models may keep state between packets
+	 *
+	 * RETURN model
+	 * OTHERWISE return null if kind is not one of TrafficModel.KINDS
+	 */
+	public static TrafficModel createTraffic(String kind, long interval, long seed)
+	{
+		switch (kind)
+		{
+			case (TrafficModel.PERIODIC):
+				return new PeriodicTraffic(interval);
+			case (TrafficModel.POISSON):
+				return new PoissonTraffic(seed, interval);
+			case (TrafficModel.BURSTY):
+				return new BurstyTraffic(seed, interval, BurstyTraffic.DEFAULT_BURST, BurstyTraffic.DEFAULT_SPACING);
+			default:
+				return null;
+		}
+	}
+	
+	
+	//add a flow of packets sent every interval, as below
+	public Flow addFlow(LowpanNode src, LowpanNode dest, Dodag dodag, long start, long interval, long count)
+	{
+		return addFlow(src, dest, dodag, start, new PeriodicTraffic(interval), count);
+	}
+	
+	
+	/* add a flow of packets from src to dest, spaced out by traffic starting at start
+	 * routed over dodag, as the engine keeps it, or on least hops routes if dodag is null
+	 * count limits the number of packets sent, or -1 to keep sending
+	 *
+	 * RETURN new flow, which will never deliver anything if there is no route
+	 */
+	public Flow addFlow(LowpanNode src, LowpanNode dest, Dodag dodag, long start, TrafficModel traffic, long count)
+	{
+		int s = graph.indexOf(src);
+		int d = graph.indexOf(dest);
+		int[] path = null;
+		if (s >= 0 && d >= 0)
+		{
+			path = (dodag == null) ? RouteEngine.get().route(graph, s, d) : toIndices(dodag.route(src, dest));
+		}
+		
+		return addFlow(src, dest, path, start, traffic, count);
+	}
+	
+	
+	/* add a flow from every node to the root of dodag, as sensors reporting up it
+	 * each flow gets its own traffic model of the named kind, seeded from seed, and starts at a
+	 * random point in its first interval so reports do not all leave at once
+	 * 
+	 * RETURN new flows, one per node that has joined the DODAG
+	 * OTHERWISE return null if the root is not in the mesh or kind is not one of TrafficModel.KINDS
+	 */
+	public ArrayList<Flow> addReporting(Dodag dodag, String kind, long interval, long count, long seed)
+	{
+		CompactTree tree = (dodag == null) ? null : dodag.toCompactTree();
+		if (tree == null || graph.indexOf(dodag.getRoot()) < 0 || createTraffic(kind, interval, seed) == null)
+		{
+			return null;
+		}
+		
+		//every route up a DODAG is just the climb from the node to the root
+		Random phase = new Random(seed);
+		ArrayList<Flow> added = new ArrayList<Flow>(tree.size());
+		for (int i=1; i<tree.size(); i++)
+		{
+			int[] path = new int[tree.getDepth(i)+1];
+			for (int h=0, node=i; h<path.length; h++, node=tree.getParent(node))
+			{
+				path[h] = graph.indexOf(tree.getNode(node));
+			}
+			long start = now + (long)(phase.nextDouble()*interval);
+			added.add(addFlow(tree.getNode(i), dodag.getRoot(), path, start, createTraffic(kind, interval, seed + i), count));
+		}
+		return added;
+	}
+	
+	
+	//add a flow over a route of snapshot indices, null if there is no route
+	private Flow addFlow(LowpanNode src, LowpanNode dest, int[] path, long start, TrafficModel traffic, long count)
+	{
+		Flow flow = new Flow(flows.size(), src, dest, path, traffic, count);
+		flows.add(flow);
+		
+		SimEvent emit = queue.obtain();
+		emit.type = EVENT_EMIT;
+		emit.flow = flow.id;
+		queue.schedule(Math.max(start, now), emit);
+		return flow;
+	}
+	
+	
+	//convert a route of nodes into snapshot indices, null if there is no route or it leaves the snapshot
+	private int[] toIndices(ArrayList<LowpanNode> route)
+	{
+		if (route == null)
+		{
+			return null;
+		}
+		int[] path = new int[route.size()];
+		for (int h=0; h<path.length; h++)
+		{
+			path[h] = graph.indexOf(route.get(h));
+			if (path[h] < 0)
+			{
+				return null;
+			}
+		}
+		return path;
+	}
+	
+	
+	//run until there are no more events or simulated time passes until
+	public void run(long until)
+	{
+		while (!queue.isEmpty() && queue.peekTime() <= until)
+		{
+			now = queue.peekTime();
+			SimEvent event = queue.poll();
+			processed++;
+			
+			switch (event.type)
+			{
+				case (EVENT_EMIT):
+					emit(event);
+					break;
+				
+				case (EVENT_HOP):
+					hop(event);
+					break;
+			}
+		}
+		now = Math.max(now, until);
+	}
+	
+	
+	//source generates a packet, and schedules its next one
+	private void emit(SimEvent event)
+	{
+		Flow flow = flows.get(event.flow);
+		long packet = flow.sent++;
+		
+		if (flow.count < 0 || flow.sent < flow.count)
+		{
+			SimEvent next = queue.obtain();
+			next.type = EVENT_EMIT;
+			next.flow = flow.id;
+			queue.schedule(now + flow.traffic.nextGap(), next);
+		}
+		
+		//no route, the packet is lost at the source
+		if (flow.path == null)
+		{
+			flow.dropped++;
+			queue.recycle(event);
+			return;
+		}
+		
+		//reuse the emit event as the packet itself
+		event.type = EVENT_HOP;
+		event.hop = 0;
+		event.packet = packet;
+		event.created = now;
+		hop(event);
+	}
+	
+	
+	//packet is at path[hop], deliver it or queue it to be forwarded once the node is free to transmit
+	private void hop(SimEvent event)
+	{
+		Flow flow = flows.get(event.flow);
+		int[] path = flow.path;
+		
+		//the packet has left the queue of the node before
+		if (event.hop > 0)
+		{
+			queued[path[event.hop-1]]--;
+		}
+		
+		if (event.hop == path.length-1)
+		{
+			flow.deliver(now - event.created);
+			queue.recycle(event);
+		}
+		else if (queued[path[event.hop]] >= queueLimit)
+		{
+			flow.dropped++;
+			queue.recycle(event);
+		}
+		else
+		{
+			int node = path[event.hop];
+			long departure = Math.max(now, busyUntil[node]) + hopDelay;
+			busyUntil[node] = departure;
+			queued[node]++;
+			event.hop++;
+			queue.schedule(departure, event);
+		}
+	}
+	
+	
+	//printable per flow summary, only the first REPORTED_FLOWS flows are listed but all are totalled
+	public String report()
+	{
+		StringBuilder s = new StringBuilder(String.format("t = %.3f s, %d events%n", now/1e6, processed));
+		Histogram latency = new Histogram("latency", Histogram.MICROSECONDS);
+		long sent = 0;
+		long delivered = 0;
+		long dropped = 0;
+		for (Flow flow : flows)
+		{
+			if (flow.id < REPORTED_FLOWS)
+			{
+				s.append(flow).append("\n");
+			}
+			latency.add(flow.latency);
+			sent += flow.sent;
+			delivered += flow.delivered;
+			dropped += flow.dropped;
+		}
+		if (flows.size() > REPORTED_FLOWS)
+		{
+			s.append("... ").append(flows.size() - REPORTED_FLOWS).append(" more flows\n");
+		}
+		s.append(String.format("all %d flows: sent %d, delivered %d (%.1f%%), dropped %d, %s, %.2f pkt/s%n",
+				flows.size(), sent, delivered, (delivered + dropped > 0) ? 100.0*delivered/(delivered + dropped) : 0, dropped,
+				latencies(latency), throughput(delivered)));
+		return s.toString();
+	}
+	
+	
+	//delivered packets per second of simulated time so far, 0 before the clock has moved
+	private double throughput(long delivered)
+	{
+		return (now > 0) ? delivered/(now/1e6) : 0;
+	}
+	
+	
+	//printable latency percentiles, recorded in us
+	private static String latencies(Histogram latency)
+	{
+		return String.format("latency p50 %.3f ms p90 %.3f ms p99 %.3f ms max %.3f ms",
+				latency.getPercentile(50)/1e3,
+				latency.getPercentile(90)/1e3,
+				latency.getPercentile(99)/1e3,
+				latency.getMax()/1e3);
+	}
+	
+	
+	
+	
+	//a single stream of packets and its delivery statistics
+	public class Flow
+	{
+		//declaring local instance variables
+		private final int id;
+		private final LowpanNode src, dest;
+		private final int[] path;
+		private final TrafficModel traffic;
+		private final long count;
+		private final Histogram latency;		// us
+		private long sent;
+		private long delivered;
+		private long dropped;
+		
+		
+		//generic constructor
+		private Flow(int id, LowpanNode src, LowpanNode dest, int[] path, TrafficModel traffic, long count)
+		{
+			this.id = id;
+			this.src = src;
+			this.dest = dest;
+			this.path = path;
+			this.traffic = traffic;
+			this.count = count;
+			latency = new Histogram("flow" + id, Histogram.MICROSECONDS);
+			sent = 0;
+			delivered = 0;
+			dropped = 0;
+		}
+		
+		
+		//record a delivered packet
+		private void deliver(long latency)
+		{
+			delivered++;
+			this.latency.record(latency);
+		}
+		
+		
+		//generic getters
+		public LowpanNode getSource()
+		{
+			return src;
+		}
+		public LowpanNode getDestination()
+		{
+			return dest;
+		}
+		public int getHops()
+		{
+			return (path == null) ? -1 : path.length-1;
+		}
+		public long getSent()
+		{
+			return sent;
+		}
+		public long getDelivered()
+		{
+			return delivered;
+		}
+		public long getDropped()
+		{
+			return dropped;
+		}
+		public TrafficModel getTraffic()
+		{
+			return traffic;
+		}
+		public Histogram getLatency()
+		{
+			return latency;
+		}
+		
+		
+		//mean delivery latency (us), 0 if nothing delivered
+		public double getMeanLatency()
+		{
+			return latency.getMean();
+		}
+		
+		
+		//share of packets delivered out of those delivered or dropped so far, packets still in flight are left out
+		public double getDeliveryRatio()
+		{
+			return (delivered + dropped > 0) ? (double)delivered/(delivered + dropped) : 0;
+		}
+		
+		
+		//delivered packets per second over the whole simulated run, the same window as the all flows total
+		public double getThroughput()
+		{
+			return throughput(delivered);
+		}
+		
+		
+		@Override
+		//nice printable
+		public String toString()
+		{
+			String route = (path == null) ? "no route" : getHops() + " hops";
+			return String.format("%s -> %s (%s, %s): sent %d, delivered %d (%.1f%%), dropped %d, %s, %.2f pkt/s",
+					src, dest, route, traffic.getName(), sent, delivered, 100*getDeliveryRatio(), dropped,
+					latencies(latency), getThroughput());
+		}
+	}
+}
@@ -0,0 +1,832 @@
+/**
+ * Class:				SimEngine.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Hold the mesh and keep its links up to date.
+ * 						Owns all nodes, hands out IDs, computes links under the current link model
+ * 						and serves routes. Has no dependency on Swing/AWT windows, so it can be
+ * 						driven by the LowpanSim UI or run headless from code or the command line.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package ctrl;
+
+
+//import libraries
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//import packages
+import datatype.Dodag;
+import datatype.DodagForest;
+import datatype.IdDispatcher;
+import datatype.LinkBatch;
+import datatype.LinkListener;
+import datatype.LinkModel;
+import datatype.LogDistanceModel;
+import datatype.LowpanNode;
+import datatype.MeshGenerator;
+import datatype.MeshGraph;
+import datatype.Metrics;
+import datatype.NodeRegistry;
+import datatype.PrrCurveModel;
+import datatype.QuasiUnitDiskModel;
+import datatype.RouteEngine;
+import datatype.RoutingTable;
+import datatype.Scenario;
+import datatype.SpatialGrid;
+import datatype.TopologyReporter;
+import datatype.UnitDiskModel;
+import ui.SizeReporter;
+
+
+
+
+public class SimEngine implements TopologyReporter
+{
+	//declaring static class constants
+	public static final int PRESET_LINEAR = 0;
+	public static final int PRESET_TREE = 1;
+	public static final int PRESET_SPARSE = 2;
+	public static final int PRESET_CLUSTER = 3;
+	public static final int PRESET_MATRIX = 4;
+	public static final int PRESET_COUNT = 5;
+	public static final int DODAG_CACHE = 8;
+	private static final long CLUSTER_SEED = 126;
+	private static final long LINK_SEED = 1;
+	
+	//declaring local instance variables
+	private NodeRegistry nodes;
+	private SpatialGrid grid;
+	private int maxRange;
+	private IdDispatcher dispatch;
+	private SizeReporter sizeLimit;
+	private LinkModel linkModel;
+	private LinkBatch batch;
+	private long topologyEpoch;
+	private MeshGraph graph;
+	private RoutingTable table;
+	private DodagForest forest;
+	private int[] forestRoots;
+	private ArrayList<LinkListener> listeners;
+	private LinkedHashMap<LowpanNode, Dodag> dodags;
+	
+	
+	//generic constructor
+	public SimEngine(SizeReporter sizeLimit)
+	{
+		nodes = new NodeRegistry();
+		grid = new SpatialGrid(LowpanSim.DEFAULT_RANGE);
+		maxRange = LowpanSim.MIN_RANGE;
+		dispatch = new IdDispatcher();
+		this.sizeLimit = sizeLimit;
+		linkModel = UnitDiskModel.EASY;
+		batch = new LinkBatch();
+		topologyEpoch = 0;
+		graph = null;
+		table = null;
+		forest = null;
+		forestRoots = null;
+		listeners = new ArrayList<LinkListener>();
+		
+		//least recently used roots are dropped, and stop listening for link changes
+		dodags = new LinkedHashMap<LowpanNode, Dodag>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<LowpanNode, Dodag> eldest)
+			{
+				if (size() > DODAG_CACHE)
+				{
+					listeners.remove(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+	
+	
+	//be told about every link made or broken from now on
+	public void addLinkListener(LinkListener listener)
+	{
+		listeners.add(listener);
+	}
+	
+	
+	//stop being told about link changes
+	public void removeLinkListener(LinkListener listener)
+	{
+		listeners.remove(listener);
+	}
+	
+	
+	//set the area new nodes are confined to
+	public void setSizeReporter(SizeReporter sizeLimit)
+	{
+		this.sizeLimit = sizeLimit;
+	}
+	
+	
+	//create a new node, null if there are no IDs left to give it
+	public LowpanNode addNode(String name, int range, int locX, int locY)
+	{
+		int id = dispatch.getNextID();
+		if (id == IdDispatcher.NO_ID)
+		{
+			return null;
+		}
+		LowpanNode node = new LowpanNode(id, name, range, locX, locY, sizeLimit);
+		nodes.add(node);
+		
+		relinkNode(node);
+		return node;
+	}
+	
+	
+	//remove a node from simulation
+	public void removeNode(LowpanNode node)
+	{
+		unlinkAll(node);
+		dropDodag(node);
+		
+		nodes.remove(node);
+		grid.remove(node);
+		topologyEpoch++;
+		dispatch.retireID(node.getId());
+	}
+	
+	
+	//remove many nodes from simulation, IDs are retired in one batch
+	public void removeNodes(Collection<LowpanNode> toRemove)
+	{
+		int[] ids = new int[toRemove.size()];
+		int count = 0;
+		for (LowpanNode node : toRemove)
+		{
+			if (nodes.contains(node))
+			{
+				unlinkAll(node);
+				dropDodag(node);
+				nodes.remove(node);
+				grid.remove(node);
+				ids[count++] = node.getId();
+			}
+		}
+		topologyEpoch++;
+		dispatch.retireAll(Arrays.copyOf(ids, count));
+	}
+	
+	
+	//remove all nodes from simulator and start IDs from scratch
+	public void removeAllNodes()
+	{
+		nodes.clear();
+		grid.clear();
+		dispatch.reset();
+		topologyEpoch++;
+		for (Dodag dodag : dodags.values())
+		{
+			listeners.remove(dodag);
+		}
+		dodags.clear();
+		for (LinkListener listener : listeners)
+		{
+			listener.linksRebuilt();
+		}
+	}
+	
+	
+	//get the area nodes are confined to
+	public SizeReporter getSizeReporter()
+	{
+		return sizeLimit;
+	}
+	
+	
+	//get all nodes in simulation
+	public NodeRegistry getNodes()
+	{
+		return nodes;
+	}
+	
+	
+	//get a node by ID, null if there is no such node
+	public LowpanNode getNode(int id)
+	{
+		return nodes.get(id);
+	}
+	
+	
+	//get the node closest to a point, within buff in both X and Y, null if there is none
+	public LowpanNode getNodeAt(int x, int y, int buff)
+	{
+		return grid.getClosest(new Point(x, y), buff);
+	}
+	
+	
+	@Override
+	//get every node located inside area
+	public ArrayList<LowpanNode> getNodesIn(Rectangle area)
+	{
+		return grid.getInside(area);
+	}
+	
+	
+	@Override
+	//get an upper bound on the radio range of any node
+	public int getMaxRange()
+	{
+		return maxRange;
+	}
+	
+	
+	@Override
+	//get current topology version
+	public long getTopologyEpoch()
+	{
+		return topologyEpoch;
+	}
+	
+	
+	@Override
+	//get snapshot of mesh links, only rebuilt if links have changed since last call
+	public MeshGraph getMeshGraph()
+	{
+		if (graph == null || graph.getEpoch() != topologyEpoch)
+		{
+			graph = new MeshGraph(nodes, topologyEpoch, linkModel);
+		}
+		return graph;
+	}
+	
+	
+	//get next-hop table for every pair of nodes, only rebuilt if links have changed since last call
+	public RoutingTable getRoutingTable()
+	{
+		MeshGraph graph = getMeshGraph();
+		if (table == null || table.getGraph() != graph)
+		{
+			table = new RoutingTable(graph);
+		}
+		return table;
+	}
+	
+	
+	@Override
+	//get the link model links are currently computed with
+	public LinkModel getLinkModel()
+	{
+		return linkModel;
+	}
+	
+	
+	//change link model, relinking the whole mesh
+	public void setLinkModel(LinkModel linkModel)
+	{
+		this.linkModel = linkModel;
+		computePaths();
+	}
+	
+	
+	/* build one of the named link models with default parameters
+	 * per link randomness is always drawn from the same seed, so a name alone pins a model down
+	 *
+	 * RETURN model
+	 * OTHERWISE return null if kind is not one of LinkModel.KINDS
+	 */
+	public static LinkModel createLinkModel(String kind)
+	{
+		return createLinkModel(kind, LINK_SEED);
+	}
+	
+	
+	/* build one of the named link models with default parameters, drawing per link randomness from seed
+	 *
+	 * RETURN model
+	 * OTHERWISE return null if kind is not one of LinkModel.KINDS
+	 */
+	public static LinkModel createLinkModel(String kind, long seed)
+	{
+		switch (kind)
+		{
+			case (LinkModel.UNIT_DISK_EASY):
+				return UnitDiskModel.EASY;
+			case (LinkModel.UNIT_DISK_REAL):
+				return UnitDiskModel.REAL;
+			case (LinkModel.QUASI_UNIT_DISK):
+				return new QuasiUnitDiskModel(QuasiUnitDiskModel.DEFAULT_ALPHA, seed);
+			case (LinkModel.LOG_DISTANCE):
+				return new LogDistanceModel(LogDistanceModel.DEFAULT_EXPONENT, LogDistanceModel.DEFAULT_SIGMA_DB, seed);
+			case (LinkModel.PRR_CURVE):
+				return new PrrCurveModel(PrrCurveModel.DEFAULT_DISTANCES, PrrCurveModel.DEFAULT_PRR);
+			default:
+				return null;
+		}
+	}
+	
+	
+	//least hops route between two nodes, null if there is none
+	public ArrayList<LowpanNode> routeIdeal(LowpanNode src, LowpanNode dest)
+	{
+		return src.routeIdeal(dest, getMeshGraph());
+	}
+	
+	
+	//least ETX route between two nodes, null if there is none
+	public ArrayList<LowpanNode> routeEtx(LowpanNode src, LowpanNode dest)
+	{
+		long start = Metrics.start();
+		MeshGraph graph = getMeshGraph();
+		int s = graph.indexOf(src);
+		int d = graph.indexOf(dest);
+		ArrayList<LowpanNode> route = (s < 0 || d < 0) ? null : graph.toNodes(RouteEngine.get().routeEtx(graph, s, d));
+		Metrics.stop(Metrics.ROUTE_ETX, start);
+		return route;
+	}
+	
+	
+	@Override
+	//get the DODAG rooted at root, kept up to date as links change, null if root is not in the mesh
+	public Dodag getDodag(LowpanNode root)
+	{
+		if (!nodes.contains(root))
+		{
+			return null;
+		}
+		Dodag dodag = dodags.get(root);
+		if (dodag == null)
+		{
+			dodag = new Dodag(root, nodes);
+			listeners.add(dodag);
+			dodags.put(root, dodag);
+		}
+		return dodag;
+	}
+	
+	
+	//RPL route between two nodes over the DODAG rooted at dodag, null if there is none
+	public ArrayList<LowpanNode> routeRPL(LowpanNode src, LowpanNode dest, LowpanNode dodag)
+	{
+		Dodag tree = getDodag(dodag);
+		return (tree == null) ? null : src.routeRPL(dest, tree);
+	}
+	
+	
+	/* DODAGs of one RPL instance, one rooted at each node in roots, with every node joining the root
+	 * it has the least rank to, rank being hops or ETX cost; only rebuilt if links or roots have changed since last call
+	 *
+	 * RETURN forest over the current mesh snapshot, leaving out roots that are not in the mesh
+	 * OTHERWISE return null if none of roots are in the mesh
+	 */
+	public DodagForest getDodagForest(Collection<LowpanNode> roots, boolean etx)
+	{
+		MeshGraph graph = getMeshGraph();
+		int[] indices = new int[roots.size()];
+		int count = 0;
+		for (LowpanNode root : roots)
+		{
+			int index = graph.indexOf(root);
+			if (index >= 0)
+			{
+				indices[count++] = index;
+			}
+		}
+		if (count == 0)
+		{
+			return null;
+		}
+		
+		indices = Arrays.copyOf(indices, count);
+		if (forest == null || forest.getEpoch() != graph.getEpoch() || forest.isEtx() != etx || !Arrays.equals(forestRoots, indices))
+		{
+			forest = RouteEngine.get().dodagForest(graph, indices, etx);
+			forestRoots = indices;
+		}
+		return forest;
+	}
+	
+	
+	//RPL route between two nodes over a forest from getDodagForest(), null if there is none or the forest is out of date
+	public ArrayList<LowpanNode> routeRPL(LowpanNode src, LowpanNode dest, DodagForest forest)
+	{
+		long start = Metrics.start();
+		MeshGraph graph = getMeshGraph();
+		int s = graph.indexOf(src);
+		int d = graph.indexOf(dest);
+		boolean current = (forest != null && forest.getEpoch() == graph.getEpoch());
+		ArrayList<LowpanNode> route = (!current || s < 0 || d < 0) ? null : graph.toNodes(forest.route(s, d));
+		Metrics.stop(Metrics.ROUTE_RPL, start);
+		return route;
+	}
+	
+	
+	//replace all nodes with one of the built in example configurations
+	public void loadPreset(int preset)
+	{
+		this.removeAllNodes();
+		switch (preset)
+		{
+			//linear preset
+			case (PRESET_LINEAR):
+				this.addNode("Mercury", 100, 85, 320);
+				this.addNode("Venus", 100, 265, 320);
+				this.addNode("Earth", 100, 445, 320);
+				this.addNode("Mars", 100, 625, 320);
+				this.addNode("Ceres", 100, 805, 320);
+				break;
+			
+			//tree preset
+			case (PRESET_TREE):
+				this.addNode("Clarke", 100, 505, 50);
+				this.addNode("Asimov", 100, 325, 110);
+				this.addNode("Heinlein", 100, 685, 110);
+				this.addNode("Kennedy", 100, 205, 260);
+				this.addNode("Banks", 100, 445, 260);
+				this.addNode("Adams", 100, 685, 260);
+				this.addNode("Capek", 75, 115, 350);
+				this.addNode("Boulle", 70, 295, 350);
+				this.addNode("Cherryh", 80, 385, 470);
+				this.addNode("Herbert", 65, 235, 470);
+				break;
+			
+			//sparse preset
+			case (PRESET_SPARSE):
+				this.addNode("Isengard TA", 175, 650, 175);
+				this.addNode("Minas Tirith CA", 100, 430, 290);
+				this.addNode("Minas Morgul CA", 100, 310, 170);
+				this.addNode("Rivendell CA", 100, 260, 295);
+				this.addNode("Barad-dur CA", 100, 400, 430);
+				this.addNode("Helm's Deep CA", 100, 550, 550);
+				break;
+			
+			//cluster preset
+			case (PRESET_CLUSTER):
+				this.loadScenario(new MeshGenerator(CLUSTER_SEED, "Clara ").clusters(14, 3,
+						LowpanSim.HEADLESS_X, LowpanSim.HEADLESS_Y, 100, 50));
+				break;
+			
+			//matrix preset
+			case (PRESET_MATRIX):
+				this.addNode("Julius", 100, 235, 110);
+				this.addNode("Augustus", 100, 415, 110);
+				this.addNode("Tiberius", 100, 595, 110);
+				this.addNode("Caligula", 100, 325, 200);
+				this.addNode("Claudius", 100, 505, 200);
+				this.addNode("Nero", 100, 235, 290);
+				this.addNode("Titus", 100, 415, 290);
+				this.addNode("Aurelius", 100, 595, 290);
+				this.addNode("Commodus", 100, 325, 380);
+				this.addNode("Septimius", 100, 505, 380);
+				this.addNode("Constantine", 100, 235, 470);
+				this.addNode("Valerian", 100, 415, 470);
+				this.addNode("Pertinax", 100, 595, 470);
+				break;
+		}
+	}
+	
+	
+	/* replace every node with those in a scenario, keeping their IDs
+	 * stored links are taken as they are if they were computed with the current link model,
+	 * otherwise the whole mesh is linked from scratch
+	 */
+	public void loadScenario(Scenario scenario)
+	{
+		this.removeAllNodes();
+		int n = scenario.size();
+		
+		//hand out every ID up to the highest in use, then retire the gaps in one batch
+		int maxId = -1;
+		BitSet used = new BitSet();
+		for (int i=0; i<n; i++)
+		{
+			maxId = Math.max(maxId, scenario.getId(i));
+			used.set(scenario.getId(i));
+		}
+		dispatch.allocate(maxId+1);
+		int[] gaps = new int[maxId+1 - n];
+		int count = 0;
+		for (int id=used.nextClearBit(0); id<=maxId; id=used.nextClearBit(id+1))
+		{
+			gaps[count++] = id;
+		}
+		dispatch.retireAll(gaps);
+		
+		LowpanNode[] loaded = new LowpanNode[n];
+		for (int i=0; i<n; i++)
+		{
+			loaded[i] = new LowpanNode(scenario.getId(i), scenario.getName(i), scenario.getRange(i),
+					scenario.getX(i), scenario.getY(i), sizeLimit);
+			nodes.add(loaded[i]);
+		}
+		
+		if (!scenario.hasLinks() || !linkModel.getName().equals(scenario.getLinkModel()))
+		{
+			computePaths();
+			return;
+		}
+		
+		//links are already known, only the grid needs building
+		maxRange = LowpanSim.MIN_RANGE;
+		for (LowpanNode node : loaded)
+		{
+			maxRange = Math.max(maxRange, node.getRange());
+		}
+		rebuildGrid();
+		int[] offsets = scenario.getOffsets();
+		int[] links = scenario.getLinks();
+		for (int i=0; i<n; i++)
+		{
+			for (int k=offsets[i]; k<offsets[i+1]; k++)
+			{
+				loaded[i].addNeighbour(loaded[links[k]]);
+			}
+		}
+		topologyEpoch++;
+		for (LinkListener listener : listeners)
+		{
+			listener.linksRebuilt();
+		}
+	}
+	
+	
+	//get every node, and optionally its links, as a scenario that can be saved
+	public Scenario toScenario(boolean withLinks)
+	{
+		MeshGraph graph = getMeshGraph();
+		int n = graph.size();
+		int[] ids = new int[n];
+		String[] names = new String[n];
+		int[] ranges = new int[n];
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		for (int i=0; i<n; i++)
+		{
+			LowpanNode node = graph.getNode(i);
+			ids[i] = node.getId();
+			names[i] = node.getName();
+			ranges[i] = node.getRange();
+			xs[i] = node.getLocation().x;
+			ys[i] = node.getLocation().y;
+		}
+		return new Scenario(ids, names, ranges, xs, ys, linkModel.getName(),
+				withLinks ? graph.getOffsets() : null,
+				withLinks ? graph.getAdjacency() : null);
+	}
+	
+	
+	//compute all node paths
+	public void computePaths()
+	{
+		long start = Metrics.start();
+		
+		//bucket all nodes into a grid sized to the largest radio range on the mesh
+		maxRange = LowpanSim.MIN_RANGE;
+		for (LowpanNode node : nodes)
+		{
+			maxRange = Math.max(maxRange, node.getRange());
+		}
+		rebuildGrid();
+		for (LowpanNode node : nodes)
+		{
+			node.clearNeighbours();
+		}
+		topologyEpoch++;
+		
+		//only compare each node against the nodes in grid cells it could possibly reach
+		for (LowpanNode self : nodes)
+		{
+			for (LowpanNode pair : grid.getCandidates(self.getLocation(), reach(self)))
+			{
+				//each pair is tested exactly once, from the lower ID side
+				if (self.getId() < pair.getId() && isCandidate(self, pair))
+				{
+					batch.add(self, pair);
+					if (batch.isFull())
+					{
+						linkBatch();
+					}
+				}
+			}
+		}
+		linkBatch();
+		
+		//too many changes to follow one by one, listeners start over
+		for (LinkListener listener : listeners)
+		{
+			listener.linksRebuilt();
+		}
+		Metrics.stop(Metrics.COMPUTE_PATHS, start);
+	}
+	
+	
+	//re-evaluate the links of a single node after it has moved or changed range
+	public void relinkNode(LowpanNode node)
+	{
+		long start = Metrics.start();
+		
+		//ranges only ever widen the search here, shrinks are picked up by the next computePaths
+		maxRange = Math.max(maxRange, node.getRange());
+		if (maxRange > 2*grid.getCellSize())
+		{
+			rebuildGrid();
+		}
+		else
+		{
+			grid.remove(node);
+			grid.insert(node);
+		}
+		
+		//find everything in reach of the new neighbourhood
+		ArrayList<LowpanNode> inReach = new ArrayList<LowpanNode>();
+		for (LowpanNode pair : grid.getCandidates(node.getLocation(), reach(node)))
+		{
+			if (pair != node && isCandidate(node, pair))
+			{
+				batch.add(node, pair);
+				if (batch.isFull())
+				{
+					collectBatch(inReach);
+				}
+			}
+		}
+		collectBatch(inReach);
+		topologyEpoch++;
+		
+		//only touch links that changed, new links first so listeners lose as little as possible
+		HashSet<LowpanNode> old = new HashSet<LowpanNode>(node.getNeighbours());
+		for (LowpanNode pair : inReach)
+		{
+			if (!old.remove(pair))
+			{
+				link(node, pair);
+			}
+		}
+		for (LowpanNode pair : old)
+		{
+			unlink(node, pair);
+		}
+		Metrics.stop(Metrics.RELINK_NODE, start);
+	}
+	
+	
+	/* move a node without relinking it, for callers keeping links up to date themselves
+	 * nodesMoved() must be called once all moves are made
+	 */
+	void moveNode(LowpanNode node, int locX, int locY)
+	{
+		node.setLocation(locX, locY);
+		grid.update(node);
+	}
+	
+	
+	//mark the mesh as changed after nodes were moved with moveNode()
+	void nodesMoved()
+	{
+		topologyEpoch++;
+	}
+	
+	
+	//make or break a link between two nodes, telling listeners, if it is not already so
+	void setLinked(LowpanNode a, LowpanNode b, boolean linked)
+	{
+		if (linked && !a.getNeighbours().contains(b))
+		{
+			link(a, b);
+		}
+		else if (!linked && a.getNeighbours().contains(b))
+		{
+			unlink(a, b);
+		}
+	}
+	
+	
+	//collect every node filed near enough loc that it could be within reach of it
+	ArrayList<LowpanNode> getCandidates(Point loc, int reach)
+	{
+		return grid.getCandidates(loc, reach);
+	}
+	
+	
+	//make a link and tell listeners
+	private void link(LowpanNode a, LowpanNode b)
+	{
+		a.addNeighbour(b);
+		b.addNeighbour(a);
+		for (LinkListener listener : listeners)
+		{
+			listener.linkAdded(a, b);
+		}
+	}
+	
+	
+	//break a link and tell listeners
+	private void unlink(LowpanNode a, LowpanNode b)
+	{
+		a.removeNeighbour(b);
+		b.removeNeighbour(a);
+		for (LinkListener listener : listeners)
+		{
+			listener.linkRemoved(a, b);
+		}
+	}
+	
+	
+	//break every link of a node
+	private void unlinkAll(LowpanNode node)
+	{
+		for (LowpanNode neighbour : node.getNeighbours().toArray(new LowpanNode[0]))
+		{
+			unlink(node, neighbour);
+		}
+	}
+	
+	
+	//forget the DODAG rooted at a node being removed
+	private void dropDodag(LowpanNode root)
+	{
+		Dodag dodag = dodags.remove(root);
+		if (dodag != null)
+		{
+			listeners.remove(dodag);
+		}
+	}
+	
+	
+	//re-bucket all nodes into a fresh grid sized to the largest range
+	private void rebuildGrid()
+	{
+		grid = new SpatialGrid(maxRange);
+		for (LowpanNode node : nodes)
+		{
+			grid.insert(node);
+		}
+	}
+	
+	
+	//furthest from a node that anything on the mesh could be linked to it
+	int reach(LowpanNode node)
+	{
+		return (int)Math.ceil(linkModel.getMaxLinkDistance(node.getRange(), maxRange));
+	}
+	
+	
+	//check two nodes are near enough that the link model could link them, before batching them up
+	private boolean isCandidate(LowpanNode self, LowpanNode pair)
+	{
+		double max = linkModel.getMaxLinkDistance(self.getRange(), pair.getRange());
+		return self.getLocation().distanceSq(pair.getLocation()) <= max*max;
+	}
+	
+	
+	//furthest apart two particular nodes can be and still be linked, as the link model has it
+	double linkDistance(LowpanNode self, LowpanNode pair)
+	{
+		return linkModel.getLinkDistance(self.getRange(), pair.getRange(), LinkModel.pairKey(self.getId(), pair.getId()));
+	}
+	
+	
+	//evaluate every pair in the batch and link those the model links, without telling listeners
+	private void linkBatch()
+	{
+		linkModel.evaluate(batch);
+		float[] quality = batch.getQualities();
+		for (int i=0; i<batch.size(); i++)
+		{
+			if (quality[i] > 0)
+			{
+				batch.getFirst(i).addNeighbour(batch.getSecond(i));
+				batch.getSecond(i).addNeighbour(batch.getFirst(i));
+			}
+		}
+		batch.clear();
+	}
+	
+	
+	//evaluate every pair in the batch and collect the second node of each pair the model links
+	private void collectBatch(ArrayList<LowpanNode> linked)
+	{
+		linkModel.evaluate(batch);
+		float[] quality = batch.getQualities();
+		for (int i=0; i<batch.size(); i++)
+		{
+			if (quality[i] > 0)
+			{
+				linked.add(batch.getSecond(i));
+			}
+		}
+		batch.clear();
+	}
+}
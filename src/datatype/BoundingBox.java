@@ -0,0 +1,73 @@
+/**
+ * Class:				BoundingBox.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Area to confine nodes to, read only by the thread that owns the engine.
+ * 						Stands in for the NodeCanvas size in headless runs, and holds a copy
+ * 						of it otherwise, taken on the EDT and handed over to the worker, so
+ * 						Swing is never read from off the EDT.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.awt.Dimension;
+
+//import packages
+import ui.SizeReporter;
+
+
+
+
+public class BoundingBox implements SizeReporter
+{
+	//declaring local instance variables
+	private int width;
+	private int height;
+	
+	
+	//generic constructor
+	public BoundingBox(int width, int height)
+	{
+		this.width = width;
+		this.height = height;
+	}
+	
+	
+	//generic setter for box dimensions
+	public void setSize(int width, int height)
+	{
+		this.width = width;
+		this.height = height;
+	}
+	
+	
+	@Override
+	//generic getter for box dimensions
+	public Dimension getCurrentSize()
+	{
+		return new Dimension(width, height);
+	}
+	
+	
+	@Override
+	//generic getter for box X size
+	public int getCurrentX()
+	{
+		return width;
+	}
+	
+	
+	@Override
+	//generic getter for box Y size
+	public int getCurrentY()
+	{
+		return height;
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Class:				BurstyTraffic.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				On/off traffic, as from a node dumping a buffer of readings at once.
+ * 						Packets are sent in bursts of a fixed size, a fixed spacing apart, with
+ * 						exponentially distributed quiet periods between bursts. Quiet periods are
+ * 						sized so the flow still averages the given interval over the long run.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Random;
+
+
+
+
+public class BurstyTraffic implements TrafficModel
+{
+	//declaring static class constants
+	public static final int DEFAULT_BURST = 8;
+	public static final long DEFAULT_SPACING = 10000;		// 10 ms between packets in a burst
+	
+	//declaring local instance variables
+	private final Random rand;
+	private final long meanInterval;
+	private final int burst;
+	private final long spacing;
+	private final double meanOff;
+	private int left;
+	
+	
+	//generic constructor, interval and spacing in microseconds
+	public BurstyTraffic(long seed, long meanInterval, int burst, long spacing)
+	{
+		rand = new Random(seed);
+		this.meanInterval = Math.max(1, meanInterval);
+		this.burst = Math.max(1, burst);
+		this.spacing = Math.max(1, spacing);
+		
+		//a whole burst and the quiet after it take burst intervals on average, spacing can not be stretched
+		meanOff = Math.max(1, (double)this.burst*this.meanInterval - (this.burst-1)*this.spacing);
+		left = this.burst - 1;
+	}
+	
+	
+	@Override
+	public String getName()
+	{
+		return BURSTY;
+	}
+	
+	
+	@Override
+	public long getMeanInterval()
+	{
+		return meanInterval;
+	}
+	
+	
+	@Override
+	//the first packet of a flow opens a burst
+	public long nextGap()
+	{
+		if (left > 0)
+		{
+			left--;
+			return spacing;
+		}
+		left = burst - 1;
+		return PoissonTraffic.exponential(rand, meanOff);
+	}
+}
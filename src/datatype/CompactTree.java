@@ -0,0 +1,288 @@
+/**
+ * Class:				CompactTree.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Immutable array backed tree, used to hold a DODAG.
+ * 						Nodes are given dense int indices, root first and every parent before
+ * 						its children. Structure is kept as parent, depth, first-child and
+ * 						next-sibling arrays. Entry/exit times from a depth first walk make
+ * 						ancestor tests O(1), and a binary lifting table makes lowest common
+ * 						ancestor queries O(log n).
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.ArrayList;
+import java.util.Arrays;
+
+
+
+
+public class CompactTree
+{
+	//declaring static class constants
+	public static final int NONE = -1;
+	
+	//declaring local instance variables
+	private final LowpanNode[] nodes;
+	private final int[] parent;
+	private final int[] depth;
+	private final int[] firstChild;
+	private final int[] nextSibling;
+	private final int[] tin;
+	private final int[] tout;
+	private final int[][] up;			// up[k][i] is the 2^k-th ancestor of i
+	private final int[] indexOfId;
+	
+	
+	/* build tree from nodes and the index of each node's parent
+	 * nodes[0] is the root, and parent[i] < i for every other node
+	 */
+	public CompactTree(LowpanNode[] nodes, int[] parent)
+	{
+		int n = nodes.length;
+		this.nodes = nodes;
+		this.parent = parent;
+		depth = new int[n];
+		firstChild = new int[n];
+		nextSibling = new int[n];
+		Arrays.fill(firstChild, NONE);
+		Arrays.fill(nextSibling, NONE);
+		
+		//parents come first, so depths fill in one pass
+		//children are linked in from the back so siblings end up in index order
+		for (int i=1; i<n; i++)
+		{
+			depth[i] = depth[parent[i]] + 1;
+		}
+		for (int i=n-1; i>0; i--)
+		{
+			nextSibling[i] = firstChild[parent[i]];
+			firstChild[parent[i]] = i;
+		}
+		
+		//node to index map, by node ID
+		int maxId = -1;
+		for (LowpanNode node : nodes)
+		{
+			maxId = Math.max(maxId, node.getId());
+		}
+		indexOfId = new int[maxId+1];
+		Arrays.fill(indexOfId, NONE);
+		for (int i=0; i<n; i++)
+		{
+			indexOfId[nodes[i].getId()] = i;
+		}
+		
+		//entry and exit times from an iterative depth first walk
+		tin = new int[n];
+		tout = new int[n];
+		int clock = 0;
+		int cur = (n > 0) ? 0 : NONE;
+		while (cur != NONE)
+		{
+			tin[cur] = clock++;
+			if (firstChild[cur] != NONE)
+			{
+				cur = firstChild[cur];
+				continue;
+			}
+			//leaf, back out until a sibling is found
+			while (cur != NONE)
+			{
+				tout[cur] = clock++;
+				if (nextSibling[cur] != NONE)
+				{
+					cur = nextSibling[cur];
+					break;
+				}
+				cur = (cur == 0) ? NONE : parent[cur];
+			}
+		}
+		
+		//binary lifting table, the root is its own ancestor
+		int levels = 1;
+		while ((1 << levels) < n)
+		{
+			levels++;
+		}
+		up = new int[levels][n];
+		for (int i=0; i<n; i++)
+		{
+			up[0][i] = (i == 0) ? 0 : parent[i];
+		}
+		for (int k=1; k<levels; k++)
+		{
+			for (int i=0; i<n; i++)
+			{
+				up[k][i] = up[k-1][up[k-1][i]];
+			}
+		}
+	}
+	
+	
+	//generic getters
+	public int size()
+	{
+		return nodes.length;
+	}
+	public LowpanNode getRoot()
+	{
+		return nodes[0];
+	}
+	public LowpanNode getNode(int i)
+	{
+		return nodes[i];
+	}
+	public int getParent(int i)
+	{
+		return (i == 0) ? NONE : parent[i];
+	}
+	public int getDepth(int i)
+	{
+		return depth[i];
+	}
+	public int getFirstChild(int i)
+	{
+		return firstChild[i];
+	}
+	public int getNextSibling(int i)
+	{
+		return nextSibling[i];
+	}
+	
+	
+	//get index of node, NONE if it is not part of this tree
+	public int indexOf(LowpanNode node)
+	{
+		int id = node.getId();
+		if (id >= 0 && id < indexOfId.length && indexOfId[id] != NONE && nodes[indexOfId[id]] == node)
+		{
+			return indexOfId[id];
+		}
+		return NONE;
+	}
+	
+	
+	//check if a is b, or an ancestor of b
+	public boolean isAncestor(int a, int b)
+	{
+		return (tin[a] <= tin[b] && tout[b] <= tout[a]);
+	}
+	public boolean isAncestor(LowpanNode a, LowpanNode b)
+	{
+		int i = indexOf(a);
+		int j = indexOf(b);
+		return (i != NONE && j != NONE && isAncestor(i, j));
+	}
+	
+	
+	//lowest common ancestor of a and b
+	public int lca(int a, int b)
+	{
+		if (isAncestor(a, b))
+		{
+			return a;
+		}
+		if (isAncestor(b, a))
+		{
+			return b;
+		}
+		//lift a as far as possible while staying below the common ancestor
+		for (int k=up.length-1; k>=0; k--)
+		{
+			if (!isAncestor(up[k][a], b))
+			{
+				a = up[k][a];
+			}
+		}
+		return up[0][a];
+	}
+	
+	
+	/* route from src up to the lowest common ancestor, then down to dest, given as indices
+	 *
+	 * RETURN indices of nodes from src to dest inclusive
+	 */
+	public int[] route(int src, int dest)
+	{
+		int top = lca(src, dest);
+		int[] path = new int[(depth[src]-depth[top]) + (depth[dest]-depth[top]) + 1];
+		int i = 0;
+		for (int node=src; node!=top; node=parent[node])
+		{
+			path[i++] = node;
+		}
+		path[i] = top;
+		for (int j=path.length-1, node=dest; node!=top; j--, node=parent[node])
+		{
+			path[j] = node;
+		}
+		return path;
+	}
+	
+	
+	/* route from src up to the lowest common ancestor, then down to dest
+	 *
+	 * RETURN list of nodes from src to dest inclusive
+	 * OTHERWISE return null if either node is not part of this tree
+	 */
+	public ArrayList<LowpanNode> route(LowpanNode src, LowpanNode dest)
+	{
+		int s = indexOf(src);
+		int d = indexOf(dest);
+		if (s == NONE || d == NONE)
+		{
+			return null;
+		}
+		int[] path = route(s, d);
+		ArrayList<LowpanNode> list = new ArrayList<LowpanNode>(path.length);
+		for (int i : path)
+		{
+			list.add(nodes[i]);
+		}
+		return list;
+	}
+	
+	
+	@Override
+	//print as indented string, one node per line
+	public String toString()
+	{
+		StringBuilder s = new StringBuilder();
+		int cur = (nodes.length > 0) ? 0 : NONE;
+		while (cur != NONE)
+		{
+			for (int i=0; i<depth[cur]; i++)
+			{
+				s.append("    ");
+			}
+			s.append(nodes[cur]).append("\n");
+			
+			//walk in the same order as the entry times
+			if (firstChild[cur] != NONE)
+			{
+				cur = firstChild[cur];
+			}
+			else
+			{
+				while (cur != NONE && nextSibling[cur] == NONE)
+				{
+					cur = (cur == 0) ? NONE : parent[cur];
+				}
+				if (cur != NONE)
+				{
+					cur = nextSibling[cur];
+				}
+			}
+		}
+		return s.toString();
+	}
+}
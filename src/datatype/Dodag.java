@@ -0,0 +1,493 @@
+/**
+ * Class:				Dodag.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Persistent RPL DODAG for a single root.
+ * 						Every node keeps a rank (hops from the root) and a preferred parent
+ * 						(the lowest ID neighbour one rank closer to the root), both stored in
+ * 						arrays indexed by node ID. Link changes are repaired locally: a new
+ * 						link only ever lowers ranks, which are pushed outwards from the link,
+ * 						and a broken link only affects nodes that lose every parent candidate,
+ * 						which are re-ranked from their unaffected neighbours.
+ * 						An RPL route is then a walk up the preferred parents from both ends,
+ * 						costing O(path length).
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+
+
+
+public class Dodag implements LinkListener
+{
+	//declaring static class constants
+	public static final int INFINITE_RANK = Integer.MAX_VALUE;
+	private static final int NO_PARENT = -1;
+	private static final int INITIAL_CAPACITY = 64;
+	
+	//declaring local instance variables
+	private final LowpanNode root;
+	private final NodeRegistry nodes;
+	private int[] rank;
+	private int[] parent;
+	private int[] mark;				// generation stamps for nodes affected by a repair
+	private int generation;
+	private int[] fifo;				// twice the ID limit, a repair can queue each node twice
+	
+	
+	//generic constructor
+	public Dodag(LowpanNode root, NodeRegistry nodes)
+	{
+		this.root = root;
+		this.nodes = nodes;
+		rank = new int[0];
+		parent = new int[0];
+		mark = new int[0];
+		fifo = new int[0];
+		generation = 0;
+		linksRebuilt();
+	}
+	
+	
+	//generic getters
+	public LowpanNode getRoot()
+	{
+		return root;
+	}
+	
+	
+	//hops from node to root, INFINITE_RANK if the node is not joined to this DODAG
+	public int getRank(LowpanNode node)
+	{
+		if (!isLive(node))
+		{
+			return INFINITE_RANK;
+		}
+		return rank[node.getId()];
+	}
+	
+	
+	//preferred parent of node, null for the root and nodes not joined to this DODAG
+	public LowpanNode getParent(LowpanNode node)
+	{
+		if (!isLive(node) || parent[node.getId()] == NO_PARENT)
+		{
+			return null;
+		}
+		return nodes.get(parent[node.getId()]);
+	}
+	
+	
+	/* RPL route from src up to the first common ancestor, then down to dest
+	 *
+	 * RETURN list of nodes from src to dest inclusive
+	 * OTHERWISE return null if either node is not joined to this DODAG
+	 */
+	public ArrayList<LowpanNode> route(LowpanNode src, LowpanNode dest)
+	{
+		if (getRank(src) == INFINITE_RANK || getRank(dest) == INFINITE_RANK)
+		{
+			return null;
+		}
+		
+		//climb from the deeper end until both ends meet
+		ArrayList<LowpanNode> up = new ArrayList<LowpanNode>();
+		ArrayList<LowpanNode> down = new ArrayList<LowpanNode>();
+		int s = src.getId();
+		int d = dest.getId();
+		while (s != d)
+		{
+			if (rank[s] >= rank[d])
+			{
+				up.add(nodes.get(s));
+				s = parent[s];
+			}
+			else
+			{
+				down.add(nodes.get(d));
+				d = parent[d];
+			}
+		}
+		up.add(nodes.get(s));
+		Collections.reverse(down);
+		up.addAll(down);
+		return up;
+	}
+	
+	
+	//snapshot of the DODAG as a compact tree, nodes in order of rank then ID, null if root is gone
+	public CompactTree toCompactTree()
+	{
+		if (!isLive(root))
+		{
+			return null;
+		}
+		long time = Metrics.start();
+		
+		//counting sort of joined nodes by rank, registry iterates in order of ID
+		int maxRank = 0;
+		int count = 0;
+		for (LowpanNode node : nodes)
+		{
+			int r = getRank(node);
+			if (r != INFINITE_RANK)
+			{
+				maxRank = Math.max(maxRank, r);
+				count++;
+			}
+		}
+		int[] start = new int[maxRank+2];
+		for (LowpanNode node : nodes)
+		{
+			int r = getRank(node);
+			if (r != INFINITE_RANK)
+			{
+				start[r+1]++;
+			}
+		}
+		for (int r=0; r<=maxRank; r++)
+		{
+			start[r+1] += start[r];
+		}
+		LowpanNode[] sorted = new LowpanNode[count];
+		for (LowpanNode node : nodes)
+		{
+			int r = getRank(node);
+			if (r != INFINITE_RANK)
+			{
+				sorted[start[r]++] = node;
+			}
+		}
+		
+		//parents always have a lower rank, so already have an index
+		int[] index = new int[rank.length];
+		int[] parents = new int[count];
+		for (int i=0; i<count; i++)
+		{
+			int id = sorted[i].getId();
+			index[id] = i;
+			parents[i] = (i == 0) ? CompactTree.NONE : index[parent[id]];
+		}
+		CompactTree tree = new CompactTree(sorted, parents);
+		Metrics.stop(Metrics.COMPACT_TREE, time);
+		return tree;
+	}
+	
+	
+	@Override
+	//throw everything away and rank the whole mesh with a BFS from the root
+	public void linksRebuilt()
+	{
+		Metrics.DODAG_REBUILDS.inc();
+		ensureCapacity();
+		Arrays.fill(rank, INFINITE_RANK);
+		Arrays.fill(parent, NO_PARENT);
+		if (!isLive(root))
+		{
+			return;
+		}
+		
+		int head = 0;
+		int tail = 0;
+		rank[root.getId()] = 0;
+		fifo[tail++] = root.getId();
+		while (head < tail)
+		{
+			LowpanNode cur = nodes.get(fifo[head++]);
+			int next = rank[cur.getId()] + 1;
+			for (LowpanNode linked : cur.getNeighbours())
+			{
+				int id = linked.getId();
+				if (rank[id] == INFINITE_RANK)
+				{
+					rank[id] = next;
+					parent[id] = cur.getId();
+					fifo[tail++] = id;
+				}
+				else if (rank[id] == next && cur.getId() < parent[id])
+				{
+					parent[id] = cur.getId();
+				}
+			}
+		}
+	}
+	
+	
+	@Override
+	//a new link can only bring nodes closer to the root, push lower ranks outwards from it
+	public void linkAdded(LowpanNode a, LowpanNode b)
+	{
+		ensureCapacity();
+		if (rank[a.getId()] > rank[b.getId()])
+		{
+			LowpanNode swap = a;
+			a = b;
+			b = swap;
+		}
+		int ra = rank[a.getId()];
+		int rb = rank[b.getId()];
+		if (ra == INFINITE_RANK || ra == rb)
+		{
+			return;
+		}
+		
+		//same rank as before, a may still be the better parent
+		if (ra+1 == rb)
+		{
+			adoptIfLower(b, a);
+			return;
+		}
+		
+		//b and everything beyond it that is now closer, in order of rank
+		int head = 0;
+		int tail = 0;
+		rank[b.getId()] = ra+1;
+		fifo[tail++] = b.getId();
+		while (head < tail)
+		{
+			LowpanNode cur = nodes.get(fifo[head++]);
+			int next = rank[cur.getId()] + 1;
+			for (LowpanNode linked : cur.getNeighbours())
+			{
+				if (next < rank[linked.getId()])
+				{
+					rank[linked.getId()] = next;
+					fifo[tail++] = linked.getId();
+				}
+			}
+		}
+		
+		//re-pick parents for moved nodes, and let them be adopted by their unmoved children
+		for (int i=0; i<tail; i++)
+		{
+			LowpanNode cur = nodes.get(fifo[i]);
+			choosePreferredParent(cur);
+			for (LowpanNode linked : cur.getNeighbours())
+			{
+				adoptIfLower(linked, cur);
+			}
+		}
+	}
+	
+	
+	@Override
+	//a broken link only matters if it was the preferred parent link, repair below it
+	public void linkRemoved(LowpanNode a, LowpanNode b)
+	{
+		ensureCapacity();
+		if (rank[a.getId()] > rank[b.getId()])
+		{
+			LowpanNode swap = a;
+			a = b;
+			b = swap;
+		}
+		if (rank[a.getId()] == rank[b.getId()] || parent[b.getId()] != a.getId())
+		{
+			return;
+		}
+		
+		//local repair, another neighbour of the same rank as the old parent takes over
+		choosePreferredParent(b);
+		if (parent[b.getId()] != NO_PARENT)
+		{
+			return;
+		}
+		
+		/* find every node that has lost all its parent candidates, in order of rank
+		 * all affected nodes of one rank are known before any node of the next rank is checked
+		 */
+		Metrics.DODAG_REPAIRS.inc();
+		int stamp = nextGeneration();
+		int head = 0;
+		int tail = 0;
+		mark[b.getId()] = stamp;
+		fifo[tail++] = b.getId();
+		while (head < tail)
+		{
+			LowpanNode cur = nodes.get(fifo[head++]);
+			int next = rank[cur.getId()] + 1;
+			for (LowpanNode linked : cur.getNeighbours())
+			{
+				int id = linked.getId();
+				if (rank[id] == next && mark[id] != stamp && (parent[id] == cur.getId() || parent[id] == NO_PARENT))
+				{
+					int support = lowestUnaffectedParent(linked, stamp);
+					if (support == NO_PARENT)
+					{
+						mark[id] = stamp;
+						fifo[tail++] = id;
+					}
+					parent[id] = support;
+				}
+			}
+		}
+		
+		//re-rank affected nodes from their unaffected neighbours, sorted so lower ranks settle first
+		int affected = tail;
+		long[] seeds = new long[affected];
+		int seedCount = 0;
+		for (int i=0; i<affected; i++)
+		{
+			LowpanNode cur = nodes.get(fifo[i]);
+			int best = INFINITE_RANK;
+			for (LowpanNode linked : cur.getNeighbours())
+			{
+				int id = linked.getId();
+				if (mark[id] != stamp && rank[id] != INFINITE_RANK)
+				{
+					best = Math.min(best, rank[id]+1);
+				}
+			}
+			rank[cur.getId()] = best;
+			if (best != INFINITE_RANK)
+			{
+				seeds[seedCount++] = ((long)best << 32) | cur.getId();
+			}
+		}
+		Arrays.sort(seeds, 0, seedCount);
+		
+		//BFS among affected nodes, merging the sorted seeds with the queue, settled nodes are unmarked
+		head = affected;
+		tail = affected;
+		int nextSeed = 0;
+		while (nextSeed < seedCount || head < tail)
+		{
+			int id;
+			if (head == tail || (nextSeed < seedCount && (int)(seeds[nextSeed] >>> 32) <= rank[fifo[head]]))
+			{
+				id = (int)seeds[nextSeed++];
+			}
+			else
+			{
+				id = fifo[head++];
+			}
+			if (mark[id] != stamp)
+			{
+				continue;
+			}
+			mark[id] = 0;
+			
+			LowpanNode cur = nodes.get(id);
+			int next = rank[id] + 1;
+			for (LowpanNode linked : cur.getNeighbours())
+			{
+				if (mark[linked.getId()] == stamp && next < rank[linked.getId()])
+				{
+					rank[linked.getId()] = next;
+					fifo[tail++] = linked.getId();
+				}
+			}
+		}
+		
+		//re-pick parents for affected nodes, and let them be adopted by their unaffected children
+		for (int i=0; i<affected; i++)
+		{
+			LowpanNode cur = nodes.get(fifo[i]);
+			if (rank[cur.getId()] == INFINITE_RANK)
+			{
+				mark[cur.getId()] = 0;
+				parent[cur.getId()] = NO_PARENT;
+				continue;
+			}
+			choosePreferredParent(cur);
+			for (LowpanNode linked : cur.getNeighbours())
+			{
+				adoptIfLower(linked, cur);
+			}
+		}
+	}
+	
+	
+	//preferred parent is the lowest ID neighbour one rank closer to the root
+	private void choosePreferredParent(LowpanNode node)
+	{
+		int best = NO_PARENT;
+		int want = rank[node.getId()] - 1;
+		for (LowpanNode linked : node.getNeighbours())
+		{
+			if (rank[linked.getId()] == want && (best == NO_PARENT || linked.getId() < best))
+			{
+				best = linked.getId();
+			}
+		}
+		parent[node.getId()] = best;
+	}
+	
+	
+	//lowest ID parent candidate of node not marked as affected
+	private int lowestUnaffectedParent(LowpanNode node, int stamp)
+	{
+		int best = NO_PARENT;
+		int want = rank[node.getId()] - 1;
+		for (LowpanNode linked : node.getNeighbours())
+		{
+			int id = linked.getId();
+			if (rank[id] == want && mark[id] != stamp && (best == NO_PARENT || id < best))
+			{
+				best = id;
+			}
+		}
+		return best;
+	}
+	
+	
+	//switch child to candidate as parent if candidate is a parent candidate with a lower ID
+	private void adoptIfLower(LowpanNode child, LowpanNode candidate)
+	{
+		int id = child.getId();
+		if (rank[candidate.getId()] != INFINITE_RANK && rank[id] == rank[candidate.getId()]+1 &&
+			(parent[id] == NO_PARENT || candidate.getId() < parent[id]))
+		{
+			parent[id] = candidate.getId();
+		}
+	}
+	
+	
+	//check node is the one currently held under its ID
+	private boolean isLive(LowpanNode node)
+	{
+		return (node != null && nodes.get(node.getId()) == node && node.getId() < rank.length);
+	}
+	
+	
+	//grow arrays to cover every ID in use, new IDs start unjoined
+	private void ensureCapacity()
+	{
+		int limit = nodes.getIdLimit();
+		if (limit > rank.length)
+		{
+			int old = rank.length;
+			int size = Math.max(limit, Math.max(INITIAL_CAPACITY, old*2));
+			rank = Arrays.copyOf(rank, size);
+			parent = Arrays.copyOf(parent, size);
+			mark = Arrays.copyOf(mark, size);
+			fifo = new int[2*size];
+			Arrays.fill(rank, old, size, INFINITE_RANK);
+			Arrays.fill(parent, old, size, NO_PARENT);
+		}
+	}
+	
+	
+	//move to next generation stamp, clearing marks on wrap around
+	private int nextGeneration()
+	{
+		generation++;
+		if (generation == Integer.MAX_VALUE)
+		{
+			Arrays.fill(mark, 0);
+			generation = 1;
+		}
+		return generation;
+	}
+}
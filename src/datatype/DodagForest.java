@@ -0,0 +1,199 @@
+/**
+ * Class:				DodagForest.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Immutable set of DODAGs, one per root, sharing a single RPL instance over
+ * 						a MeshGraph snapshot. Every node joins the DODAG of whichever root is best
+ * 						for it under the instance's objective (fewest hops, or least ETX), so the
+ * 						DODAGs partition the mesh. Each node's preferred parent is the lowest ID
+ * 						neighbour it could join through, as in Dodag. Held in arrays over the
+ * 						snapshot's node indices, so the forest is equally good for any frozen copy
+ * 						of the same snapshot.
+ * 
+ * 						A route inside one DODAG climbs to the common ancestor and back down.
+ * 						A route between two DODAGs climbs to the source's root, follows a least
+ * 						hops route over the mesh to the destination's root, and comes down from
+ * 						there, so every hop of every route is a link in the mesh.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Arrays;
+
+
+
+
+public class DodagForest
+{
+	//declaring static class constants
+	public static final int NONE = -1;
+	public static final String OBJECTIVE_HOPS = "hops";
+	public static final String OBJECTIVE_ETX = "etx";
+	
+	//declaring local instance variables
+	private final MeshGraph graph;
+	private final long epoch;
+	private final boolean etx;
+	private final int[] roots;			// root ordinal => node index
+	private final int[] owner;			// node index => root ordinal, NONE if not joined
+	private final int[] parent;			// node index => preferred parent index, NONE for roots
+	private final int[] depth;			// node index => hops to its root
+	private final double[] rank;		// node index => path cost to its root under the objective
+	private final int[] order;			// joined nodes, every parent before its children
+	private final int[] sizes;			// root ordinal => nodes joined
+	
+	
+	/* wrap the arrays of a finished multi-root search over graph, see RouteEngine.dodagForest()
+	 * order holds the joined nodes with every parent before its children
+	 */
+	public DodagForest(MeshGraph graph, boolean etx, int[] roots, int[] owner, int[] parent, int[] depth, double[] rank, int[] order)
+	{
+		this.graph = graph;
+		this.epoch = graph.getEpoch();
+		this.etx = etx;
+		this.roots = roots;
+		this.owner = owner;
+		this.parent = parent;
+		this.depth = depth;
+		this.rank = rank;
+		this.order = order;
+		sizes = new int[roots.length];
+		for (int node : order)
+		{
+			sizes[owner[node]]++;
+		}
+	}
+	
+	
+	//generic getters
+	public long getEpoch()
+	{
+		return epoch;
+	}
+	public boolean isEtx()
+	{
+		return etx;
+	}
+	public int getRootCount()
+	{
+		return roots.length;
+	}
+	public int getRoot(int ordinal)
+	{
+		return roots[ordinal];
+	}
+	public int getSize(int ordinal)
+	{
+		return sizes[ordinal];
+	}
+	public int getOwner(int node)
+	{
+		return owner[node];
+	}
+	public int getParent(int node)
+	{
+		return parent[node];
+	}
+	public int getDepth(int node)
+	{
+		return depth[node];
+	}
+	public double getRank(int node)
+	{
+		return rank[node];
+	}
+	
+	
+	/* RPL route from src to dest, given as snapshot indices
+	 * within one DODAG the route turns at the common ancestor, across two the roots are
+	 * joined by a least hops route over the mesh, so the route may pass a node twice
+	 *
+	 * RETURN indices of nodes from src to dest inclusive
+	 * OTHERWISE return null if either node has not joined any DODAG, or their roots are not connected
+	 */
+	public int[] route(int src, int dest)
+	{
+		if (owner[src] == NONE || owner[dest] == NONE)
+		{
+			return null;
+		}
+		
+		//find where the two climbs end, and what joins them
+		int a = src;
+		int b = dest;
+		int[] across;
+		if (owner[src] == owner[dest])
+		{
+			while (depth[a] > depth[b])
+			{
+				a = parent[a];
+			}
+			while (depth[b] > depth[a])
+			{
+				b = parent[b];
+			}
+			while (a != b)
+			{
+				a = parent[a];
+				b = parent[b];
+			}
+			across = new int[] {a};
+		}
+		else
+		{
+			a = roots[owner[src]];
+			b = roots[owner[dest]];
+			across = RouteEngine.get().route(graph, a, b);
+			if (across == null)
+			{
+				return null;
+			}
+		}
+		
+		//climb from src to a, cross to b, then fill in the descent from b to dest from the back
+		int[] path = new int[(depth[src]-depth[a]) + across.length + (depth[dest]-depth[b])];
+		int i = 0;
+		for (int node=src; node!=a; node=parent[node])
+		{
+			path[i++] = node;
+		}
+		System.arraycopy(across, 0, path, i, across.length);
+		for (int j=path.length-1, node=dest; node!=b; j--, node=parent[node])
+		{
+			path[j] = node;
+		}
+		return path;
+	}
+	
+	
+	/* the DODAG of one root on its own, over the nodes of graph
+	 *
+	 * RETURN compact tree of every node joined to the root
+	 */
+	public CompactTree toCompactTree(MeshGraph graph, int ordinal)
+	{
+		LowpanNode[] nodes = new LowpanNode[sizes[ordinal]];
+		int[] parents = new int[sizes[ordinal]];
+		int[] treeIndex = new int[owner.length];
+		Arrays.fill(treeIndex, NONE);
+		int count = 0;
+		for (int node : order)
+		{
+			if (owner[node] == ordinal)
+			{
+				treeIndex[node] = count;
+				nodes[count] = graph.getNode(node);
+				parents[count] = (parent[node] == NONE) ? CompactTree.NONE : treeIndex[parent[node]];
+				count++;
+			}
+		}
+		return new CompactTree(nodes, parents);
+	}
+}
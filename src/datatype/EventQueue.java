@@ -0,0 +1,194 @@
+/**
+ * Class:				EventQueue.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Binary min-heap of events keyed on primitive timestamps.
+ * 						Timestamps and insertion sequence numbers live in long arrays parallel
+ * 						to the event array, so ordering never boxes. Events scheduled for the
+ * 						same time come out in the order they were scheduled. Handled events
+ * 						are handed back with recycle() and reused by obtain().
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Arrays;
+
+
+
+
+public class EventQueue
+{
+	//declaring static class constants
+	private static final int INITIAL_CAPACITY = 256;
+	
+	//declaring local instance variables
+	private long[] times;
+	private long[] seqs;
+	private SimEvent[] events;
+	private int size;
+	private long nextSeq;
+	private SimEvent[] pool;
+	private int pooled;
+	
+	
+	//generic constructor
+	public EventQueue()
+	{
+		times = new long[INITIAL_CAPACITY];
+		seqs = new long[INITIAL_CAPACITY];
+		events = new SimEvent[INITIAL_CAPACITY];
+		pool = new SimEvent[INITIAL_CAPACITY];
+		size = 0;
+		nextSeq = 0;
+		pooled = 0;
+	}
+	
+	
+	//generic getters
+	public int size()
+	{
+		return size;
+	}
+	public boolean isEmpty()
+	{
+		return (size == 0);
+	}
+	
+	
+	//get a cleared event, reusing a recycled one if possible
+	public SimEvent obtain()
+	{
+		if (pooled > 0)
+		{
+			SimEvent event = pool[--pooled];
+			pool[pooled] = null;
+			return event;
+		}
+		return new SimEvent();
+	}
+	
+	
+	//return a handled event to the pool
+	public void recycle(SimEvent event)
+	{
+		event.clear();
+		if (pooled == pool.length)
+		{
+			pool = Arrays.copyOf(pool, pooled*2);
+		}
+		pool[pooled++] = event;
+	}
+	
+	
+	//schedule an event at a given time
+	public void schedule(long time, SimEvent event)
+	{
+		if (size == times.length)
+		{
+			times = Arrays.copyOf(times, size*2);
+			seqs = Arrays.copyOf(seqs, size*2);
+			events = Arrays.copyOf(events, size*2);
+		}
+		
+		//sift up from the bottom
+		int i = size++;
+		long seq = nextSeq++;
+		while (i > 0)
+		{
+			int parent = (i-1) >>> 1;
+			if (!before(time, seq, times[parent], seqs[parent]))
+			{
+				break;
+			}
+			move(parent, i);
+			i = parent;
+		}
+		times[i] = time;
+		seqs[i] = seq;
+		events[i] = event;
+	}
+	
+	
+	//time of the earliest event, Long.MAX_VALUE if empty
+	public long peekTime()
+	{
+		return (size > 0) ? times[0] : Long.MAX_VALUE;
+	}
+	
+	
+	//remove and return the earliest event, null if empty
+	public SimEvent poll()
+	{
+		if (size == 0)
+		{
+			return null;
+		}
+		SimEvent top = events[0];
+		size--;
+		
+		//sift the last entry down from the top
+		long time = times[size];
+		long seq = seqs[size];
+		SimEvent event = events[size];
+		events[size] = null;
+		int i = 0;
+		int half = size >>> 1;
+		while (i < half)
+		{
+			int child = 2*i + 1;
+			int right = child + 1;
+			if (right < size && before(times[right], seqs[right], times[child], seqs[child]))
+			{
+				child = right;
+			}
+			if (!before(times[child], seqs[child], time, seq))
+			{
+				break;
+			}
+			move(child, i);
+			i = child;
+		}
+		if (size > 0)
+		{
+			times[i] = time;
+			seqs[i] = seq;
+			events[i] = event;
+		}
+		return top;
+	}
+	
+	
+	//drop all scheduled events, keeping them for reuse
+	public void clear()
+	{
+		for (int i=0; i<size; i++)
+		{
+			recycle(events[i]);
+			events[i] = null;
+		}
+		size = 0;
+	}
+	
+	
+	//heap order, earlier time first and then earlier scheduling
+	private static boolean before(long timeA, long seqA, long timeB, long seqB)
+	{
+		return (timeA < timeB) || (timeA == timeB && seqA < seqB);
+	}
+	
+	
+	//copy heap slot
+	private void move(int from, int to)
+	{
+		times[to] = times[from];
+		seqs[to] = seqs[from];
+		events[to] = events[from];
+	}
+}
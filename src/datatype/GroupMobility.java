@@ -0,0 +1,185 @@
+/**
+ * Class:				GroupMobility.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Reference point group mobility. Nodes are split into groups around a few
+ * 						leaders. Each group's reference point follows random waypoints, and every
+ * 						member keeps near it, wandering slowly about its own spot in the group.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Random;
+
+
+
+
+public class GroupMobility implements MobilityModel
+{
+	//declaring static class constants
+	private static final int MARGIN = LowpanNode.MIN_X + 1;
+	private static final double WANDER_INTERVAL = 1.0;
+	
+	//declaring local instance variables
+	private Random rand;
+	private int groups;
+	private double minSpeed, maxSpeed;
+	private double memberSpeed;
+	private double radius;
+	private double[] refX, refY;				// per group
+	private double[] targetX, targetY;			// per group
+	private double[] speed;						// per group
+	private int[] group;						// per node
+	private double[] offX, offY;				// per node
+	private double[] velX, velY;				// per node
+	private double[] limit;						// per node
+	private double wander;
+	
+	
+	/* generic constructor, speeds in pixels per second
+	 * groups move between minSpeed and maxSpeed, members drift about at up to memberSpeed,
+	 * within radius of their reference point, or as far as they started if further
+	 */
+	public GroupMobility(long seed, int groups, double minSpeed, double maxSpeed, double memberSpeed, double radius)
+	{
+		rand = new Random(seed);
+		this.groups = Math.max(1, groups);
+		this.minSpeed = minSpeed;
+		this.maxSpeed = maxSpeed;
+		this.memberSpeed = memberSpeed;
+		this.radius = radius;
+		reset(new double[0], new double[0], 0, 0);
+	}
+	
+	
+	@Override
+	public double getMaxSpeed()
+	{
+		return maxSpeed + memberSpeed;
+	}
+	
+	
+	@Override
+	//lead each group from a random node, joining every node to the closest leader
+	public void reset(double[] x, double[] y, int width, int height)
+	{
+		int n = x.length;
+		int k = Math.min(groups, n);
+		refX = new double[k];
+		refY = new double[k];
+		targetX = new double[k];
+		targetY = new double[k];
+		speed = new double[k];
+		for (int g=0; g<k; g++)
+		{
+			int leader = rand.nextInt(n);
+			refX[g] = x[leader];
+			refY[g] = y[leader];
+			pickWaypoint(g, width, height);
+		}
+		
+		group = new int[n];
+		offX = new double[n];
+		offY = new double[n];
+		velX = new double[n];
+		velY = new double[n];
+		limit = new double[n];
+		for (int i=0; i<n; i++)
+		{
+			double best = Double.MAX_VALUE;
+			for (int g=0; g<k; g++)
+			{
+				double d = (x[i]-refX[g])*(x[i]-refX[g]) + (y[i]-refY[g])*(y[i]-refY[g]);
+				if (d < best)
+				{
+					best = d;
+					group[i] = g;
+				}
+			}
+			offX[i] = x[i] - refX[group[i]];
+			offY[i] = y[i] - refY[group[i]];
+			limit[i] = Math.max(radius, Math.sqrt(best));
+		}
+		wander = 0;
+	}
+	
+	
+	@Override
+	public void step(double[] x, double[] y, int width, int height, double dt)
+	{
+		//members pick up from wherever they now are, as they may have been moved or held at the edge
+		for (int i=0; i<x.length; i++)
+		{
+			offX[i] = x[i] - refX[group[i]];
+			offY[i] = y[i] - refY[group[i]];
+		}
+		
+		//move every reference point toward its waypoint
+		for (int g=0; g<refX.length; g++)
+		{
+			double dx = targetX[g] - refX[g];
+			double dy = targetY[g] - refY[g];
+			double left = Math.sqrt(dx*dx + dy*dy);
+			double travel = speed[g] * dt;
+			if (travel >= left)
+			{
+				refX[g] = targetX[g];
+				refY[g] = targetY[g];
+				pickWaypoint(g, width, height);
+			}
+			else
+			{
+				refX[g] += dx / left * travel;
+				refY[g] += dy / left * travel;
+			}
+		}
+		
+		//members all change direction together, every wander interval
+		wander -= dt;
+		boolean newHeadings = (wander <= 0);
+		if (newHeadings)
+		{
+			wander = WANDER_INTERVAL;
+		}
+		for (int i=0; i<x.length; i++)
+		{
+			if (newHeadings)
+			{
+				double heading = rand.nextDouble() * 2 * Math.PI;
+				velX[i] = Math.cos(heading) * memberSpeed;
+				velY[i] = Math.sin(heading) * memberSpeed;
+			}
+			
+			//a member drifting too far from its group turns back toward it
+			double reach = Math.sqrt(offX[i]*offX[i] + offY[i]*offY[i]);
+			if (reach > limit[i] && offX[i]*velX[i] + offY[i]*velY[i] > 0)
+			{
+				velX[i] = -offX[i] / reach * memberSpeed;
+				velY[i] = -offY[i] / reach * memberSpeed;
+			}
+			offX[i] += velX[i] * dt;
+			offY[i] += velY[i] * dt;
+			
+			//clamping to the area never moves a node further than it would have gone
+			int g = group[i];
+			x[i] = Math.max(MARGIN, Math.min(width - MARGIN, refX[g] + offX[i]));
+			y[i] = Math.max(MARGIN, Math.min(height - MARGIN, refY[g] + offY[i]));
+		}
+	}
+	
+	
+	//send a reference point to a new random point, at a new random speed
+	private void pickWaypoint(int g, int width, int height)
+	{
+		targetX[g] = MARGIN + rand.nextDouble() * Math.max(0, width - 2*MARGIN);
+		targetY[g] = MARGIN + rand.nextDouble() * Math.max(0, height - 2*MARGIN);
+		speed[g] = minSpeed + rand.nextDouble() * (maxSpeed - minSpeed);
+	}
+}
@@ -0,0 +1,254 @@
+/**
+ * Class:				Histogram.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.2
+ * 
+ * Purpose:				Constant memory log-linear histogram of non-negative long values.
+ * 						Every power of two is split into SUB_BUCKETS equal buckets, and
+ * 						percentiles are read off bucket midpoints, so they are known to within
+ * 						about 0.4% (3 significant digits), whatever their magnitude. Counts are
+ * 						allocated a power of two at a time as values land in it, so memory is at
+ * 						most ROWS*SUB_BUCKETS counts (about 58KB), and a few KB for values of
+ * 						similar size. Recording is a couple of shifts and an array increment.
+ * 						Values are times, in nanoseconds unless another unit is given, and are
+ * 						always printed in microseconds.
+ * 
+ * Update Log:			v1.0.2
+ * 							- SUB_BITS raised from 4 to 7, 6% error down to 0.4%
+ * 							- percentiles give bucket midpoints instead of upper edges
+ * 							- counts allocated per power of two on first use
+ * 						v1.0.1
+ * 							- values can be recorded in a unit other than nanoseconds
+ * 							- toString converts to microseconds from the recorded unit
+ * 						v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Arrays;
+
+
+
+
+public class Histogram
+{
+	//declaring static class constants
+	public static final long NANOSECONDS = 1;
+	public static final long MICROSECONDS = 1000;
+	private static final int SUB_BITS = 7;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int ROWS = 64 - SUB_BITS + 1;
+	
+	//declaring local instance variables
+	private final String name;
+	private final long unit;			// nanoseconds per recorded value
+	private final long[][] counts;		// SUB_BUCKETS counts per power of two, null until used
+	private long count;
+	private long sum;
+	private long min;
+	private long max;
+	
+	
+	//generic constructor, values in nanoseconds
+	public Histogram(String name)
+	{
+		this(name, NANOSECONDS);
+	}
+	//base constructor, unit being the nanoseconds in one recorded value
+	public Histogram(String name, long unit)
+	{
+		this.name = name;
+		this.unit = unit;
+		counts = new long[ROWS][];
+		reset();
+	}
+	
+	
+	//generic getters
+	public String getName()
+	{
+		return name;
+	}
+	public long getUnit()
+	{
+		return unit;
+	}
+	public synchronized long getCount()
+	{
+		return count;
+	}
+	public synchronized long getMin()
+	{
+		return (count == 0) ? 0 : min;
+	}
+	public synchronized long getMax()
+	{
+		return max;
+	}
+	
+	
+	//mean of all recorded values, 0 if nothing recorded
+	public synchronized double getMean()
+	{
+		return (count == 0) ? 0 : (double)sum/count;
+	}
+	
+	
+	//record a single value, negative values are recorded as 0
+	public synchronized void record(long value)
+	{
+		value = Math.max(0, value);
+		int bucket = bucketOf(value);
+		int row = bucket >>> SUB_BITS;
+		if (counts[row] == null)
+		{
+			counts[row] = new long[SUB_BUCKETS];
+		}
+		counts[row][bucket & (SUB_BUCKETS-1)]++;
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+	
+	
+	//add everything recorded in another histogram to this one
+	public void add(Histogram other)
+	{
+		long[][] theirs = new long[ROWS][];
+		long theirCount, theirSum, theirMin, theirMax;
+		synchronized (other)
+		{
+			for (int r=0; r<ROWS; r++)
+			{
+				if (other.counts[r] != null)
+				{
+					theirs[r] = other.counts[r].clone();
+				}
+			}
+			theirCount = other.count;
+			theirSum = other.sum;
+			theirMin = other.min;
+			theirMax = other.max;
+		}
+		synchronized (this)
+		{
+			for (int r=0; r<ROWS; r++)
+			{
+				if (theirs[r] == null)
+				{
+					continue;
+				}
+				if (counts[r] == null)
+				{
+					counts[r] = theirs[r];
+					continue;
+				}
+				for (int i=0; i<SUB_BUCKETS; i++)
+				{
+					counts[r][i] += theirs[r][i];
+				}
+			}
+			count += theirCount;
+			sum += theirSum;
+			min = Math.min(min, theirMin);
+			max = Math.max(max, theirMax);
+		}
+	}
+	
+	
+	/* value below which the given percentage of recorded values fall
+	 *
+	 * RETURN midpoint of the bucket holding that percentile, kept within the smallest and largest values seen
+	 * OTHERWISE return 0 if nothing has been recorded
+	 */
+	public synchronized long getPercentile(double percent)
+	{
+		if (count == 0)
+		{
+			return 0;
+		}
+		long rank = (long)Math.ceil(Math.min(100, Math.max(0, percent)) / 100 * count);
+		rank = Math.max(1, rank);
+		long seen = 0;
+		for (int r=0; r<ROWS; r++)
+		{
+			if (counts[r] == null)
+			{
+				continue;
+			}
+			for (int i=0; i<SUB_BUCKETS; i++)
+			{
+				seen += counts[r][i];
+				if (seen >= rank)
+				{
+					return Math.max(min, Math.min(max, midpointOf(r*SUB_BUCKETS + i)));
+				}
+			}
+		}
+		return max;
+	}
+	
+	
+	//forget everything recorded
+	public synchronized void reset()
+	{
+		for (long[] row : counts)
+		{
+			if (row != null)
+			{
+				Arrays.fill(row, 0);
+			}
+		}
+		count = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+	}
+	
+	
+	//bucket a value falls in, values below SUB_BUCKETS get a bucket each
+	private static int bucketOf(long value)
+	{
+		if (value < SUB_BUCKETS)
+		{
+			return (int)value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BITS;
+		int sub = (int)(value >>> shift) & (SUB_BUCKETS-1);
+		return (shift+1)*SUB_BUCKETS + sub;
+	}
+	
+	
+	//middle value of a bucket, rounded down
+	private static long midpointOf(int bucket)
+	{
+		if (bucket < SUB_BUCKETS)
+		{
+			return bucket;
+		}
+		int shift = bucket/SUB_BUCKETS - 1;
+		long sub = bucket % SUB_BUCKETS;
+		long low = (SUB_BUCKETS + sub) << shift;
+		return low + ((1L << shift) - 1)/2;
+	}
+	
+	
+	@Override
+	//nice printable, values converted to microseconds from whatever unit they were recorded in
+	public synchronized String toString()
+	{
+		double perMicro = (double)MICROSECONDS/unit;
+		return String.format("%-16s %10d %12.1f %12.1f %12.1f %12.1f",
+				name, count,
+				getMean()/perMicro,
+				getPercentile(50)/perMicro,
+				getPercentile(99)/perMicro,
+				max/perMicro);
+	}
+}
@@ -2,29 +2,41 @@
  * Class:				IdDispatcher.java
  * Project:				Lowpan Network Sim
  * Author:				Jason Van Kerkhoven
- * Date of Update:		22/01/2017
- * Version:				1.2.1
+ * Date of Update:		18/10/2026
+ * Version:				2.0.0
  * 
- * Purpose:				Gives the next valid ID address up to 2^32-1.
- * 						If you exceed the limit it will crash because.
- * 						Ripped and ported from old code.
+ * Purpose:				Gives the next valid ID address up to 2^31-2.
+ * 						The lowest free ID is always handed out first. Retired IDs are kept
+ * 						in a primitive min-heap, so retiring or reusing an ID is O(log n).
+ * 						Running out of IDs is reported with NO_ID rather than exiting.
  * 
- * Update Log:			v1.0.0
+ * Update Log:			v2.0.0
+ * 							- retired IDs kept in min-heap instead of sorted LinkedList
+ * 							- bulk allocate/retireAll added
+ * 							- out of IDs returns NO_ID instead of calling System.exit
+ * 						v1.0.0
  * 							- null
  */
 package datatype;
 
 
 //import libraries
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.BitSet;
 
 
 
 
 public class IdDispatcher
 {
+	//declaring static class constants
+	public static final int NO_ID = -1;
+	private static final int INITIAL_CAPACITY = 16;
+	
 	//declaring local instance variables
-	private LinkedList<Integer> retired;
+	private int[] retired;			// min-heap
+	private int retiredCount;
+	private BitSet isRetired;
 	private int newId;
 	private boolean full;
 	
@@ -32,19 +44,33 @@ public class IdDispatcher
 	//generic constructor
 	public IdDispatcher()
 	{
-		retired = new LinkedList<>();
-		newId = 0;
-		full = false;
+		retired = new int[INITIAL_CAPACITY];
+		isRetired = new BitSet();
+		reset();
 	}
 	
 	
-	//get next available ID
+	//check if there is at least one ID left to hand out
+	public boolean hasNextID()
+	{
+		return (retiredCount > 0 || !full);
+	}
+	
+	
+	//number of IDs left to hand out
+	public long available()
+	{
+		return retiredCount + ((long)Integer.MAX_VALUE - newId);
+	}
+	
+	
+	//get next available ID, NO_ID if all IDs are in use
 	public int getNextID()
 	{
 		//there is 1 or more retired IDs available, use the lowest value among them
-		if (retired.size() > 0)
+		if (retiredCount > 0)
 		{
-			return (int)retired.pop();
+			return popRetired();
 		}
 		//no retired IDs available, create new ID
 		else if (!full)
@@ -59,69 +85,173 @@ public class IdDispatcher
 		}
 		else
 		{
-			System.exit(0);
-			return 0;
-			//out of IDs just exit
+			//out of IDs, let caller decide what to do
+			return NO_ID;
+		}
+	}
+	
+	
+	/* get the n lowest available IDs at once
+	 *
+	 * RETURN IDs in ascending order
+	 * OTHERWISE return null, handing out nothing, if fewer than n IDs are available
+	 */
+	public int[] allocate(int n)
+	{
+		if (n < 0 || available() < n)
+		{
+			return null;
 		}
+		
+		int[] ids = new int[n];
+		for (int i=0; i<n; i++)
+		{
+			ids[i] = getNextID();
+		}
+		return ids;
 	}
 	
 	
 	//exactly what it says on the tin
 	public void reset()
 	{
-		retired.clear();
+		retiredCount = 0;
+		isRetired.clear();
 		full = false;
 		newId = 0;
 	}
 	
 	
-	//retire an ID
+	//retire an ID, ignored if the ID was never handed out or is already retired
 	public void retireID(int toAdd)
 	{
-		if(retired.size() == 0)
+		if (isRetirable(toAdd))
 		{
-			retired.addFirst((Integer)toAdd);
+			ensureCapacity(retiredCount+1);
+			isRetired.set(toAdd);
+			retired[retiredCount] = toAdd;
+			siftUp(retiredCount++);
 		}
-		else
+	}
+	
+	
+	//retire many IDs at once, invalid or duplicate IDs are ignored
+	public void retireAll(int[] ids)
+	{
+		//few IDs against a large heap, cheaper to insert one at a time
+		if (ids.length < retiredCount/2)
 		{
-			//iterate through list to determine where to put it 
-			for(int i=0; i<retired.size(); i++)
+			for (int id : ids)
 			{
-				//new int should come before int in list
-				if(toAdd < retired.get(i).intValue() )
-				{
-					retired.add(i, toAdd);
-					return;
-				}
+				retireID(id);
 			}
-			//add to end
-			retired.addLast((Integer)toAdd);
+			return;
+		}
+		
+		//otherwise append everything and rebuild heap bottom up in O(n)
+		ensureCapacity(retiredCount+ids.length);
+		for (int id : ids)
+		{
+			if (isRetirable(id))
+			{
+				isRetired.set(id);
+				retired[retiredCount++] = id;
+			}
+		}
+		for (int i=(retiredCount/2)-1; i>=0; i--)
+		{
+			siftDown(i);
 		}
 	}
 	
 	
+	//check if an ID is currently handed out
+	private boolean isRetirable(int id)
+	{
+		return (id >= 0 && id < newId && !isRetired.get(id));
+	}
+	
+	
+	//remove lowest retired ID from heap
+	private int popRetired()
+	{
+		int ret = retired[0];
+		retired[0] = retired[--retiredCount];
+		siftDown(0);
+		isRetired.clear(ret);
+		return ret;
+	}
+	
+	
+	//grow heap storage
+	private void ensureCapacity(int size)
+	{
+		if (size > retired.length)
+		{
+			retired = Arrays.copyOf(retired, Math.max(size, retired.length*2));
+		}
+	}
+	
+	
+	//restore heap order upwards from i
+	private void siftUp(int i)
+	{
+		int id = retired[i];
+		while (i > 0)
+		{
+			int parent = (i-1) >>> 1;
+			if (retired[parent] <= id)
+			{
+				break;
+			}
+			retired[i] = retired[parent];
+			i = parent;
+		}
+		retired[i] = id;
+	}
+	
+	
+	//restore heap order downwards from i
+	private void siftDown(int i)
+	{
+		int id = retired[i];
+		int half = retiredCount >>> 1;
+		while (i < half)
+		{
+			int child = 2*i + 1;
+			if (child+1 < retiredCount && retired[child+1] < retired[child])
+			{
+				child++;
+			}
+			if (id <= retired[child])
+			{
+				break;
+			}
+			retired[i] = retired[child];
+			i = child;
+		}
+		retired[i] = id;
+	}
+	
+	
 	@Override
 	//return as a String
 	public String toString()
 	{
-		String string = "newId: " + newId + ", full: " + full + ", retired: {";
+		int[] sorted = Arrays.copyOf(retired, retiredCount);
+		Arrays.sort(sorted);
 		
-		boolean first = true;
-		for (int i : retired)
+		StringBuilder string = new StringBuilder("newId: " + newId + ", full: " + full + ", retired: {");
+		for (int i=0; i<sorted.length; i++)
 		{
-			if(first) 
-			{
-				first=false;
-			}
-			else 
+			if (i > 0)
 			{
-				string += ", ";
+				string.append(", ");
 			}
-			
-			string += i;
+			string.append(sorted[i]);
 		}
-		string += "}";
-				
-		return string;
+		string.append("}");
+		
+		return string.toString();
 	}
 }
\ No newline at end of file
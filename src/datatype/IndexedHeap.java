@@ -0,0 +1,175 @@
+/**
+ * Class:				IndexedHeap.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Binary min-heap of int items keyed by double, for Dijkstra over the dense
+ * 						node indices of a MeshGraph. Items are 0 up to the capacity, and the heap
+ * 						position of every item is tracked so a held item can have its key lowered
+ * 						in place. Everything is kept in primitive arrays, reused between searches,
+ * 						so nothing is boxed or allocated once the heap is big enough.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Arrays;
+
+
+
+
+public class IndexedHeap
+{
+	//declaring local instance variables
+	private int[] heap;				// heap slot => item
+	private int[] position;			// item => heap slot, -1 if not held
+	private double[] key;			// item => key
+	private int size;
+	
+	
+	//generic constructor
+	public IndexedHeap(int capacity)
+	{
+		heap = new int[capacity];
+		position = new int[capacity];
+		key = new double[capacity];
+		size = 0;
+		Arrays.fill(position, -1);
+	}
+	
+	
+	//generic getters
+	public int size()
+	{
+		return size;
+	}
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+	public boolean contains(int item)
+	{
+		return position[item] >= 0;
+	}
+	
+	
+	//empty the heap, growing it if needed to hold items 0 up to capacity-1
+	public void reset(int capacity)
+	{
+		if (capacity > position.length)
+		{
+			heap = new int[capacity];
+			position = new int[capacity];
+			key = new double[capacity];
+			Arrays.fill(position, -1);
+		}
+		else
+		{
+			for (int i=0; i<size; i++)
+			{
+				position[heap[i]] = -1;
+			}
+		}
+		size = 0;
+	}
+	
+	
+	/* add an item, or lower its key if already held
+	 *
+	 * RETURN true if the item was added or its key lowered
+	 * OTHERWISE return false if it is already held with a key no higher
+	 */
+	public boolean offer(int item, double value)
+	{
+		int slot = position[item];
+		if (slot < 0)
+		{
+			slot = size++;
+			heap[slot] = item;
+			position[item] = slot;
+		}
+		else if (value >= key[item])
+		{
+			return false;
+		}
+		key[item] = value;
+		siftUp(slot);
+		return true;
+	}
+	
+	
+	/* take the item with the lowest key out of the heap
+	 *
+	 * RETURN item
+	 * OTHERWISE return -1 if the heap is empty
+	 */
+	public int pop()
+	{
+		if (size == 0)
+		{
+			return -1;
+		}
+		int top = heap[0];
+		position[top] = -1;
+		size--;
+		if (size > 0)
+		{
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+	
+	
+	//move the item in a slot up until its parent's key is no higher
+	private void siftUp(int slot)
+	{
+		int item = heap[slot];
+		double value = key[item];
+		while (slot > 0)
+		{
+			int up = (slot-1) >>> 1;
+			if (key[heap[up]] <= value)
+			{
+				break;
+			}
+			heap[slot] = heap[up];
+			position[heap[slot]] = slot;
+			slot = up;
+		}
+		heap[slot] = item;
+		position[item] = slot;
+	}
+	
+	
+	//move the item in a slot down until neither child's key is lower
+	private void siftDown(int slot)
+	{
+		int item = heap[slot];
+		double value = key[item];
+		int half = size >>> 1;
+		while (slot < half)
+		{
+			int child = 2*slot + 1;
+			if (child+1 < size && key[heap[child+1]] < key[heap[child]])
+			{
+				child++;
+			}
+			if (value <= key[heap[child]])
+			{
+				break;
+			}
+			heap[slot] = heap[child];
+			position[heap[slot]] = slot;
+			slot = child;
+		}
+		heap[slot] = item;
+		position[item] = slot;
+	}
+}
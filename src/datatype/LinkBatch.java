@@ -0,0 +1,118 @@
+/**
+ * Class:				LinkBatch.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Fixed size batch of candidate node pairs, held column by column, for a
+ * 						LinkModel to evaluate in one call. Pairs are gathered until the batch is
+ * 						full, handed to the model whole, and the qualities read back out, so the
+ * 						model is called once per batch rather than once per pair.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+
+
+public class LinkBatch
+{
+	//declaring static class constants
+	public static final int DEFAULT_CAPACITY = 4096;
+	
+	//declaring local instance variables
+	private final LowpanNode[] first;
+	private final LowpanNode[] second;
+	private final double[] distance;
+	private final int[] rangeA;
+	private final int[] rangeB;
+	private final long[] pairKey;
+	private final float[] quality;
+	private int size;
+	
+	
+	//generic constructor
+	public LinkBatch()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+	//base constructor
+	public LinkBatch(int capacity)
+	{
+		first = new LowpanNode[capacity];
+		second = new LowpanNode[capacity];
+		distance = new double[capacity];
+		rangeA = new int[capacity];
+		rangeB = new int[capacity];
+		pairKey = new long[capacity];
+		quality = new float[capacity];
+		size = 0;
+	}
+	
+	
+	//generic getters, arrays are only filled up to size()
+	public int size()
+	{
+		return size;
+	}
+	public boolean isFull()
+	{
+		return size == first.length;
+	}
+	public LowpanNode getFirst(int i)
+	{
+		return first[i];
+	}
+	public LowpanNode getSecond(int i)
+	{
+		return second[i];
+	}
+	public double[] getDistances()
+	{
+		return distance;
+	}
+	public int[] getRangesA()
+	{
+		return rangeA;
+	}
+	public int[] getRangesB()
+	{
+		return rangeB;
+	}
+	public long[] getPairKeys()
+	{
+		return pairKey;
+	}
+	public float[] getQualities()
+	{
+		return quality;
+	}
+	
+	
+	//add a pair to the batch, which must not be full
+	public void add(LowpanNode a, LowpanNode b)
+	{
+		first[size] = a;
+		second[size] = b;
+		distance[size] = a.getLocation().distance(b.getLocation());
+		rangeA[size] = a.getRange();
+		rangeB[size] = b.getRange();
+		pairKey[size] = LinkModel.pairKey(a.getId(), b.getId());
+		size++;
+	}
+	
+	
+	//empty the batch, dropping its node references
+	public void clear()
+	{
+		for (int i=0; i<size; i++)
+		{
+			first[i] = null;
+			second[i] = null;
+		}
+		size = 0;
+	}
+}
@@ -0,0 +1,13 @@
+package datatype;
+
+public interface LinkListener 
+{
+	//a link between a and b has just been made
+	public void linkAdded(LowpanNode a, LowpanNode b);
+	
+	//a link between a and b has just been broken
+	public void linkRemoved(LowpanNode a, LowpanNode b);
+	
+	//every link in the mesh may have changed at once
+	public void linksRebuilt();
+}
@@ -0,0 +1,46 @@
+package datatype;
+
+public interface LinkModel
+{
+	//names of the built in models
+	public static final String UNIT_DISK_EASY = "A";
+	public static final String UNIT_DISK_REAL = "B";
+	public static final String QUASI_UNIT_DISK = "quasi";
+	public static final String LOG_DISTANCE = "logdist";
+	public static final String PRR_CURVE = "prr";
+	public static final String[] KINDS = {UNIT_DISK_EASY, UNIT_DISK_REAL, QUASI_UNIT_DISK, LOG_DISTANCE, PRR_CURVE};
+	
+	//weakest link quality any model reports as a link
+	public static final float MIN_QUALITY = 0.1f;
+	
+	//get the name the model is known by, on the command line and in saved scenarios
+	public String getName();
+	
+	//get the furthest apart nodes with these ranges can ever be linked, never smaller for larger ranges
+	public double getMaxLinkDistance(int rangeA, int rangeB);
+	
+	//get the distance within which one particular pair of nodes is linked, any per link randomness picked by pairKey
+	public double getLinkDistance(int rangeA, int rangeB, long pairKey);
+	
+	//fill in the quality of every pair in a batch, from MIN_QUALITY to 1 if within link distance, otherwise 0
+	public void evaluate(LinkBatch batch);
+	
+	
+	//key naming an unordered pair of nodes, the same whichever way round they are given
+	public static long pairKey(int idA, int idB)
+	{
+		return ((long)Math.min(idA, idB) << 32) | (Math.max(idA, idB) & 0xFFFFFFFFL);
+	}
+	
+	
+	//uniform value in [0, 1) fixed for a pair and seed, so a link never changes its mind between checks
+	public static double pairUniform(long pairKey, long seed)
+	{
+		//SplitMix64 finalizer
+		long z = pairKey + seed * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		return (z >>> 11) * 0x1.0p-53;
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Class:				LogDistanceModel.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Log-distance path loss with log-normal shadowing. The smaller range of a
+ * 						pair is taken as the distance at which the mean received signal is just at
+ * 						the receiver's sensitivity. Each pair gets its own fixed shadowing, drawn
+ * 						from a normal distribution in dB and cut off at SHADOW_LIMIT deviations, so
+ * 						some links reach well past range and some fall well short. Link quality is
+ * 						the packet reception ratio for the resulting margin over sensitivity, on a
+ * 						logistic curve, and pairs below MIN_QUALITY are not linked.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+
+
+public class LogDistanceModel implements LinkModel
+{
+	//declaring static class constants
+	public static final double DEFAULT_EXPONENT = 3.0;
+	public static final double DEFAULT_SIGMA_DB = 4.0;
+	public static final double SLOPE_DB = 1.5;
+	public static final double SHADOW_LIMIT = 3.0;
+	
+	//declaring local instance variables
+	private final double exponent;
+	private final double sigma;
+	private final long seed;
+	private final double minMargin;
+	
+	
+	//generic constructor, path loss exponent and shadowing deviation in dB
+	public LogDistanceModel(double exponent, double sigma, long seed)
+	{
+		this.exponent = exponent;
+		this.sigma = sigma;
+		this.seed = seed;
+		minMargin = SLOPE_DB * Math.log(MIN_QUALITY / (1 - MIN_QUALITY));
+	}
+	
+	
+	@Override
+	public String getName()
+	{
+		return LOG_DISTANCE;
+	}
+	
+	
+	@Override
+	public double getMaxLinkDistance(int rangeA, int rangeB)
+	{
+		return Math.min(rangeA, rangeB) * Math.pow(10, (SHADOW_LIMIT*sigma - minMargin) / (10*exponent));
+	}
+	
+	
+	@Override
+	public double getLinkDistance(int rangeA, int rangeB, long pairKey)
+	{
+		return Math.min(rangeA, rangeB) * Math.pow(10, (shadowing(pairKey) - minMargin) / (10*exponent));
+	}
+	
+	
+	@Override
+	public void evaluate(LinkBatch batch)
+	{
+		double[] distance = batch.getDistances();
+		int[] rangeA = batch.getRangesA();
+		int[] rangeB = batch.getRangesB();
+		long[] pairKey = batch.getPairKeys();
+		float[] quality = batch.getQualities();
+		for (int i=0; i<batch.size(); i++)
+		{
+			if (distance[i] <= getLinkDistance(rangeA[i], rangeB[i], pairKey[i]))
+			{
+				double margin = 10*exponent*Math.log10(Math.min(rangeA[i], rangeB[i]) / distance[i]) + shadowing(pairKey[i]);
+				quality[i] = (float)Math.max(MIN_QUALITY, 1 / (1 + Math.exp(-margin / SLOPE_DB)));
+			}
+			else
+			{
+				quality[i] = 0f;
+			}
+		}
+	}
+	
+	
+	//shadowing of a pair in dB, normal by Box-Muller over two fixed draws, cut off at SHADOW_LIMIT deviations
+	private double shadowing(long pairKey)
+	{
+		double u = 1 - LinkModel.pairUniform(pairKey, seed);
+		double v = LinkModel.pairUniform(pairKey, seed+1);
+		double z = Math.sqrt(-2*Math.log(u)) * Math.cos(2*Math.PI*v);
+		return sigma * Math.max(-SHADOW_LIMIT, Math.min(SHADOW_LIMIT, z));
+	}
+}
@@ -2,12 +2,16 @@
  * Class:				LowpanNode.java
  * Project:				Lowpan Network Sim
  * Author:				Jason Van Kerkhoven
- * Date of Update:		25/11/2017
- * Version:				1.0.0
+ * Date of Update:		18/10/2026
+ * Version:				2.0.0
  * 
  * Purpose:				Represent a generic 6lowpan networked node.
  * 
- * Update Log:			v1.0.0
+ * Update Log:			v2.0.0
+ * 							- neighbour search and routing moved out to SpatialGrid and RouteEngine
+ * 							- routeIdeal runs over a MeshGraph snapshot, routeRPL over a Dodag
+ * 							- object-graph BFS and RPL tree builders removed
+ * 						v1.0.0
  * 							- null
  */
 package datatype;
@@ -15,9 +19,7 @@ package datatype;
 
 //import libraries
 import java.awt.Point;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashSet;
 import java.util.LinkedList;
 
@@ -60,6 +62,16 @@ public class LowpanNode
 		
 		neighbours = new HashSet<LowpanNode>();
 	}
+	//detached copy, same ID, name, range and location but no neighbours
+	public LowpanNode(LowpanNode node)
+	{
+		this.id = node.id;
+		this.name = node.name;
+		this.range = node.range;
+		this.location = new Point(node.location);
+		this.sizeLimit = node.sizeLimit;
+		this.neighbours = new HashSet<LowpanNode>();
+	}
 	
 	
 	//generic getters
@@ -143,6 +155,10 @@ public class LowpanNode
 	{
 		neighbours.remove(node);
 	}
+	public void clearNeighbours()
+	{
+		neighbours.clear();
+	}
 	
 	
 	//increment/decrement X component of location
@@ -192,6 +208,7 @@ public class LowpanNode
 	public TreeNode<LowpanNode> treeify(LowpanNode rNode)
 	{
 		//set instance variables
+		long start = Metrics.start();
 		LinkedList<TreeNode<LowpanNode>> curLayer = new LinkedList<TreeNode<LowpanNode>>();
 		LinkedList<TreeNode<LowpanNode>> nxtLayer = new LinkedList<TreeNode<LowpanNode>>();
 		HashSet<LowpanNode> dump = new HashSet<LowpanNode>();
@@ -200,8 +217,6 @@ public class LowpanNode
 		//prepare output based on rNode
 		TreeNode<LowpanNode> returnable = (rNode == null || rNode == this)?root:null;
 		
-		System.out.println("<LowpanNode.treeify>: setting RET target:" + rNode);
-		
 		//add children directly to root node
 		for (LowpanNode neighbour : this.neighbours)
 		{
@@ -250,157 +265,32 @@ public class LowpanNode
 			}
 		}
 		
+		Metrics.stop(Metrics.TREEIFY, start);
 		return returnable;
 	}
 	
 	
 	//RPL, single DODAG to destination node if possible
-	public ArrayList<LowpanNode> routeRPL(LowpanNode dest, LowpanNode dodag)
-	{
-		//Compute highest-node
-		System.out.println("<LowpanNode.routeRPL>: Calling 'treeify' on " + dodag + " with parameter" + this);
-		TreeNode<LowpanNode> top = null;
-		TreeNode<LowpanNode> src = dodag.treeify(this);
-		TreeNode<LowpanNode> tmp = src;
-		while (tmp != null)
-		{
-			if (tmp.hasChild(dest))
-			{
-				top = tmp;
-				tmp = null;
-			}
-			else
-			{
-				tmp = tmp.getParent();
-			}
-		}
-		System.out.println("<LowpanNode.routeRPL>: Top node found: " + top);
-		
-		//setup
-		ArrayList<LowpanNode> srcToDodag = computeShortestPath(this.treeify(), top.getSelf(), null);
-		ArrayList<LowpanNode> dodagToDest = computeShortestPath(top.getSelf().treeify(), dest, null);
-		
-		if (srcToDodag != null && dodagToDest != null)
-		{
-			dodagToDest.remove(0);
-			for (LowpanNode node : dodagToDest)
-			{
-				srcToDodag.add(node);
-			}
-			return srcToDodag;
-		}
-		else
-		{
-			return null;
-		}
-	}
-	
-	
-	//route to destination node if the node exists
-	public ArrayList<LowpanNode> routeIdeal(LowpanNode dest)
+	public ArrayList<LowpanNode> routeRPL(LowpanNode dest, Dodag dodag)
 	{
-		//setup and compute path
-		TreeNode<LowpanNode> root = this.treeify();
-		ArrayList<LowpanNode> route = computeShortestPath(root, dest, null);
-		
-		/*
-		 * TODO delete this block
-		 * print out path with least hops
-		 */
-		String s = "";
-		if (route != null)
-		{
-			for (LowpanNode node : route)
-			{
-				s += node.getId()  + ", ";
-			}
-		}
-		else
-		{
-			s = "No Routes";
-		}
-		System.out.println(new SimpleDateFormat("HH:mm:ss").format(new Date()) + ":  LPR:  " +s);
-		
+		long start = Metrics.start();
+		ArrayList<LowpanNode> route = dodag.route(this, dest);
+		Metrics.stop(Metrics.ROUTE_RPL, start);
 		return route;
 	}
 	
 	
-	//find the shortest path to any TreeNode in a tree structure
-	private ArrayList<LowpanNode> computeShortestPath(TreeNode<LowpanNode> root, LowpanNode dest, ArrayList<LowpanNode> nodeTrace)
+	//route to destination node if the node exists, over a snapshot holding both nodes
+	public ArrayList<LowpanNode> routeIdeal(LowpanNode dest, MeshGraph graph)
 	{
-		//create a shallow copy of current node path, append root to end
-		ArrayList<LowpanNode> path = new ArrayList<LowpanNode>();
-		if (nodeTrace != null)
-		{
-			for (LowpanNode node : nodeTrace)
-			{
-				path.add(node);
-			}
-		}
-		path.add(root.getSelf());
-		
+		//compute path
+		long start = Metrics.start();
+		int s = graph.indexOf(this);
+		int d = graph.indexOf(dest);
+		ArrayList<LowpanNode> route = (s < 0 || d < 0) ? null : graph.toNodes(RouteEngine.get().route(graph, s, d));
+		Metrics.stop(Metrics.ROUTE_IDEAL, start);
 		
-		if (root.getSelf().equals(dest))
-		{
-			return path;
-		}
-		else
-		{
-			HashSet<ArrayList<LowpanNode>> possibleRoutes = new HashSet<ArrayList<LowpanNode>>();
-			for (TreeNode<LowpanNode>child : root.getChildren())
-			{
-				ArrayList<LowpanNode> newRoute = computeShortestPath(child, dest, path);
-				
-				if (newRoute != null)
-				{
-					possibleRoutes.add(newRoute);
-				}
-			}
-			
-			ArrayList<LowpanNode> bestRoute = null;
-			for (ArrayList<LowpanNode> route : possibleRoutes)
-			{
-				if (bestRoute != null)
-				{
-					if (route.size() == 2)
-					{
-						return route;
-					}
-					else if (bestRoute.size() > route.size())
-					{
-						bestRoute = route;
-					}
-				}
-				else
-				{
-					bestRoute = route;
-				}
-			}
-			return bestRoute;
-		}
-	}
-	
-	
-	@Override
-	//generic equals
-	public boolean equals(Object obj)
-	{
-		if (this == obj)
-		{
-			return true;
-		}
-		else if (obj instanceof LowpanNode)
-		{
-			LowpanNode otherNode = (LowpanNode)obj;
-			return (this.name.equals(otherNode.name) && 
-					this.id == otherNode.id && 
-					this.range == otherNode.range && 
-					this.location.equals(otherNode.location));
-		}
-		else
-		{
-			return false;
-		}
+		return route;
 	}
 	
 	
@@ -0,0 +1,210 @@
+/**
+ * Class:				MeshGenerator.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Seeded procedural deployments of any size, for test meshes far larger than the
+ * 						hand placed presets. Every generator fills the node columns of a Scenario in one
+ * 						pass, so the whole mesh goes into the engine through a single loadScenario, and
+ * 						the same seed always gives the same mesh.
+ * 
+ * 						random		uniform random geometric graph
+ * 						grid		square lattice with each node nudged off its point
+ * 						cluster		nodes scattered normally around a few random centers
+ * 						corridor	nodes strung along a narrow strip, as down a hallway or road
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Random;
+
+
+
+
+public class MeshGenerator
+{
+	//declaring static class constants
+	public static final String KIND_RANDOM = "random";
+	public static final String KIND_GRID = "grid";
+	public static final String KIND_CLUSTER = "cluster";
+	public static final String KIND_CORRIDOR = "corridor";
+	public static final String[] KINDS = {KIND_RANDOM, KIND_GRID, KIND_CLUSTER, KIND_CORRIDOR};
+	public static final int MEAN_DEGREE = 8;			// radio B, radio A reaches twice as far
+	public static final int CLUSTER_SIZE = 40;
+	public static final double GRID_JITTER = 0.3;
+	private static final int MARGIN = LowpanNode.MIN_X + 1;
+	
+	//declaring local instance variables
+	private Random rand;
+	private String prefix;
+	
+	
+	//generic constructor, nodes are named prefix followed by their ID
+	public MeshGenerator(long seed, String prefix)
+	{
+		rand = new Random(seed);
+		this.prefix = prefix;
+	}
+	
+	
+	/* range giving roughly MEAN_DEGREE links per node when n nodes share an area
+	 *
+	 * RETURN range, at least 1
+	 */
+	public static int rangeFor(int n, int width, int height)
+	{
+		return Math.max(1, (int)Math.sqrt((double)MEAN_DEGREE * width * height / (Math.PI * Math.max(1, n))));
+	}
+	
+	
+	/* generate n nodes of the given range, in an area sized for roughly MEAN_DEGREE links per node
+	 *
+	 * RETURN generated scenario
+	 * OTHERWISE return null if kind is not one of KINDS
+	 */
+	public Scenario generate(String kind, int n, int range)
+	{
+		double area = Math.PI * range * range * Math.max(1, n) / MEAN_DEGREE;
+		if (kind.equals(KIND_CORRIDOR))
+		{
+			return generate(kind, n, (int)(area / range) + 2*MARGIN, range + 2*MARGIN, range);
+		}
+		int side = (int)Math.sqrt(area) + 2*MARGIN;
+		return generate(kind, n, side, side, range);
+	}
+	
+	
+	/* generate n nodes of the given range inside a width by height area
+	 *
+	 * RETURN generated scenario
+	 * OTHERWISE return null if kind is not one of KINDS
+	 */
+	public Scenario generate(String kind, int n, int width, int height, int range)
+	{
+		switch (kind)
+		{
+			case (KIND_RANDOM):
+				return randomGeometric(n, width, height, range);
+			case (KIND_GRID):
+				return jitteredGrid(n, width, height, range, GRID_JITTER);
+			case (KIND_CLUSTER):
+				return clusters(n, Math.max(1, n / CLUSTER_SIZE), width, height, range, range);
+			case (KIND_CORRIDOR):
+				return corridor(n, width, height, range);
+			default:
+				return null;
+		}
+	}
+	
+	
+	//n nodes placed uniformly at random over the area
+	public Scenario randomGeometric(int n, int width, int height, int range)
+	{
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		for (int i=0; i<n; i++)
+		{
+			xs[i] = uniform(width);
+			ys[i] = uniform(height);
+		}
+		return build(xs, ys, range);
+	}
+	
+	
+	/* n nodes on a lattice as close to square cells as the area allows, filled row by row,
+	 * each moved up to jitter of a cell away from its lattice point in each direction
+	 */
+	public Scenario jitteredGrid(int n, int width, int height, int range, double jitter)
+	{
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		int cols = Math.max(1, (int)Math.round(Math.sqrt((double)n * width / Math.max(1, height))));
+		int rows = Math.max(1, (n + cols - 1) / cols);
+		double cellX = (double)(width - 2*MARGIN) / cols;
+		double cellY = (double)(height - 2*MARGIN) / rows;
+		for (int i=0; i<n; i++)
+		{
+			double x = MARGIN + (i%cols + 0.5) * cellX + (rand.nextDouble() - 0.5) * jitter * cellX;
+			double y = MARGIN + (i/cols + 0.5) * cellY + (rand.nextDouble() - 0.5) * jitter * cellY;
+			xs[i] = clamp(x, width);
+			ys[i] = clamp(y, height);
+		}
+		return build(xs, ys, range);
+	}
+	
+	
+	/* n nodes shared evenly between k clusters with uniformly random centers,
+	 * each node normally distributed about its center with standard deviation spread
+	 */
+	public Scenario clusters(int n, int k, int width, int height, int range, double spread)
+	{
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		double[] centerX = new double[k];
+		double[] centerY = new double[k];
+		for (int c=0; c<k; c++)
+		{
+			centerX[c] = uniform(width);
+			centerY[c] = uniform(height);
+		}
+		for (int i=0; i<n; i++)
+		{
+			xs[i] = clamp(centerX[i%k] + rand.nextGaussian() * spread, width);
+			ys[i] = clamp(centerY[i%k] + rand.nextGaussian() * spread, height);
+		}
+		return build(xs, ys, range);
+	}
+	
+	
+	//n nodes placed uniformly along a horizontal strip one range tall, through the middle of the area
+	public Scenario corridor(int n, int width, int height, int range)
+	{
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		int band = Math.min(height - 2*MARGIN, range);
+		int top = (height - band) / 2;
+		for (int i=0; i<n; i++)
+		{
+			xs[i] = uniform(width);
+			ys[i] = top + rand.nextInt(Math.max(1, band));
+		}
+		return build(xs, ys, range);
+	}
+	
+	
+	//wrap generated locations as nodes with sequential IDs and a shared range
+	private Scenario build(int[] xs, int[] ys, int range)
+	{
+		int n = xs.length;
+		int[] ids = new int[n];
+		String[] names = new String[n];
+		int[] ranges = new int[n];
+		for (int i=0; i<n; i++)
+		{
+			ids[i] = i;
+			names[i] = prefix + i;
+			ranges[i] = range;
+		}
+		return new Scenario(ids, names, ranges, xs, ys, null, null, null);
+	}
+	
+	
+	//random coordinate along an axis of the given length, kept clear of the edges
+	private int uniform(int length)
+	{
+		return MARGIN + rand.nextInt(Math.max(1, length - 2*MARGIN));
+	}
+	
+	
+	//round a coordinate into an axis of the given length, kept clear of the edges
+	private static int clamp(double coord, int length)
+	{
+		return (int)Math.max(MARGIN, Math.min(length - MARGIN - 1, Math.round(coord)));
+	}
+}
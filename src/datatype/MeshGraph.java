@@ -0,0 +1,306 @@
+/**
+ * Class:				MeshGraph.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Immutable compressed-sparse-row snapshot of the mesh links.
+ * 						Nodes are given dense int indices (in order of ID). The neighbours of
+ * 						node i are adjacency[offsets[i]] up to adjacency[offsets[i+1]-1].
+ * 						The quality of each link, as the link model has it, sits in a column
+ * 						alongside the adjacency, only worked out the first time it is asked for,
+ * 						as does the ETX cost of each link (expected transmissions, 1/quality^2
+ * 						with quality taken as the delivery ratio both ways) for weighted routing.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+
+
+
+public class MeshGraph
+{
+	//declaring local instance variables
+	private final long epoch;
+	private final LowpanNode[] nodes;
+	private final int[] offsets;
+	private final int[] adjacency;
+	private final int[] indexOfId;
+	private final LinkModel linkModel;
+	private volatile float[] quality;
+	private volatile float[] cost;
+	
+	
+	//build snapshot from the current neighbour sets of each node, linked under linkModel
+	public MeshGraph(Collection<LowpanNode> manifest, long epoch, LinkModel linkModel)
+	{
+		this.epoch = epoch;
+		this.linkModel = linkModel;
+		quality = null;
+		cost = null;
+		
+		//index nodes in order of ID
+		ArrayList<LowpanNode> sorted = new ArrayList<LowpanNode>(manifest);
+		sorted.sort(Comparator.comparingInt(LowpanNode::getId));
+		nodes = sorted.toArray(new LowpanNode[sorted.size()]);
+		
+		int maxId = -1;
+		for (LowpanNode node : nodes)
+		{
+			maxId = Math.max(maxId, node.getId());
+		}
+		indexOfId = new int[maxId+1];
+		Arrays.fill(indexOfId, -1);
+		for (int i=0; i<nodes.length; i++)
+		{
+			indexOfId[nodes[i].getId()] = i;
+		}
+		
+		//count, then fill, neighbour rows
+		offsets = new int[nodes.length+1];
+		for (int i=0; i<nodes.length; i++)
+		{
+			offsets[i+1] = offsets[i] + nodes[i].getNeighbours().size();
+		}
+		adjacency = new int[offsets[nodes.length]];
+		for (int i=0; i<nodes.length; i++)
+		{
+			int k = offsets[i];
+			for (LowpanNode neighbour : nodes[i].getNeighbours())
+			{
+				adjacency[k++] = indexOf(neighbour);
+			}
+			Arrays.sort(adjacency, offsets[i], k);
+		}
+	}
+	//same links over a different set of nodes, index for index
+	private MeshGraph(MeshGraph graph, LowpanNode[] nodes)
+	{
+		this.epoch = graph.epoch;
+		this.nodes = nodes;
+		this.offsets = graph.offsets;
+		this.adjacency = graph.adjacency;
+		this.indexOfId = graph.indexOfId;
+		this.linkModel = graph.linkModel;
+		this.quality = graph.quality;
+		this.cost = graph.cost;
+	}
+	
+	
+	//generic getters
+	public long getEpoch()
+	{
+		return epoch;
+	}
+	public int size()
+	{
+		return nodes.length;
+	}
+	public LowpanNode getNode(int index)
+	{
+		return nodes[index];
+	}
+	public LinkModel getLinkModel()
+	{
+		return linkModel;
+	}
+	
+	
+	//raw CSR arrays for tight traversal loops, must not be modified
+	public int[] getOffsets()
+	{
+		return offsets;
+	}
+	public int[] getAdjacency()
+	{
+		return adjacency;
+	}
+	
+	
+	//link quality column alongside the adjacency, quality[k] being that of the link adjacency[k], must not be modified
+	public float[] getQualities()
+	{
+		float[] computed = quality;
+		if (computed == null)
+		{
+			computed = computeQualities();
+			quality = computed;
+		}
+		return computed;
+	}
+	
+	
+	//ETX cost column alongside the adjacency, cost[k] being that of the link adjacency[k], must not be modified
+	public float[] getLinkCosts()
+	{
+		float[] computed = cost;
+		if (computed == null)
+		{
+			float[] quality = getQualities();
+			computed = new float[quality.length];
+			for (int k=0; k<quality.length; k++)
+			{
+				computed[k] = 1 / (quality[k]*quality[k]);
+			}
+			cost = computed;
+		}
+		return computed;
+	}
+	
+	
+	/* total ETX cost of a route made of nodes in this snapshot
+	 *
+	 * RETURN sum of the cost of every hop, 0 for a single node
+	 * OTHERWISE return -1 if the route is null or any hop is not a link in this snapshot
+	 */
+	public double routeCost(ArrayList<LowpanNode> route)
+	{
+		if (route == null)
+		{
+			return -1;
+		}
+		float[] costs = getLinkCosts();
+		double total = 0;
+		for (int h=0; h<route.size()-1; h++)
+		{
+			int i = indexOf(route.get(h));
+			int j = indexOf(route.get(h+1));
+			int k = (i < 0 || j < 0) ? -1 : Arrays.binarySearch(adjacency, offsets[i], offsets[i+1], j);
+			if (k < 0)
+			{
+				return -1;
+			}
+			total += costs[k];
+		}
+		return total;
+	}
+	
+	
+	//number of undirected links in snapshot
+	public int linkCount()
+	{
+		return adjacency.length/2;
+	}
+	
+	
+	//number of links at a single node
+	public int degree(int index)
+	{
+		return offsets[index+1] - offsets[index];
+	}
+	
+	
+	//get dense index of a node, -1 if not in snapshot
+	public int indexOf(LowpanNode node)
+	{
+		int id = node.getId();
+		if (id < indexOfId.length && indexOfId[id] >= 0 && nodes[indexOfId[id]] == node)
+		{
+			return indexOfId[id];
+		}
+		else
+		{
+			return -1;
+		}
+	}
+	
+	
+	//get dense index of the node with an ID, -1 if not in snapshot
+	public int indexOfId(int id)
+	{
+		return (id >= 0 && id < indexOfId.length) ? indexOfId[id] : -1;
+	}
+	
+	
+	/* copy of this snapshot over detached copies of every node
+	 * nodes in the copy are never touched by the engine, so the copy can be read from any
+	 * thread while the mesh carries on changing; links are only held in the CSR arrays,
+	 * and link qualities and costs are shared if already worked out, otherwise worked out from the copies
+	 *
+	 * RETURN snapshot with the same indices and links, over node copies
+	 */
+	public MeshGraph freeze()
+	{
+		LowpanNode[] copies = new LowpanNode[nodes.length];
+		for (int i=0; i<nodes.length; i++)
+		{
+			copies[i] = new LowpanNode(nodes[i]);
+		}
+		return new MeshGraph(this, copies);
+	}
+	
+	
+	//ask the link model for the quality of every link, in batches, each pair once from the lower index side
+	private float[] computeQualities()
+	{
+		float[] computed = new float[adjacency.length];
+		if (linkModel == null)
+		{
+			Arrays.fill(computed, 1f);
+			return computed;
+		}
+		
+		LinkBatch batch = new LinkBatch();
+		int[] slot = new int[LinkBatch.DEFAULT_CAPACITY];
+		for (int i=0; i<nodes.length; i++)
+		{
+			for (int k=offsets[i]; k<offsets[i+1]; k++)
+			{
+				if (i < adjacency[k])
+				{
+					slot[batch.size()] = k;
+					batch.add(nodes[i], nodes[adjacency[k]]);
+					if (batch.isFull())
+					{
+						storeQualities(batch, slot, computed);
+					}
+				}
+			}
+		}
+		storeQualities(batch, slot, computed);
+		return computed;
+	}
+	
+	
+	//evaluate a batch, writing each quality against the link both ways round
+	private void storeQualities(LinkBatch batch, int[] slot, float[] computed)
+	{
+		linkModel.evaluate(batch);
+		float[] batchQuality = batch.getQualities();
+		for (int b=0; b<batch.size(); b++)
+		{
+			int k = slot[b];
+			int j = adjacency[k];
+			int i = indexOf(batch.getFirst(b));
+			computed[k] = batchQuality[b];
+			computed[Arrays.binarySearch(adjacency, offsets[j], offsets[j+1], i)] = batchQuality[b];
+		}
+		batch.clear();
+	}
+	
+	
+	//convert a path of indices back into nodes
+	public ArrayList<LowpanNode> toNodes(int[] path)
+	{
+		if (path == null)
+		{
+			return null;
+		}
+		ArrayList<LowpanNode> list = new ArrayList<LowpanNode>(path.length);
+		for (int index : path)
+		{
+			list.add(nodes[index]);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,248 @@
+/**
+ * Class:				Metrics.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Registry of engine counters and latency histograms.
+ * 						Collection is off by default. While off, start() hands back 0 without
+ * 						reading the clock and every stop() or count() is a single flag check,
+ * 						so instrumented code costs next to nothing.
+ * 
+ * 						Timing a block:
+ * 							long start = Metrics.start();
+ * 							...
+ * 							Metrics.stop(Metrics.ROUTE_IDEAL, start);
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+
+
+public class Metrics
+{
+	//declaring static variables
+	private static volatile boolean enabled = false;
+	private static final ArrayList<Histogram> histograms = new ArrayList<Histogram>();
+	private static final ArrayList<Counter> counters = new ArrayList<Counter>();
+	
+	//declaring static class constants, latencies in ns
+	public static final Histogram COMPUTE_PATHS = histogram("computePaths");
+	public static final Histogram RELINK_NODE = histogram("relinkNode");
+	public static final Histogram TREEIFY = histogram("treeify");
+	public static final Histogram COMPACT_TREE = histogram("compactTree");
+	public static final Histogram ROUTE_IDEAL = histogram("routeIdeal");
+	public static final Histogram ROUTE_RPL = histogram("routeRPL");
+	public static final Histogram ROUTE_ETX = histogram("routeETX");
+	public static final Histogram DODAG_FOREST = histogram("dodagForest");
+	public static final Histogram REPAINT = histogram("repaint");
+	public static final Histogram LAYER_REBUILD = histogram("layerRebuild");
+	public static final Histogram SNAPSHOT = histogram("snapshot");
+	public static final Histogram MOBILITY_TICK = histogram("mobilityTick");
+	public static final Histogram KINETIC_REBUILD = histogram("kineticRebuild");
+	public static final Counter ROUTE_CACHE_HITS = counter("routeCacheHits");
+	public static final Counter ROUTE_CACHE_MISSES = counter("routeCacheMisses");
+	public static final Counter DODAG_REPAIRS = counter("dodagRepairs");
+	public static final Counter DODAG_REBUILDS = counter("dodagRebuilds");
+	public static final Counter EDITS_COALESCED = counter("editsCoalesced");
+	public static final Counter KINETIC_CHECKS = counter("kineticChecks");
+	
+	
+	//register a new histogram
+	public static Histogram histogram(String name)
+	{
+		Histogram histogram = new Histogram(name);
+		synchronized (histograms)
+		{
+			histograms.add(histogram);
+		}
+		return histogram;
+	}
+	
+	
+	//register a new counter
+	public static Counter counter(String name)
+	{
+		Counter counter = new Counter(name);
+		synchronized (counters)
+		{
+			counters.add(counter);
+		}
+		return counter;
+	}
+	
+	
+	//generic getters
+	public static boolean isEnabled()
+	{
+		return enabled;
+	}
+	
+	
+	//generic setters
+	public static void setEnabled(boolean flag)
+	{
+		enabled = flag;
+	}
+	
+	
+	//start timing, 0 if collection is off
+	public static long start()
+	{
+		return enabled ? System.nanoTime() : 0;
+	}
+	
+	
+	//record time since start, ignored if collection was off at start
+	public static void stop(Histogram histogram, long start)
+	{
+		if (start != 0)
+		{
+			histogram.record(System.nanoTime() - start);
+		}
+	}
+	
+	
+	//forget everything recorded so far
+	public static void reset()
+	{
+		synchronized (histograms)
+		{
+			for (Histogram histogram : histograms)
+			{
+				histogram.reset();
+			}
+		}
+		synchronized (counters)
+		{
+			for (Counter counter : counters)
+			{
+				counter.reset();
+			}
+		}
+	}
+	
+	
+	//printable table of everything recorded so far
+	public static String report()
+	{
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("%-16s %10s %12s %12s %12s %12s%n", "latency", "count", "mean-us", "p50-us", "p99-us", "max-us"));
+		synchronized (histograms)
+		{
+			for (Histogram histogram : histograms)
+			{
+				s.append(histogram).append("\n");
+			}
+		}
+		s.append(String.format("%n%-16s %10s%n", "counter", "count"));
+		synchronized (counters)
+		{
+			for (Counter counter : counters)
+			{
+				s.append(counter).append("\n");
+			}
+		}
+		return s.toString();
+	}
+	
+	
+	/* write report out to a file
+	 * 
+	 * RETURN true if the file was written
+	 * OTHERWISE return false
+	 */
+	public static boolean dump(String path)
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(path)))
+		{
+			out.println("Lowpan Network Sim metrics @ " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+			out.println();
+			out.print(report());
+			return !out.checkError();
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+	
+	
+	
+	
+	//event counter, only counts while collection is on
+	public static class Counter
+	{
+		//declaring local instance variables
+		private final String name;
+		private final AtomicLong count;
+		
+		
+		//generic constructor
+		private Counter(String name)
+		{
+			this.name = name;
+			count = new AtomicLong();
+		}
+		
+		
+		//generic getters
+		public String getName()
+		{
+			return name;
+		}
+		public long get()
+		{
+			return count.get();
+		}
+		
+		
+		//count one event
+		public void inc()
+		{
+			if (enabled)
+			{
+				count.incrementAndGet();
+			}
+		}
+		
+		
+		//count many events at once
+		public void add(long events)
+		{
+			if (enabled)
+			{
+				count.addAndGet(events);
+			}
+		}
+		
+		
+		//back to zero
+		public void reset()
+		{
+			count.set(0);
+		}
+		
+		
+		@Override
+		//nice printable
+		public String toString()
+		{
+			return String.format("%-16s %10d", name, count.get());
+		}
+	}
+}
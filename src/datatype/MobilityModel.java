@@ -0,0 +1,19 @@
+package datatype;
+
+public interface MobilityModel
+{
+	//names of the built in models
+	public static final String WAYPOINT = "waypoint";
+	public static final String WALK = "walk";
+	public static final String GROUP = "group";
+	public static final String[] KINDS = {WAYPOINT, WALK, GROUP};
+	
+	//forget any movement in progress and start moving nodes from the given locations, inside a width by height area
+	public void reset(double[] x, double[] y, int width, int height);
+	
+	//move every node on by dt seconds, in place, keeping them inside a width by height area
+	public void step(double[] x, double[] y, int width, int height, double dt);
+	
+	//get the fastest any node can move, in pixels per second
+	public double getMaxSpeed();
+}
@@ -0,0 +1,197 @@
+/**
+ * Class:				NodeRegistry.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Dense store of all nodes in a simulation, indexed by node ID.
+ * 						IDs from the IdDispatcher are always the lowest free, so a flat array
+ * 						stays compact. Lookup by ID is a single array access, iteration is
+ * 						always in order of ID, and membership is by identity, so it is not
+ * 						affected by nodes moving or being renamed.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+
+
+public class NodeRegistry extends AbstractCollection<LowpanNode>
+{
+	//declaring static class constants
+	private static final int INITIAL_CAPACITY = 64;
+	
+	//declaring local instance variables
+	private LowpanNode[] byId;
+	private int size;
+	private int limit;			// one past the highest ID in use
+	private int modCount;
+	
+	
+	//generic constructor
+	public NodeRegistry()
+	{
+		byId = new LowpanNode[INITIAL_CAPACITY];
+		size = 0;
+		limit = 0;
+		modCount = 0;
+	}
+	
+	
+	@Override
+	//number of nodes held
+	public int size()
+	{
+		return size;
+	}
+	
+	
+	//one past the highest ID in use, any array indexed by ID needs to be this long
+	public int getIdLimit()
+	{
+		return limit;
+	}
+	
+	
+	//get node by ID, null if there is no such node
+	public LowpanNode get(int id)
+	{
+		return (id >= 0 && id < limit) ? byId[id] : null;
+	}
+	
+	
+	@Override
+	//add a node under its ID, fails if the ID is already taken
+	public boolean add(LowpanNode node)
+	{
+		int id = node.getId();
+		if (id < 0 || get(id) != null)
+		{
+			return false;
+		}
+		if (id >= byId.length)
+		{
+			byId = Arrays.copyOf(byId, Math.max(id+1, byId.length*2));
+		}
+		byId[id] = node;
+		size++;
+		limit = Math.max(limit, id+1);
+		modCount++;
+		return true;
+	}
+	
+	
+	@Override
+	//remove a node, only if this exact node is held under its ID
+	public boolean remove(Object obj)
+	{
+		if (!contains(obj))
+		{
+			return false;
+		}
+		byId[((LowpanNode)obj).getId()] = null;
+		size--;
+		while (limit > 0 && byId[limit-1] == null)
+		{
+			limit--;
+		}
+		modCount++;
+		return true;
+	}
+	
+	
+	@Override
+	//identity membership
+	public boolean contains(Object obj)
+	{
+		if (obj instanceof LowpanNode)
+		{
+			LowpanNode node = (LowpanNode)obj;
+			return (get(node.getId()) == node);
+		}
+		return false;
+	}
+	
+	
+	@Override
+	//remove all nodes
+	public void clear()
+	{
+		Arrays.fill(byId, 0, limit, null);
+		size = 0;
+		limit = 0;
+		modCount++;
+	}
+	
+	
+	@Override
+	//iterate in order of ID
+	public Iterator<LowpanNode> iterator()
+	{
+		return new Iterator<LowpanNode>()
+		{
+			private int next = advance(0);
+			private int last = -1;
+			private int expected = modCount;
+			
+			
+			@Override
+			public boolean hasNext()
+			{
+				return (next < limit);
+			}
+			
+			
+			@Override
+			public LowpanNode next()
+			{
+				if (expected != modCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+				if (next >= limit)
+				{
+					throw new NoSuchElementException();
+				}
+				last = next;
+				next = advance(next+1);
+				return byId[last];
+			}
+			
+			
+			@Override
+			public void remove()
+			{
+				if (last < 0 || expected != modCount)
+				{
+					throw new IllegalStateException();
+				}
+				NodeRegistry.this.remove(byId[last]);
+				last = -1;
+				expected = modCount;
+			}
+		};
+	}
+	
+	
+	//first occupied ID at or after from
+	private int advance(int from)
+	{
+		while (from < limit && byId[from] == null)
+		{
+			from++;
+		}
+		return from;
+	}
+}
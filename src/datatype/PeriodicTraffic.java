@@ -0,0 +1,51 @@
+/**
+ * Class:				PeriodicTraffic.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Constant bit rate traffic, as from a sensor reporting a reading on a fixed
+ * 						schedule. Every packet follows the last after exactly the same interval.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+
+
+public class PeriodicTraffic implements TrafficModel
+{
+	//declaring local instance variables
+	private final long interval;
+	
+	
+	//generic constructor, interval in microseconds
+	public PeriodicTraffic(long interval)
+	{
+		this.interval = Math.max(1, interval);
+	}
+	
+	
+	@Override
+	public String getName()
+	{
+		return PERIODIC;
+	}
+	
+	
+	@Override
+	public long getMeanInterval()
+	{
+		return interval;
+	}
+	
+	
+	@Override
+	public long nextGap()
+	{
+		return interval;
+	}
+}
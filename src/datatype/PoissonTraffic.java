@@ -0,0 +1,65 @@
+/**
+ * Class:				PoissonTraffic.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Poisson traffic, as from events that happen independently of each other.
+ * 						Gaps between packets are drawn from an exponential distribution, so the
+ * 						flow averages the given interval but packets often bunch up.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Random;
+
+
+
+
+public class PoissonTraffic implements TrafficModel
+{
+	//declaring local instance variables
+	private final Random rand;
+	private final long meanInterval;
+	
+	
+	//generic constructor, interval in microseconds
+	public PoissonTraffic(long seed, long meanInterval)
+	{
+		rand = new Random(seed);
+		this.meanInterval = Math.max(1, meanInterval);
+	}
+	
+	
+	@Override
+	public String getName()
+	{
+		return POISSON;
+	}
+	
+	
+	@Override
+	public long getMeanInterval()
+	{
+		return meanInterval;
+	}
+	
+	
+	@Override
+	public long nextGap()
+	{
+		return exponential(rand, meanInterval);
+	}
+	
+	
+	//draw from an exponential distribution with the given mean, rounded to at least 1
+	static long exponential(Random rand, double mean)
+	{
+		return Math.max(1, Math.round(-Math.log(1 - rand.nextDouble()) * mean));
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * Class:				PrrCurveModel.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Packet reception ratio against distance, as a piecewise linear curve over
+ * 						distance as a fraction of the smaller range of a pair. The default curve
+ * 						has the usual shape measured for low power radios: near perfect close in,
+ * 						a wide transitional region around the nominal range, then nothing. Link
+ * 						quality is the reception ratio, and pairs below MIN_QUALITY are not linked.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+
+
+public class PrrCurveModel implements LinkModel
+{
+	//declaring static class constants
+	public static final double[] DEFAULT_DISTANCES = {0, 0.6, 0.9, 1.1, 1.3};
+	public static final double[] DEFAULT_PRR = {1, 0.98, 0.6, 0.2, 0};
+	
+	//declaring local instance variables
+	private final double[] distances;
+	private final double[] prr;
+	private final double cutoff;
+	
+	
+	//generic constructor, points in order of increasing distance with reception ratio never rising
+	public PrrCurveModel(double[] distances, double[] prr)
+	{
+		this.distances = distances;
+		this.prr = prr;
+		
+		//where the curve falls through MIN_QUALITY
+		double at = 0;
+		for (int k=0; k<prr.length; k++)
+		{
+			if (prr[k] >= MIN_QUALITY)
+			{
+				at = distances[k];
+			}
+			else
+			{
+				if (k > 0)
+				{
+					at = distances[k-1] + (distances[k] - distances[k-1]) * (prr[k-1] - MIN_QUALITY) / (prr[k-1] - prr[k]);
+				}
+				break;
+			}
+		}
+		cutoff = at;
+	}
+	
+	
+	@Override
+	public String getName()
+	{
+		return PRR_CURVE;
+	}
+	
+	
+	@Override
+	public double getMaxLinkDistance(int rangeA, int rangeB)
+	{
+		return Math.min(rangeA, rangeB) * cutoff;
+	}
+	
+	
+	@Override
+	public double getLinkDistance(int rangeA, int rangeB, long pairKey)
+	{
+		return Math.min(rangeA, rangeB) * cutoff;
+	}
+	
+	
+	@Override
+	public void evaluate(LinkBatch batch)
+	{
+		double[] distance = batch.getDistances();
+		int[] rangeA = batch.getRangesA();
+		int[] rangeB = batch.getRangesB();
+		float[] quality = batch.getQualities();
+		for (int i=0; i<batch.size(); i++)
+		{
+			double range = Math.min(rangeA[i], rangeB[i]);
+			quality[i] = (distance[i] <= range * cutoff) ? (float)Math.max(MIN_QUALITY, prrAt(distance[i] / range)) : 0f;
+		}
+	}
+	
+	
+	//reception ratio at a distance given as a fraction of range
+	private double prrAt(double x)
+	{
+		if (x <= distances[0])
+		{
+			return prr[0];
+		}
+		for (int k=1; k<distances.length; k++)
+		{
+			if (x <= distances[k])
+			{
+				return prr[k-1] + (prr[k] - prr[k-1]) * (x - distances[k-1]) / (distances[k] - distances[k-1]);
+			}
+		}
+		return 0;
+	}
+}
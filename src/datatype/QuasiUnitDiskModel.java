@@ -0,0 +1,88 @@
+/**
+ * Class:				QuasiUnitDiskModel.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Quasi unit disk links. Nodes closer than alpha of the smaller range are
+ * 						always linked at full quality, nodes further than the smaller range never
+ * 						are, and in between a pair is linked with a chance falling linearly from 1
+ * 						to 0 across the gap. The draw is fixed per pair, so each pair has its own
+ * 						link distance, and the quality of a link is its chance of existing.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+
+
+public class QuasiUnitDiskModel implements LinkModel
+{
+	//declaring static class constants
+	public static final double DEFAULT_ALPHA = 0.6;
+	
+	//declaring local instance variables
+	private final double alpha;
+	private final long seed;
+	
+	
+	//generic constructor, alpha between 0 and 1
+	public QuasiUnitDiskModel(double alpha, long seed)
+	{
+		this.alpha = Math.max(0, Math.min(1, alpha));
+		this.seed = seed;
+	}
+	
+	
+	@Override
+	public String getName()
+	{
+		return QUASI_UNIT_DISK;
+	}
+	
+	
+	@Override
+	public double getMaxLinkDistance(int rangeA, int rangeB)
+	{
+		return Math.min(rangeA, rangeB);
+	}
+	
+	
+	@Override
+	public double getLinkDistance(int rangeA, int rangeB, long pairKey)
+	{
+		double outer = Math.min(rangeA, rangeB);
+		return outer - LinkModel.pairUniform(pairKey, seed) * (1-alpha) * outer;
+	}
+	
+	
+	@Override
+	public void evaluate(LinkBatch batch)
+	{
+		double[] distance = batch.getDistances();
+		int[] rangeA = batch.getRangesA();
+		int[] rangeB = batch.getRangesB();
+		long[] pairKey = batch.getPairKeys();
+		float[] quality = batch.getQualities();
+		for (int i=0; i<batch.size(); i++)
+		{
+			double outer = Math.min(rangeA[i], rangeB[i]);
+			double inner = alpha * outer;
+			if (distance[i] <= inner)
+			{
+				quality[i] = 1f;
+			}
+			else if (distance[i] <= getLinkDistance(rangeA[i], rangeB[i], pairKey[i]))
+			{
+				quality[i] = (float)Math.max(MIN_QUALITY, (outer - distance[i]) / (outer - inner));
+			}
+			else
+			{
+				quality[i] = 0f;
+			}
+		}
+	}
+}
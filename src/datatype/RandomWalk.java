@@ -0,0 +1,126 @@
+/**
+ * Class:				RandomWalk.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Random walk mobility. Each node picks a random heading and speed, holds it
+ * 						for a fixed interval, then picks again. Nodes bounce off the edges of the
+ * 						area rather than leaving it.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Random;
+
+
+
+
+public class RandomWalk implements MobilityModel
+{
+	//declaring static class constants
+	private static final int MARGIN = LowpanNode.MIN_X + 1;
+	
+	//declaring local instance variables
+	private Random rand;
+	private double minSpeed, maxSpeed;
+	private double interval;
+	private double[] velX, velY;
+	private double[] left;
+	
+	
+	//generic constructor, speeds in pixels per second and interval in seconds
+	public RandomWalk(long seed, double minSpeed, double maxSpeed, double interval)
+	{
+		rand = new Random(seed);
+		this.minSpeed = minSpeed;
+		this.maxSpeed = maxSpeed;
+		this.interval = interval;
+		velX = new double[0];
+		velY = new double[0];
+		left = new double[0];
+	}
+	
+	
+	@Override
+	public double getMaxSpeed()
+	{
+		return maxSpeed;
+	}
+	
+	
+	@Override
+	//every node sets off on a fresh heading straight away
+	public void reset(double[] x, double[] y, int width, int height)
+	{
+		int n = x.length;
+		velX = new double[n];
+		velY = new double[n];
+		left = new double[n];
+		for (int i=0; i<n; i++)
+		{
+			pickHeading(i);
+		}
+	}
+	
+	
+	@Override
+	public void step(double[] x, double[] y, int width, int height, double dt)
+	{
+		for (int i=0; i<x.length; i++)
+		{
+			left[i] -= dt;
+			if (left[i] <= 0)
+			{
+				pickHeading(i);
+			}
+			
+			//reflecting keeps the distance covered, so speed is never exceeded
+			x[i] += velX[i] * dt;
+			y[i] += velY[i] * dt;
+			if (x[i] < MARGIN || x[i] > width - MARGIN)
+			{
+				velX[i] = -velX[i];
+				x[i] = reflect(x[i], width);
+			}
+			if (y[i] < MARGIN || y[i] > height - MARGIN)
+			{
+				velY[i] = -velY[i];
+				y[i] = reflect(y[i], height);
+			}
+		}
+	}
+	
+	
+	//give a node a new random heading and speed for the next interval
+	private void pickHeading(int i)
+	{
+		double heading = rand.nextDouble() * 2 * Math.PI;
+		double speed = minSpeed + rand.nextDouble() * (maxSpeed - minSpeed);
+		velX[i] = Math.cos(heading) * speed;
+		velY[i] = Math.sin(heading) * speed;
+		left[i] = interval;
+	}
+	
+	
+	//mirror a coordinate that has run off either end of an axis back inside it
+	private static double reflect(double coord, int length)
+	{
+		double lo = MARGIN;
+		double hi = Math.max(lo, length - MARGIN);
+		if (coord < lo)
+		{
+			coord = 2*lo - coord;
+		}
+		else if (coord > hi)
+		{
+			coord = 2*hi - coord;
+		}
+		return Math.max(lo, Math.min(hi, coord));
+	}
+}
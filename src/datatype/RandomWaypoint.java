@@ -0,0 +1,119 @@
+/**
+ * Class:				RandomWaypoint.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Random waypoint mobility. Each node picks a random point in the area and a
+ * 						random speed, travels there in a straight line, waits for the pause time,
+ * 						then picks again.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Random;
+
+
+
+
+public class RandomWaypoint implements MobilityModel
+{
+	//declaring static class constants
+	private static final int MARGIN = LowpanNode.MIN_X + 1;
+	
+	//declaring local instance variables
+	private Random rand;
+	private double minSpeed, maxSpeed;
+	private double pause;
+	private double[] targetX, targetY;
+	private double[] speed;
+	private double[] waiting;
+	
+	
+	//generic constructor, speeds in pixels per second and pause in seconds
+	public RandomWaypoint(long seed, double minSpeed, double maxSpeed, double pause)
+	{
+		rand = new Random(seed);
+		this.minSpeed = minSpeed;
+		this.maxSpeed = maxSpeed;
+		this.pause = pause;
+		targetX = new double[0];
+		targetY = new double[0];
+		speed = new double[0];
+		waiting = new double[0];
+	}
+	
+	
+	@Override
+	public double getMaxSpeed()
+	{
+		return maxSpeed;
+	}
+	
+	
+	@Override
+	//every node heads off to a fresh waypoint straight away
+	public void reset(double[] x, double[] y, int width, int height)
+	{
+		int n = x.length;
+		targetX = new double[n];
+		targetY = new double[n];
+		speed = new double[n];
+		waiting = new double[n];
+		for (int i=0; i<n; i++)
+		{
+			pickWaypoint(i, width, height);
+		}
+	}
+	
+	
+	@Override
+	public void step(double[] x, double[] y, int width, int height, double dt)
+	{
+		for (int i=0; i<x.length; i++)
+		{
+			//sitting at a waypoint
+			if (waiting[i] > 0)
+			{
+				waiting[i] -= dt;
+				if (waiting[i] <= 0)
+				{
+					pickWaypoint(i, width, height);
+				}
+				continue;
+			}
+			
+			//head for the waypoint, stopping on it if it is reached this step
+			double dx = targetX[i] - x[i];
+			double dy = targetY[i] - y[i];
+			double left = Math.sqrt(dx*dx + dy*dy);
+			double travel = speed[i] * dt;
+			if (travel >= left)
+			{
+				x[i] = targetX[i];
+				y[i] = targetY[i];
+				waiting[i] = (pause > 0) ? pause : Double.MIN_VALUE;
+			}
+			else
+			{
+				x[i] += dx / left * travel;
+				y[i] += dy / left * travel;
+			}
+		}
+	}
+	
+	
+	//send a node to a new random point, at a new random speed
+	private void pickWaypoint(int i, int width, int height)
+	{
+		targetX[i] = MARGIN + rand.nextDouble() * Math.max(0, width - 2*MARGIN);
+		targetY[i] = MARGIN + rand.nextDouble() * Math.max(0, height - 2*MARGIN);
+		speed[i] = minSpeed + rand.nextDouble() * (maxSpeed - minSpeed);
+		waiting[i] = 0;
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ * Class:				RouteCache.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Remember computed routes until the mesh topology changes.
+ * 						Routes are keyed on source, destination, DODAG root, routing metric and
+ * 						link model, and all are dropped as soon as the topology epoch moves on.
+ * 						How long each least ETX route took to work out is kept alongside it.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.ArrayList;
+import java.util.HashMap;
+
+
+
+
+public class RouteCache
+{
+	//declaring local instance variables
+	private TopologyReporter topology;
+	private long epoch;
+	private HashMap<RouteKey, ArrayList<LowpanNode>> routes;
+	private HashMap<RouteKey, Long> times;
+	
+	
+	//generic constructor
+	public RouteCache(TopologyReporter topology)
+	{
+		this.topology = topology;
+		this.epoch = topology.getTopologyEpoch();
+		routes = new HashMap<RouteKey, ArrayList<LowpanNode>>();
+		times = new HashMap<RouteKey, Long>();
+	}
+	
+	
+	//get least hops route, computing it only if not already known for this topology
+	public ArrayList<LowpanNode> getIdealRoute(LowpanNode src, LowpanNode dest)
+	{
+		validate();
+		RouteKey key = new RouteKey(src, dest, null, false, topology.getLinkModel());
+		if (routes.containsKey(key))
+		{
+			Metrics.ROUTE_CACHE_HITS.inc();
+		}
+		else
+		{
+			Metrics.ROUTE_CACHE_MISSES.inc();
+			routes.put(key, src.routeIdeal(dest, topology.getMeshGraph()));
+		}
+		return routes.get(key);
+	}
+	
+	
+	//get RPL route, computing it only if not already known for this topology
+	public ArrayList<LowpanNode> getRplRoute(LowpanNode src, LowpanNode dest, LowpanNode dodag)
+	{
+		validate();
+		RouteKey key = new RouteKey(src, dest, dodag, false, topology.getLinkModel());
+		if (routes.containsKey(key))
+		{
+			Metrics.ROUTE_CACHE_HITS.inc();
+		}
+		else
+		{
+			Metrics.ROUTE_CACHE_MISSES.inc();
+			Dodag tree = topology.getDodag(dodag);
+			routes.put(key, (tree == null) ? null : src.routeRPL(dest, tree));
+		}
+		return routes.get(key);
+	}
+	
+	
+	//get least ETX route, computing it only if not already known for this topology
+	public ArrayList<LowpanNode> getEtxRoute(LowpanNode src, LowpanNode dest)
+	{
+		validate();
+		RouteKey key = new RouteKey(src, dest, null, true, topology.getLinkModel());
+		if (routes.containsKey(key))
+		{
+			Metrics.ROUTE_CACHE_HITS.inc();
+		}
+		else
+		{
+			//always timed, the time taken is shown with the route
+			Metrics.ROUTE_CACHE_MISSES.inc();
+			long start = System.nanoTime();
+			MeshGraph graph = topology.getMeshGraph();
+			int s = graph.indexOf(src);
+			int d = graph.indexOf(dest);
+			routes.put(key, (s < 0 || d < 0) ? null : graph.toNodes(RouteEngine.get().routeEtx(graph, s, d)));
+			long took = System.nanoTime() - start;
+			times.put(key, took);
+			if (Metrics.isEnabled())
+			{
+				Metrics.ROUTE_ETX.record(took);
+			}
+		}
+		return routes.get(key);
+	}
+	
+	
+	//get how long the least ETX route took to work out in ns, -1 if it has not been for this topology
+	public long getEtxTime(LowpanNode src, LowpanNode dest)
+	{
+		validate();
+		Long took = times.get(new RouteKey(src, dest, null, true, topology.getLinkModel()));
+		return (took == null) ? -1 : took;
+	}
+	
+	
+	//drop everything
+	public void clear()
+	{
+		routes.clear();
+		times.clear();
+	}
+	
+	
+	//drop all routes if the topology has changed since they were computed
+	private void validate()
+	{
+		long current = topology.getTopologyEpoch();
+		if (current != epoch)
+		{
+			routes.clear();
+			times.clear();
+			epoch = current;
+		}
+	}
+	
+	
+	
+	
+	//key for a single route, nodes and link model are compared by identity
+	private static class RouteKey
+	{
+		private final LowpanNode src, dest, dodag;
+		private final boolean etx;
+		private final LinkModel linkModel;
+		
+		
+		//generic constructor
+		public RouteKey(LowpanNode src, LowpanNode dest, LowpanNode dodag, boolean etx, LinkModel linkModel)
+		{
+			this.src = src;
+			this.dest = dest;
+			this.dodag = dodag;
+			this.etx = etx;
+			this.linkModel = linkModel;
+		}
+		
+		
+		@Override
+		//identity equals on all nodes and the link model
+		public boolean equals(Object obj)
+		{
+			if (obj instanceof RouteKey)
+			{
+				RouteKey other = (RouteKey)obj;
+				return (src == other.src && 
+						dest == other.dest && 
+						dodag == other.dodag && 
+						etx == other.etx && 
+						linkModel == other.linkModel);
+			}
+			else
+			{
+				return false;
+			}
+		}
+		
+		
+		@Override
+		//identity hash on all nodes and the link model
+		public int hashCode()
+		{
+			int hash = System.identityHashCode(src);
+			hash = 31*hash + System.identityHashCode(dest);
+			hash = 31*hash + System.identityHashCode(dodag);
+			hash = 31*hash + (etx ? 1 : 0);
+			return 31*hash + System.identityHashCode(linkModel);
+		}
+	}
+}
@@ -0,0 +1,318 @@
+/**
+ * Class:				RouteEngine.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Compute routes through the mesh with a single breadth first search.
+ * 						Searches run over a MeshGraph snapshot, with predecessors and depths
+ * 						kept in int arrays indexed by snapshot index and reused between searches,
+ * 						so a route costs one BFS (stopping as soon as the destination is reached)
+ * 						plus a walk back along the predecessors. Least ETX routes run Dijkstra
+ * 						instead, on an IndexedHeap, with path costs kept in a double array
+ * 						alongside the others. RPL DODAGs for a single root are kept by Dodag,
+ * 						so there is only one definition of an RPL route. A DodagForest
+ * 						grows every DODAG of an RPL instance at once, from all roots in a single
+ * 						search, so each node joins the nearest root under either objective.
+ * 
+ * 						Not thread safe, use RouteEngine.get() for an instance owned by the
+ * 						calling thread.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.Arrays;
+
+
+
+
+public class RouteEngine
+{
+	//declaring static class constants
+	private static final int INITIAL_CAPACITY = 64;
+	private static final ThreadLocal<RouteEngine> LOCAL = ThreadLocal.withInitial(RouteEngine::new);
+	
+	//declaring local instance variables
+	private int generation;
+	private int[] parent;
+	private int[] level;
+	private int[] seen;
+	private int[] fifo;
+	private double[] distance;
+	private IndexedHeap heap;
+	
+	
+	//generic constructor
+	public RouteEngine()
+	{
+		parent = new int[INITIAL_CAPACITY];
+		level = new int[INITIAL_CAPACITY];
+		seen = new int[INITIAL_CAPACITY];
+		fifo = new int[INITIAL_CAPACITY];
+		distance = new double[INITIAL_CAPACITY];
+		heap = new IndexedHeap(INITIAL_CAPACITY);
+		generation = 0;
+	}
+	
+	
+	//get the engine belonging to the calling thread
+	public static RouteEngine get()
+	{
+		return LOCAL.get();
+	}
+	
+	
+	/* least hops route from src to dest over a snapshot, given as snapshot indices
+	 * 
+	 * RETURN indices of nodes from src to dest inclusive
+	 * OTHERWISE return null if dest cannot be reached from src
+	 */
+	public int[] route(MeshGraph graph, int src, int dest)
+	{
+		if (search(graph, src, dest))
+		{
+			int[] path = new int[level[dest]+1];
+			for (int i=path.length-1, node=dest; i>=0; i--, node=parent[node])
+			{
+				path[i] = node;
+			}
+			return path;
+		}
+		else
+		{
+			return null;
+		}
+	}
+	
+	
+	/* least ETX route from src to dest over a snapshot, given as snapshot indices
+	 * each hop costs the expected number of transmissions over its link, see MeshGraph.getLinkCosts()
+	 * 
+	 * RETURN indices of nodes from src to dest inclusive
+	 * OTHERWISE return null if dest cannot be reached from src
+	 */
+	public int[] routeEtx(MeshGraph graph, int src, int dest)
+	{
+		if (!searchWeighted(graph, src, dest, graph.getLinkCosts()))
+		{
+			return null;
+		}
+		int hops = 0;
+		for (int node=dest; node!=src; node=parent[node])
+		{
+			hops++;
+		}
+		int[] path = new int[hops+1];
+		for (int i=hops, node=dest; i>=0; i--, node=parent[node])
+		{
+			path[i] = node;
+		}
+		return path;
+	}
+	
+	
+	/* build one DODAG per root over a snapshot, in a single search outwards from every root at once
+	 * each node joins whichever root it has the least rank to, by hops or by ETX cost, through
+	 * the lowest ID of its equally good parents; repeated roots are only used once
+	 * 
+	 * RETURN forest covering every node reachable from any root
+	 */
+	public DodagForest dodagForest(MeshGraph graph, int[] roots, boolean etx)
+	{
+		long start = Metrics.start();
+		int n = graph.size();
+		int[] offsets = graph.getOffsets();
+		int[] adjacency = graph.getAdjacency();
+		float[] cost = etx ? graph.getLinkCosts() : null;
+		int[] owner = new int[n];
+		int[] parents = new int[n];
+		int[] depths = new int[n];
+		double[] rank = new double[n];
+		int[] order = new int[n];
+		Arrays.fill(owner, DodagForest.NONE);
+		Arrays.fill(parents, DodagForest.NONE);
+		
+		//seed the search with every root at rank 0
+		prepare(n);
+		heap.reset(n);
+		int[] unique = new int[roots.length];
+		int count = 0;
+		int tail = 0;
+		for (int root : roots)
+		{
+			if (seen[root] != generation)
+			{
+				seen[root] = generation;
+				owner[root] = count;
+				parents[root] = DodagForest.NONE;
+				unique[count++] = root;
+				if (etx)
+				{
+					heap.offer(root, 0);
+				}
+				else
+				{
+					fifo[tail++] = root;
+				}
+			}
+		}
+		
+		//every node takes the root of the parent it was reached through
+		int placed = 0;
+		int head = 0;
+		while (etx ? !heap.isEmpty() : head < tail)
+		{
+			int cur = etx ? heap.pop() : fifo[head++];
+			order[placed++] = cur;
+			for (int k=offsets[cur]; k<offsets[cur+1]; k++)
+			{
+				int linked = adjacency[k];
+				double r = rank[cur] + (etx ? cost[k] : 1);
+				//ties go to the lowest index parent, as in Dodag, indices being in order of ID
+				boolean better = (seen[linked] != generation);
+				if (!better && (etx ? heap.contains(linked) : depths[linked] == depths[cur]+1))
+				{
+					better = (r < rank[linked] || (r == rank[linked] && cur < parents[linked]));
+				}
+				if (better)
+				{
+					boolean queued = (seen[linked] == generation);
+					seen[linked] = generation;
+					owner[linked] = owner[cur];
+					parents[linked] = cur;
+					depths[linked] = depths[cur] + 1;
+					rank[linked] = r;
+					if (etx)
+					{
+						heap.offer(linked, r);
+					}
+					else if (!queued)
+					{
+						fifo[tail++] = linked;
+					}
+				}
+			}
+		}
+		
+		DodagForest forest = new DodagForest(graph, etx, Arrays.copyOf(unique, count), owner, parents, depths, rank, Arrays.copyOf(order, placed));
+		Metrics.stop(Metrics.DODAG_FOREST, start);
+		return forest;
+	}
+	
+	
+	/* breadth first search over snapshot outwards from root, until target has been reached
+	 * 
+	 * RETURN true if target was reached
+	 */
+	private boolean search(MeshGraph graph, int root, int target)
+	{
+		boolean found = (root == target);
+		int[] offsets = graph.getOffsets();
+		int[] adjacency = graph.getAdjacency();
+		prepare(graph.size());
+		seen[root] = generation;
+		parent[root] = -1;
+		level[root] = 0;
+		
+		int head = 0;
+		int tail = 0;
+		fifo[tail++] = root;
+		while (!found && head < tail)
+		{
+			int cur = fifo[head++];
+			int nxtLevel = level[cur] + 1;
+			for (int k=offsets[cur]; k<offsets[cur+1]; k++)
+			{
+				int linked = adjacency[k];
+				if (seen[linked] != generation)
+				{
+					seen[linked] = generation;
+					parent[linked] = cur;
+					level[linked] = nxtLevel;
+					fifo[tail++] = linked;
+					
+					if (linked == target)
+					{
+						found = true;
+					}
+				}
+			}
+		}
+		return found;
+	}
+	
+	
+	/* Dijkstra over snapshot outwards from root, with cost[k] the weight of link adjacency[k],
+	 * until target is settled; weights must not be negative
+	 * 
+	 * RETURN true if target was reached
+	 */
+	private boolean searchWeighted(MeshGraph graph, int root, int target, float[] cost)
+	{
+		int[] offsets = graph.getOffsets();
+		int[] adjacency = graph.getAdjacency();
+		prepare(graph.size());
+		heap.reset(graph.size());
+		seen[root] = generation;
+		parent[root] = -1;
+		distance[root] = 0;
+		heap.offer(root, 0);
+		
+		while (!heap.isEmpty())
+		{
+			int cur = heap.pop();
+			if (cur == target)
+			{
+				return true;
+			}
+			
+			//settled nodes are never improved on, as no link costs less than nothing
+			double base = distance[cur];
+			for (int k=offsets[cur]; k<offsets[cur+1]; k++)
+			{
+				int linked = adjacency[k];
+				double d = base + cost[k];
+				if (seen[linked] != generation || d < distance[linked])
+				{
+					seen[linked] = generation;
+					parent[linked] = cur;
+					distance[linked] = d;
+					heap.offer(linked, d);
+				}
+			}
+		}
+		return false;
+	}
+	
+	
+	//size snapshot arrays for a graph and start a new search
+	private void prepare(int size)
+	{
+		if (size > seen.length)
+		{
+			parent = new int[size];
+			level = new int[size];
+			seen = new int[size];
+			fifo = new int[size];
+			distance = new double[size];
+		}
+		nextGeneration();
+	}
+	
+	
+	//start a new search without clearing the seen array
+	private void nextGeneration()
+	{
+		generation++;
+		if (generation == 0)
+		{
+			Arrays.fill(seen, 0);
+			generation = 1;
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/**
+ * Class:				RoutingTable.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Least hops next-hop table for every source/destination pair.
+ * 						Built from a MeshGraph snapshot with one BFS per source, sources being
+ * 						split across cores on a ForkJoinPool. Each source gets its own row of
+ * 						next-hop indices, so any lookup is a single array access.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+
+
+public class RoutingTable
+{
+	//declaring static class constants
+	public static final int UNREACHABLE = -1;
+	private static final int SOURCES_PER_TASK = 16;
+	
+	//declaring local instance variables
+	private final MeshGraph graph;
+	private final int[][] nextHop;
+	
+	
+	//compute table on the common pool
+	public RoutingTable(MeshGraph graph)
+	{
+		this(graph, ForkJoinPool.commonPool());
+	}
+	//compute table on a given pool
+	public RoutingTable(MeshGraph graph, ForkJoinPool pool)
+	{
+		this.graph = graph;
+		this.nextHop = new int[graph.size()][];
+		pool.invoke(new RowTask(0, graph.size()));
+	}
+	
+	
+	//generic getters
+	public MeshGraph getGraph()
+	{
+		return graph;
+	}
+	
+	
+	/* next hop from src towards dest, given as snapshot indices
+	 *
+	 * RETURN index of the neighbour of src to forward to, src itself if src == dest
+	 * OTHERWISE return UNREACHABLE if there is no route
+	 */
+	public int getNextHop(int src, int dest)
+	{
+		return nextHop[src][dest];
+	}
+	public LowpanNode getNextHop(LowpanNode src, LowpanNode dest)
+	{
+		int s = graph.indexOf(src);
+		int d = graph.indexOf(dest);
+		if (s < 0 || d < 0 || nextHop[s][d] == UNREACHABLE)
+		{
+			return null;
+		}
+		return graph.getNode(nextHop[s][d]);
+	}
+	
+	
+	//number of hops from src to dest, UNREACHABLE if there is no route
+	public int getHops(int src, int dest)
+	{
+		if (nextHop[src][dest] == UNREACHABLE)
+		{
+			return UNREACHABLE;
+		}
+		int hops = 0;
+		for (int node=src; node!=dest; node=nextHop[node][dest])
+		{
+			hops++;
+		}
+		return hops;
+	}
+	
+	
+	//follow next hops from src to dest, null if there is no route
+	public ArrayList<LowpanNode> route(LowpanNode src, LowpanNode dest)
+	{
+		int s = graph.indexOf(src);
+		int d = graph.indexOf(dest);
+		if (s < 0 || d < 0 || nextHop[s][d] == UNREACHABLE)
+		{
+			return null;
+		}
+		
+		ArrayList<LowpanNode> path = new ArrayList<LowpanNode>();
+		for (int node=s; node!=d; node=nextHop[node][d])
+		{
+			path.add(graph.getNode(node));
+		}
+		path.add(graph.getNode(d));
+		return path;
+	}
+	
+	
+	
+	
+	//fills the rows of a range of sources, splitting until ranges are small
+	private class RowTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		private final int lo, hi;
+		
+		
+		//generic constructor
+		public RowTask(int lo, int hi)
+		{
+			this.lo = lo;
+			this.hi = hi;
+		}
+		
+		
+		@Override
+		//split or run BFS for each source in range
+		protected void compute()
+		{
+			if (hi - lo > SOURCES_PER_TASK)
+			{
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new RowTask(lo, mid), new RowTask(mid, hi));
+			}
+			else
+			{
+				int[] queue = new int[graph.size()];
+				for (int src=lo; src<hi; src++)
+				{
+					nextHop[src] = fillRow(src, queue);
+				}
+			}
+		}
+		
+		
+		/* BFS from src, each node inherits the first hop of the node it was reached from
+		 * the row itself doubles as the visited marker
+		 */
+		private int[] fillRow(int src, int[] queue)
+		{
+			int[] offsets = graph.getOffsets();
+			int[] adjacency = graph.getAdjacency();
+			int[] row = new int[graph.size()];
+			Arrays.fill(row, UNREACHABLE);
+			row[src] = src;
+			
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = src;
+			while (head < tail)
+			{
+				int cur = queue[head++];
+				for (int k=offsets[cur]; k<offsets[cur+1]; k++)
+				{
+					int linked = adjacency[k];
+					if (row[linked] == UNREACHABLE)
+					{
+						row[linked] = (cur == src) ? linked : row[cur];
+						queue[tail++] = linked;
+					}
+				}
+			}
+			return row;
+		}
+	}
+}
@@ -0,0 +1,527 @@
+/**
+ * Class:				Scenario.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Saved mesh deployment, held column by column.
+ * 						Every node is an ID, name, range and location, optionally with the links
+ * 						computed for it under a given link model. Saved either as a compact binary
+ * 						file, loaded through a memory map with one bulk copy per column, or as a
+ * 						plain text file for small hand edited meshes.
+ * 
+ * 						Binary layout, little endian, version 2:
+ * 							int magic "LPSC", int version, int flags, int nodes (n),
+ * 							int link entries (m), int name bytes (b), int model name bytes (l)
+ * 							byte[l] UTF-8 link model name padded to 4 bytes
+ * 							int[n] ids, int[n] ranges, int[n] x, int[n] y
+ * 							int[n+1] name offsets, byte[b] UTF-8 names padded to 4 bytes
+ * 							int[n+1] link offsets, int[m] links		(only if FLAG_LINKS)
+ * 						Links are in compressed sparse row form over node positions in the
+ * 						file, as in MeshGraph, each row in ascending order and every link
+ * 						listed from both of its ends. IDs are kept below ID_LIMIT_PER_NODE
+ * 						times the node count (or MIN_ID_LIMIT), so sparse IDs cannot blow up
+ * 						the arrays the engine sizes by ID. Version 1 files have no model name, the header
+ * 						stopping after the name bytes, and FLAG_RADIO_EASY picks radio A or B.
+ * 
+ * 						Text layout, one node per line, name running to the end of the line:
+ * 							lowpan-scenario 1
+ * 							# id range x y name
+ * 							0 100 85 320 Mercury
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+
+
+
+public class Scenario
+{
+	//declaring static class constants
+	public static final int MAGIC = 0x4353504C;			// "LPSC" read little endian
+	public static final int VERSION = 2;
+	public static final int TEXT_VERSION = 1;
+	public static final String TEXT_HEADER = "lowpan-scenario";
+	public static final String TEXT_EXTENSION = ".txt";
+	private static final int FLAG_LINKS = 1;
+	private static final int FLAG_RADIO_EASY = 2;
+	private static final int HEADER_BYTES = 28;
+	private static final int V1_HEADER_BYTES = 24;
+	private static final int MIN_ID_LIMIT = 1 << 16;
+	private static final int ID_LIMIT_PER_NODE = 16;
+	
+	//declaring local instance variables
+	private final int[] ids;
+	private final String[] names;
+	private final int[] ranges;
+	private final int[] xs;
+	private final int[] ys;
+	private final String linkModel;
+	private final int[] offsets;
+	private final int[] links;
+	
+	
+	/* wrap node columns, all of the same length
+	 * offsets and links may be null if no links are stored, linkModel names the model they were computed with
+	 */
+	public Scenario(int[] ids, String[] names, int[] ranges, int[] xs, int[] ys,
+			String linkModel, int[] offsets, int[] links)
+	{
+		this.ids = ids;
+		this.names = names;
+		this.ranges = ranges;
+		this.xs = xs;
+		this.ys = ys;
+		this.linkModel = linkModel;
+		this.offsets = offsets;
+		this.links = links;
+	}
+	
+	
+	//generic getters
+	public int size()
+	{
+		return ids.length;
+	}
+	public int getId(int i)
+	{
+		return ids[i];
+	}
+	public String getName(int i)
+	{
+		return names[i];
+	}
+	public int getRange(int i)
+	{
+		return ranges[i];
+	}
+	public int getX(int i)
+	{
+		return xs[i];
+	}
+	public int getY(int i)
+	{
+		return ys[i];
+	}
+	public String getLinkModel()
+	{
+		return linkModel;
+	}
+	public boolean hasLinks()
+	{
+		return (offsets != null);
+	}
+	
+	
+	//raw CSR arrays over node positions, null if no links are stored, must not be modified
+	public int[] getOffsets()
+	{
+		return offsets;
+	}
+	public int[] getLinks()
+	{
+		return links;
+	}
+	
+	
+	//smallest area holding every node clear of the edge
+	public int getWidth()
+	{
+		int max = 0;
+		for (int x : xs)
+		{
+			max = Math.max(max, x);
+		}
+		return max + LowpanNode.MIN_X + 1;
+	}
+	public int getHeight()
+	{
+		int max = 0;
+		for (int y : ys)
+		{
+			max = Math.max(max, y);
+		}
+		return max + LowpanNode.MIN_Y + 1;
+	}
+	
+	
+	/* read a scenario saved in either format, told apart by the binary magic number
+	 *
+	 * RETURN scenario read
+	 * OTHERWISE return null if the file cannot be read or is not a valid scenario
+	 */
+	public static Scenario read(String path)
+	{
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ))
+		{
+			ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			channel.read(magic, 0);
+			magic.flip();
+			if (magic.remaining() == 4 && magic.getInt() == MAGIC)
+			{
+				return readBinary(channel);
+			}
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+		return readText(path);
+	}
+	
+	
+	/* write in the text format if the path ends in TEXT_EXTENSION, otherwise binary
+	 *
+	 * RETURN true if the whole file was written
+	 * OTHERWISE return false
+	 */
+	public boolean write(String path)
+	{
+		return path.toLowerCase().endsWith(TEXT_EXTENSION) ? writeText(path) : writeBinary(path);
+	}
+	
+	
+	/* write in the binary format, links are included if stored
+	 *
+	 * RETURN true if the whole file was written
+	 * OTHERWISE return false
+	 */
+	public boolean writeBinary(String path)
+	{
+		int n = ids.length;
+		int m = hasLinks() ? links.length : 0;
+		
+		//names are packed back to back, each one found by its start offset
+		int[] nameOffsets = new int[n+1];
+		byte[][] encoded = new byte[n][];
+		for (int i=0; i<n; i++)
+		{
+			encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+			nameOffsets[i+1] = nameOffsets[i] + encoded[i].length;
+		}
+		int nameBytes = nameOffsets[n];
+		byte[] model = (linkModel == null) ? new byte[0] : linkModel.getBytes(StandardCharsets.UTF_8);
+		
+		long size = HEADER_BYTES + padded(model.length) + 4L*(5*n + 1) + padded(nameBytes) + (hasLinks() ? 4L*(n + 1 + m) : 0);
+		if (size > Integer.MAX_VALUE)
+		{
+			return false;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int)size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(hasLinks() ? FLAG_LINKS : 0);
+		buffer.putInt(n);
+		buffer.putInt(m);
+		buffer.putInt(nameBytes);
+		buffer.putInt(model.length);
+		buffer.put(model);
+		buffer.position(buffer.position() + padded(model.length) - model.length);
+		
+		//whole columns at a time
+		buffer.asIntBuffer().put(ids).put(ranges).put(xs).put(ys).put(nameOffsets);
+		buffer.position(buffer.position() + 4*(5*n + 1));
+		for (byte[] name : encoded)
+		{
+			buffer.put(name);
+		}
+		buffer.position(buffer.position() + padded(nameBytes) - nameBytes);
+		if (hasLinks())
+		{
+			buffer.asIntBuffer().put(offsets).put(links, 0, m);
+		}
+		buffer.position(0);
+		
+		try (FileChannel channel = FileChannel.open(Paths.get(path),
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			while (buffer.hasRemaining())
+			{
+				channel.write(buffer);
+			}
+			return true;
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+	
+	
+	/* write in the text format, links are left out and worked out again on load
+	 *
+	 * RETURN true if the whole file was written
+	 * OTHERWISE return false
+	 */
+	public boolean writeText(String path)
+	{
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)))
+		{
+			out.println(TEXT_HEADER + " " + TEXT_VERSION);
+			out.println("# id range x y name");
+			for (int i=0; i<ids.length; i++)
+			{
+				out.println(ids[i] + " " + ranges[i] + " " + xs[i] + " " + ys[i] + " " + names[i]);
+			}
+			return !out.checkError();
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+	
+	
+	/* map a binary file and copy each column out in bulk
+	 *
+	 * RETURN scenario read
+	 * OTHERWISE return null if the file is truncated, of a newer version, or inconsistent
+	 */
+	private static Scenario readBinary(FileChannel channel) throws IOException
+	{
+		long fileSize = channel.size();
+		if (fileSize < V1_HEADER_BYTES || fileSize > Integer.MAX_VALUE)
+		{
+			return null;
+		}
+		ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize).order(ByteOrder.LITTLE_ENDIAN);
+		map.getInt();
+		int version = map.getInt();
+		int flags = map.getInt();
+		int n = map.getInt();
+		int m = map.getInt();
+		int nameBytes = map.getInt();
+		int modelBytes = (version >= 2 && fileSize >= HEADER_BYTES) ? map.getInt() : 0;
+		int header = (version >= 2) ? HEADER_BYTES : V1_HEADER_BYTES;
+		boolean links = (flags & FLAG_LINKS) != 0;
+		if (version < 1 || version > VERSION || n < 0 || m < 0 || nameBytes < 0 || modelBytes < 0 || (!links && m != 0))
+		{
+			return null;
+		}
+		long expected = header + padded(modelBytes) + 4L*(5*(long)n + 1) + padded(nameBytes) + (links ? 4L*(n + 1 + (long)m) : 0);
+		if (expected != fileSize)
+		{
+			return null;
+		}
+		
+		//link model, only radio A or B before version 2
+		String linkModel;
+		if (version >= 2)
+		{
+			byte[] model = new byte[modelBytes];
+			map.get(model);
+			map.position(map.position() + padded(modelBytes) - modelBytes);
+			linkModel = (modelBytes == 0) ? null : new String(model, StandardCharsets.UTF_8);
+		}
+		else
+		{
+			linkModel = ((flags & FLAG_RADIO_EASY) != 0) ? LinkModel.UNIT_DISK_EASY : LinkModel.UNIT_DISK_REAL;
+		}
+		
+		//fixed width columns
+		int[] ids = new int[n];
+		int[] ranges = new int[n];
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		int[] nameOffsets = new int[n+1];
+		map.asIntBuffer().get(ids).get(ranges).get(xs).get(ys).get(nameOffsets);
+		map.position(map.position() + 4*(5*n + 1));
+		
+		//names, cut out of one block of bytes
+		byte[] nameBlock = new byte[nameBytes];
+		map.get(nameBlock);
+		map.position(map.position() + padded(nameBytes) - nameBytes);
+		String[] names = new String[n];
+		for (int i=0; i<n; i++)
+		{
+			int start = nameOffsets[i];
+			int end = nameOffsets[i+1];
+			if (start < 0 || end < start || end > nameBytes)
+			{
+				return null;
+			}
+			names[i] = new String(nameBlock, start, end - start, StandardCharsets.UTF_8);
+		}
+		
+		//links
+		int[] offsets = null;
+		int[] adjacency = null;
+		if (links)
+		{
+			offsets = new int[n+1];
+			adjacency = new int[m];
+			map.asIntBuffer().get(offsets).get(adjacency);
+			if (!isValidCsr(offsets, adjacency, n))
+			{
+				return null;
+			}
+		}
+		
+		Scenario scenario = new Scenario(ids, names, ranges, xs, ys, linkModel, offsets, adjacency);
+		return scenario.hasValidIds() ? scenario : null;
+	}
+	
+	
+	/* parse a text file, blank lines and lines starting with # are skipped
+	 *
+	 * RETURN scenario read, with no stored links
+	 * OTHERWISE return null if the file cannot be read or any line is malformed
+	 */
+	private static Scenario readText(String path)
+	{
+		ArrayList<String[]> rows = new ArrayList<String[]>();
+		boolean headerSeen = false;
+		try (BufferedReader in = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8))
+		{
+			String line;
+			while ((line = in.readLine()) != null)
+			{
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#"))
+				{
+					continue;
+				}
+				String[] fields = line.split("\\s+", 5);
+				if (!headerSeen)
+				{
+					//header must come first, and be of a version this reader knows
+					if (fields.length != 2 || !fields[0].equals(TEXT_HEADER) ||
+						!fields[1].matches("\\d{1,9}") || Integer.parseInt(fields[1]) > TEXT_VERSION)
+					{
+						return null;
+					}
+					headerSeen = true;
+				}
+				else if (fields.length < 4)
+				{
+					return null;
+				}
+				else
+				{
+					rows.add(fields);
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+		if (!headerSeen)
+		{
+			return null;
+		}
+		
+		int n = rows.size();
+		int[] ids = new int[n];
+		String[] names = new String[n];
+		int[] ranges = new int[n];
+		int[] xs = new int[n];
+		int[] ys = new int[n];
+		try
+		{
+			for (int i=0; i<n; i++)
+			{
+				String[] fields = rows.get(i);
+				ids[i] = Integer.parseInt(fields[0]);
+				ranges[i] = Integer.parseInt(fields[1]);
+				xs[i] = Integer.parseInt(fields[2]);
+				ys[i] = Integer.parseInt(fields[3]);
+				names[i] = (fields.length == 5) ? fields[4] : "";
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+		
+		Scenario scenario = new Scenario(ids, names, ranges, xs, ys, null, null, null);
+		return scenario.hasValidIds() ? scenario : null;
+	}
+	
+	
+	//check IDs are all non-negative, distinct and below the ID limit for the node count
+	private boolean hasValidIds()
+	{
+		long limit = Math.max(MIN_ID_LIMIT, (long)ID_LIMIT_PER_NODE*ids.length);
+		BitSet seen = new BitSet();
+		for (int id : ids)
+		{
+			if (id < 0 || id >= limit || seen.get(id))
+			{
+				return false;
+			}
+			seen.set(id);
+		}
+		return true;
+	}
+	
+	
+	/* check CSR arrays only point at real rows and entries, and hold a proper undirected mesh:
+	 * rows in strictly ascending order, no node linked to itself, and every link listed from both ends
+	 */
+	private static boolean isValidCsr(int[] offsets, int[] adjacency, int n)
+	{
+		if (offsets[0] != 0 || offsets[n] != adjacency.length)
+		{
+			return false;
+		}
+		for (int i=0; i<n; i++)
+		{
+			if (offsets[i+1] < offsets[i])
+			{
+				return false;
+			}
+		}
+		for (int i=0; i<n; i++)
+		{
+			for (int k=offsets[i]; k<offsets[i+1]; k++)
+			{
+				int j = adjacency[k];
+				if (j < 0 || j >= n || j == i || (k > offsets[i] && j <= adjacency[k-1]))
+				{
+					return false;
+				}
+			}
+		}
+		
+		//rows are sorted, so the link back can be searched for
+		for (int i=0; i<n; i++)
+		{
+			for (int k=offsets[i]; k<offsets[i+1]; k++)
+			{
+				int j = adjacency[k];
+				if (Arrays.binarySearch(adjacency, offsets[j], offsets[j+1], i) < 0)
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	
+	//round a byte count up to a whole number of ints
+	private static int padded(int bytes)
+	{
+		return (bytes + 3) & ~3;
+	}
+}
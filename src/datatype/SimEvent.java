@@ -0,0 +1,39 @@
+/**
+ * Class:				SimEvent.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Mutable event record for the discrete-event engine.
+ * 						Instances are pooled by the EventQueue and reused once handled, so the
+ * 						fields are plain ints/longs rather than an immutable value type.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+
+
+public class SimEvent
+{
+	//declaring instance variables, free for the simulation to interpret
+	public int type;
+	public int flow;
+	public int hop;
+	public long packet;
+	public long created;
+	
+	
+	//wipe all fields before reuse
+	public void clear()
+	{
+		type = 0;
+		flow = 0;
+		hop = 0;
+		packet = 0;
+		created = 0;
+	}
+}
@@ -0,0 +1,222 @@
+/**
+ * Class:				SpatialGrid.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Uniform grid bucketing of LowpanNodes by location.
+ * 						Used to find all nodes that could possibly be within reach of
+ * 						a point without comparing against every node in the mesh.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+
+
+
+public class SpatialGrid
+{
+	//declaring static class constants
+	private static final int MIX = 0x9E3779B1;
+	
+	//declaring local instance variables
+	private int cellSize;
+	private HashMap<Long, ArrayList<LowpanNode>> cells;
+	private IdentityHashMap<LowpanNode, Long> homes;
+
+
+	//generic constructor
+	public SpatialGrid(int cellSize)
+	{
+		this.cellSize = (cellSize > 0) ? cellSize : 1;
+		cells = new HashMap<Long, ArrayList<LowpanNode>>();
+		homes = new IdentityHashMap<LowpanNode, Long>();
+	}
+
+
+	//generic getters
+	public int getCellSize()
+	{
+		return cellSize;
+	}
+	public int size()
+	{
+		return homes.size();
+	}
+
+
+	//add a node to the cell covering its current location
+	public void insert(LowpanNode node)
+	{
+		Point loc = node.getLocation();
+		long key = keyOf(cellOf(loc.x), cellOf(loc.y));
+
+		ArrayList<LowpanNode> cell = cells.get(key);
+		if (cell == null)
+		{
+			cell = new ArrayList<LowpanNode>();
+			cells.put(key, cell);
+		}
+		cell.add(node);
+		homes.put(node, key);
+	}
+
+
+	//remove a node from whichever cell it was last filed under
+	public void remove(LowpanNode node)
+	{
+		Long key = homes.remove(node);
+		if (key != null)
+		{
+			ArrayList<LowpanNode> cell = cells.get(key);
+			cell.remove(node);
+			if (cell.isEmpty())
+			{
+				cells.remove(key);
+			}
+		}
+	}
+	
+	
+	//move a node to the cell covering its current location, if it has left its old one
+	public void update(LowpanNode node)
+	{
+		Point loc = node.getLocation();
+		Long key = homes.get(node);
+		if (key == null || key != keyOf(cellOf(loc.x), cellOf(loc.y)))
+		{
+			remove(node);
+			insert(node);
+		}
+	}
+
+
+	//remove all nodes from grid
+	public void clear()
+	{
+		cells.clear();
+		homes.clear();
+	}
+
+
+	/* collect every node filed in a cell overlapping the square of half-width reach
+	 * centered on loc
+	 *
+	 * RETURN superset of the nodes within reach of loc, including any node at loc itself
+	 */
+	public ArrayList<LowpanNode> getCandidates(Point loc, int reach)
+	{
+		return getCandidates(loc.x - reach, loc.y - reach, loc.x + reach, loc.y + reach);
+	}
+	
+	
+	/* collect every node filed in a cell overlapping the area
+	 *
+	 * RETURN superset of the nodes inside area
+	 */
+	public ArrayList<LowpanNode> getCandidates(Rectangle area)
+	{
+		return getCandidates(area.x, area.y, area.x + area.width, area.y + area.height);
+	}
+	
+	
+	//get every node located inside area
+	public ArrayList<LowpanNode> getInside(Rectangle area)
+	{
+		ArrayList<LowpanNode> inside = new ArrayList<LowpanNode>();
+		for (LowpanNode node : getCandidates(area))
+		{
+			if (area.contains(node.getLocation()))
+			{
+				inside.add(node);
+			}
+		}
+		return inside;
+	}
+	
+	
+	//get the node closest to a point, within buff in both X and Y, null if there is none
+	public LowpanNode getClosest(Point point, int buff)
+	{
+		LowpanNode closest = null;
+		for (LowpanNode node : getCandidates(point, buff))
+		{
+			Point loc = node.getLocation();
+			if (Math.abs(loc.x - point.x) <= buff && Math.abs(loc.y - point.y) <= buff &&
+				(closest == null || loc.distance(point) < closest.getLocation().distance(point)))
+			{
+				closest = node;
+			}
+		}
+		return closest;
+	}
+	
+	
+	//collect every node filed in a cell overlapping the box between two corners
+	private ArrayList<LowpanNode> getCandidates(int x0, int y0, int x1, int y1)
+	{
+		ArrayList<LowpanNode> candidates = new ArrayList<LowpanNode>();
+		int minX = cellOf(x0);
+		int maxX = cellOf(x1);
+		int minY = cellOf(y0);
+		int maxY = cellOf(y1);
+		
+		//a box covering more cells than are in use is cheaper to answer by walking the cells in use
+		if ((long)(maxX-minX+1) * (maxY-minY+1) > cells.size())
+		{
+			for (Map.Entry<Long, ArrayList<LowpanNode>> cell : cells.entrySet())
+			{
+				long key = cell.getKey();
+				int cx = (int)(key >> 32);
+				int cy = (int)key ^ (cx * MIX);
+				if (cx >= minX && cx <= maxX && cy >= minY && cy <= maxY)
+				{
+					candidates.addAll(cell.getValue());
+				}
+			}
+			return candidates;
+		}
+
+		for (int cx = minX; cx <= maxX; cx++)
+		{
+			for (int cy = minY; cy <= maxY; cy++)
+			{
+				ArrayList<LowpanNode> cell = cells.get(keyOf(cx, cy));
+				if (cell != null)
+				{
+					candidates.addAll(cell);
+				}
+			}
+		}
+		return candidates;
+	}
+
+
+	//convert a coordinate to a cell index
+	private int cellOf(int coord)
+	{
+		return Math.floorDiv(coord, cellSize);
+	}
+
+
+	/* pack a cell index pair into a single map key
+	 * Long.hashCode() folds the two halves together, so the low half is scrambled by cx
+	 * to stop every cell with the same cx^cy landing in the same bucket
+	 */
+	private static long keyOf(int cx, int cy)
+	{
+		return (((long)cx) << 32) | ((cy ^ (cx * MIX)) & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,25 @@
+package datatype;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+
+public interface TopologyReporter 
+{
+	//get a counter that changes every time a link in the mesh may have changed
+	public long getTopologyEpoch();
+	
+	//get the link model links are currently computed with
+	public LinkModel getLinkModel();
+	
+	//get a CSR snapshot of the mesh as of the current epoch
+	public MeshGraph getMeshGraph();
+	
+	//get the DODAG rooted at root, kept up to date as links change, null if root is not in the mesh
+	public Dodag getDodag(LowpanNode root);
+	
+	//get every node located inside area
+	public ArrayList<LowpanNode> getNodesIn(Rectangle area);
+	
+	//get an upper bound on the radio range of any node
+	public int getMaxRange();
+}
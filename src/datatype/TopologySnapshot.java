@@ -0,0 +1,154 @@
+/**
+ * Class:				TopologySnapshot.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				Immutable picture of the mesh, and of any routes asked for, at one instant.
+ * 						Built away from the Swing event thread and handed over whole, so every
+ * 						frame is drawn from a single consistent moment. Nodes are detached copies
+ * 						the engine never touches again, links are only held in the MeshGraph.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+//import libraries
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+
+
+
+
+public class TopologySnapshot
+{
+	//declaring local instance variables
+	private final MeshGraph graph;
+	private final LinkModel linkModel;
+	private final int maxRange;
+	private final SpatialGrid grid;
+	private final ArrayList<LowpanNode> idealRoute;
+	private final ArrayList<LowpanNode> rplRoute;
+	private final ArrayList<LowpanNode> etxRoute;
+	private final long etxTime;
+	private final CompactTree dodag;
+	private final DodagForest forest;
+	
+	
+	/* wrap a frozen graph, see MeshGraph.freeze()
+	 * routes and DODAG must be made of nodes from the same graph, null if not asked for
+	 * etxTime is how long the least ETX route took to work out in ns, -1 if not asked for
+	 * forest must have been built over the same snapshot, null if no border routers were asked for
+	 */
+	public TopologySnapshot(MeshGraph graph, LinkModel linkModel, int maxRange,
+			ArrayList<LowpanNode> idealRoute, ArrayList<LowpanNode> rplRoute,
+			ArrayList<LowpanNode> etxRoute, long etxTime, CompactTree dodag, DodagForest forest)
+	{
+		this.graph = graph;
+		this.linkModel = linkModel;
+		this.maxRange = maxRange;
+		this.idealRoute = idealRoute;
+		this.rplRoute = rplRoute;
+		this.etxRoute = etxRoute;
+		this.etxTime = etxTime;
+		this.dodag = dodag;
+		this.forest = forest;
+		
+		grid = new SpatialGrid(maxRange);
+		for (int i=0; i<graph.size(); i++)
+		{
+			grid.insert(graph.getNode(i));
+		}
+	}
+	
+	
+	//generic getters
+	public long getTopologyEpoch()
+	{
+		return graph.getEpoch();
+	}
+	public LinkModel getLinkModel()
+	{
+		return linkModel;
+	}
+	public int getMaxRange()
+	{
+		return maxRange;
+	}
+	public MeshGraph getMeshGraph()
+	{
+		return graph;
+	}
+	public ArrayList<LowpanNode> getIdealRoute()
+	{
+		return idealRoute;
+	}
+	public ArrayList<LowpanNode> getRplRoute()
+	{
+		return rplRoute;
+	}
+	public ArrayList<LowpanNode> getEtxRoute()
+	{
+		return etxRoute;
+	}
+	public long getEtxTime()
+	{
+		return etxTime;
+	}
+	public CompactTree getDodag()
+	{
+		return dodag;
+	}
+	public DodagForest getForest()
+	{
+		return forest;
+	}
+	public int size()
+	{
+		return graph.size();
+	}
+	
+	
+	//get a node by ID, null if there is no such node
+	public LowpanNode getNode(int id)
+	{
+		int index = graph.indexOfId(id);
+		return (index < 0) ? null : graph.getNode(index);
+	}
+	
+	
+	//get the node closest to a point, within buff in both X and Y, null if there is none
+	public LowpanNode getNodeAt(int x, int y, int buff)
+	{
+		return grid.getClosest(new Point(x, y), buff);
+	}
+	
+	
+	//get every node located inside area
+	public ArrayList<LowpanNode> getNodesIn(Rectangle area)
+	{
+		return grid.getInside(area);
+	}
+	
+	
+	//check if both snapshots hold nodes with exactly the same IDs
+	public boolean hasSameNodes(TopologySnapshot other)
+	{
+		if (other == null || other.size() != size())
+		{
+			return false;
+		}
+		for (int i=0; i<size(); i++)
+		{
+			if (graph.getNode(i).getId() != other.graph.getNode(i).getId())
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
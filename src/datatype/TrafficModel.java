@@ -0,0 +1,19 @@
+package datatype;
+
+public interface TrafficModel
+{
+	//names of the built in models
+	public static final String PERIODIC = "periodic";
+	public static final String POISSON = "poisson";
+	public static final String BURSTY = "bursty";
+	public static final String[] KINDS = {PERIODIC, POISSON, BURSTY};
+	
+	//get the name of the model, one of KINDS for the built in ones
+	public String getName();
+	
+	//get the mean time between packets over the long run, in microseconds
+	public long getMeanInterval();
+	
+	//get the time from one packet of a flow to its next, in microseconds, never less than 1
+	public long nextGap();
+}
@@ -2,12 +2,15 @@
  * Class:				TreeNode.java
  * Project:				Lowpan Network Sim
  * Author:				Jason Van Kerkhoven
- * Date of Update:		12/02/2017
- * Version:				1.0.0
+ * Date of Update:		18/10/2026
+ * Version:				1.0.2
  * 
  * Purpose:				Basic node for tree structure
  * 
- * Update Log:			v1.0.1
+ * Update Log:			v1.0.2
+ * 							- unused nodes set removed, children allocated on demand
+ * 							- hasChild no longer recursive
+ * 						v1.0.1
  * 							- parameterized issues fixed
  * 						v1.0.0
  * 							- null
@@ -17,7 +20,10 @@ package datatype;
 
 
 //import library classes
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 
 
@@ -27,8 +33,7 @@ public class TreeNode<k>
 	//declaring local instance variables
 	private TreeNode<k> parent;
 	private k self;
-	private HashSet<TreeNode<k>> children;
-	private HashSet<TreeNode<k>> nodes;
+	private ArrayList<TreeNode<k>> children;		// only allocated once a child is added
 	
 	
 	//generic constructor for node
@@ -36,13 +41,17 @@ public class TreeNode<k>
 	{
 		this.parent = parent;
 		this.self = self;
-		children = new HashSet<TreeNode<k>>();
+		children = null;
 	}
 	
 	
 	//generic getters
-	public HashSet<TreeNode<k>> getChildren()
+	public List<TreeNode<k>> getChildren()
 	{
+		if (children == null)
+		{
+			return Collections.emptyList();
+		}
 		return children;
 	}
 	public k getSelf()
@@ -59,37 +68,38 @@ public class TreeNode<k>
 	public TreeNode<k> addChild(k child)
 	{
 		TreeNode<k> newChild = new TreeNode<k>(this, child);
+		if (children == null)
+		{
+			children = new ArrayList<TreeNode<k>>();
+		}
 		children.add(newChild);
 		return newChild;
 	}
 	
 	
-	//search if node has child that matches parameter (recursively)
+	//search if node has child that matches parameter (anywhere in subtree)
+	//for repeated ancestor queries build a CompactTree instead
 	public boolean hasChild(k child)
 	{
-		//check self
-		if (this.getSelf() == child)
-		{
-			return true;
-		}
-		else
+		//depth first with an explicit stack, deep trees would overflow the call stack
+		ArrayDeque<TreeNode<k>> stack = new ArrayDeque<TreeNode<k>>();
+		stack.push(this);
+		while (!stack.isEmpty())
 		{
-			for (TreeNode<k> n : this.getChildren())
+			TreeNode<k> n = stack.pop();
+			if (n.getSelf() == child)
 			{
-				if (n.getSelf() == child)
-				{
-					return true;
-				}
-				else
+				return true;
+			}
+			if (n.children != null)
+			{
+				for (TreeNode<k> c : n.children)
 				{
-					if (n.hasChild(child))
-					{
-						return true;
-					}
+					stack.push(c);
 				}
 			}
-			return false;
 		}
+		return false;
 	}
 	
 	
@@ -0,0 +1,71 @@
+/**
+ * Class:				UnitDiskModel.java
+ * Project:				Lowpan Network Sim
+ * Author:				agent
+ * Date of Update:		18/10/2026
+ * Version:				1.0.0
+ * 
+ * Purpose:				The two original radio types, as link models. Every link is perfect.
+ * 						Easy (radio A) links any two nodes whose radio-wells intersect, realistic
+ * 						(radio B) only links nodes that are each inside the other's radio-well.
+ * 
+ * Update Log:			v1.0.0
+ * 							- null
+ */
+package datatype;
+
+
+
+
+public class UnitDiskModel implements LinkModel
+{
+	//declaring static class constants
+	public static final UnitDiskModel EASY = new UnitDiskModel(true);
+	public static final UnitDiskModel REAL = new UnitDiskModel(false);
+	
+	//declaring local instance variables
+	private final boolean easy;
+	
+	
+	//generic constructor
+	private UnitDiskModel(boolean easy)
+	{
+		this.easy = easy;
+	}
+	
+	
+	@Override
+	public String getName()
+	{
+		return easy ? UNIT_DISK_EASY : UNIT_DISK_REAL;
+	}
+	
+	
+	@Override
+	public double getMaxLinkDistance(int rangeA, int rangeB)
+	{
+		return easy ? rangeA+rangeB : Math.min(rangeA, rangeB);
+	}
+	
+	
+	@Override
+	public double getLinkDistance(int rangeA, int rangeB, long pairKey)
+	{
+		return easy ? rangeA+rangeB : Math.min(rangeA, rangeB);
+	}
+	
+	
+	@Override
+	public void evaluate(LinkBatch batch)
+	{
+		double[] distance = batch.getDistances();
+		int[] rangeA = batch.getRangesA();
+		int[] rangeB = batch.getRangesB();
+		float[] quality = batch.getQualities();
+		for (int i=0; i<batch.size(); i++)
+		{
+			int reach = easy ? rangeA[i]+rangeB[i] : Math.min(rangeA[i], rangeB[i]);
+			quality[i] = (distance[i] <= reach) ? 1f : 0f;
+		}
+	}
+}
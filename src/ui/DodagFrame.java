@@ -14,8 +14,7 @@ import java.awt.BorderLayout;
 import java.awt.Rectangle;
 
 //import packages
-import datatype.LowpanNode;
-import datatype.TreeNode;
+import datatype.CompactTree;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import java.awt.Window.Type;
@@ -27,7 +26,7 @@ import java.util.Date;
 
 public class DodagFrame extends JFrame 
 {
-	public DodagFrame(TreeNode<LowpanNode> parent, JFrame caller) 
+	public DodagFrame(CompactTree parent, JFrame caller) 
 	{
 		//setup frame
 		this.setBounds(new Rectangle(350,350));
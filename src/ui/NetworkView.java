@@ -2,14 +2,18 @@
  * Class:				NetworkView.java
  * Project:				Lowpan Network Sim
  * Author:				Jason Van Kerkhoven
- * Date of Update:		12/02/2017
- * Version:				1.0.0
+ * Date of Update:		18/10/2026
+ * Version:				2.0.0
  * 
  * Purpose:				Graphical user interface for system.
  * 						Allows examination of specific node detials and editing of them.
  * 						Most changes are done through hot keys (arrows, +, -).
  * 
- * Update Log:			v1.0.0
+ * Update Log:			v2.0.0
+ * 							- nodes read from a NodeRegistry, routes requested through the ComputeWorker
+ * 							- menus for link models, scenarios, generators, mobility and traffic
+ * 							- ETX routing, DODAG forest and metrics overlay controls
+ * 						v1.0.0
  * 							- null
  */
 package ui;
@@ -21,7 +25,6 @@ import java.awt.event.ActionListener;
 import java.awt.event.ComponentListener;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseListener;
-import java.util.HashSet;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.ImageIcon;
@@ -34,17 +37,35 @@ import java.awt.event.ActionEvent;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.JCheckBox;
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JFileChooser;
 import java.awt.Color;
 import java.awt.Dimension;
 
 //link packages
+import datatype.CompactTree;
+import datatype.DodagForest;
+import datatype.LinkModel;
 import datatype.LowpanNode;
+import datatype.MeshGenerator;
+import datatype.Metrics;
+import datatype.MobilityModel;
+import datatype.TopologySnapshot;
+import datatype.TrafficModel;
 import javax.swing.JComboBox;
+import javax.swing.JLabel;
 import javax.swing.JRadioButton;
+import javax.swing.JRadioButtonMenuItem;
 import javax.swing.JMenuBar;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.ListSelectionModel;
+import java.io.File;
+import java.util.ArrayList;
 
 
 
@@ -56,18 +77,34 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 	public static final String BTN_REMOVE = "btn/remove";
 	public static final String BTN_REMOVE_ALL = "btn/removeall";
 	public static final String BTN_NEW_NODE = "btn/newnode";
-	public static final String RADIO_TYPE_A = "btn/radioA";
-	public static final String RADIO_TYPE_B = "btn/radioB";
+	public static final String LINK_MODEL = "btn/linkModel";
 	public static final String PRESETS[] = {"1.   \"Louise Linear\"",
 											"2.   \"Tina Tree\"",
 											"3.   \"Stella Sparse\"",
 											"4.   \"Clara Cluster\"",
 											"5.   \"Martha Matrix\""};
+	public static final String MENU_OPEN_SCENARIO = "menu/file/open";
+	public static final String MENU_SAVE_SCENARIO = "menu/file/save";
+	public static final String MENU_GENERATE = "menu/presets/generate";
+	public static final String MENU_MOBILITY = "menu/mobility/";
+	public static final String MENU_MOBILITY_OFF = "menu/mobility/off";
+	public static final String MENU_MOBILITY_SPEED = "menu/mobility/speed/";
+	public static final String MENU_TRAFFIC = "menu/traffic/simulate";
+	public static final int[] MOBILITY_SPEEDS = {1, 2, 5, 10};
+	private static final String[] MOBILITY_NAMES = {"Random Waypoint", "Random Walk", "Group"};		// as MobilityModel.KINDS
+	private static final String[] TRAFFIC_FLOWS = {"Every Node to DODAG Root", "Source to Destination"};
+	private static final String[] LINK_MODEL_NAMES = {"\"EasySim\" Radio A", "\"Realistic\" Radio B",
+														"Quasi Unit Disk", "Log-Distance", "PRR Curve"};		// as LinkModel.KINDS
 	public static final String MENU_SHOW_DODAG = "menu/vis/dodag";
+	public static final String MENU_BORDER_ROUTERS = "menu/vis/borderrouters";
+	public static final String MENU_SHOW_PARTITION = "menu/vis/partition";
+	public static final String MENU_SHOW_METRICS = "menu/vis/metrics";
+	public static final String MENU_DUMP_METRICS = "menu/vis/dumpmetrics";
+	public static final String MENU_RESET_METRICS = "menu/vis/resetmetrics";
 	private static final int DEFAULT_WINDOW_X = 1301;
 	private static final int DEFAULT_WINDOW_Y = 721;
 	private static final int AUX_PANEL_WIDTH = 275;
-	private static final int RP_HEIGHT = 150;
+	private static final int RP_HEIGHT = 180;
 	private static final Font INPUT_LABEL_FONT = new Font("Tahoma", Font.BOLD, 16);
 	private static final Font INPUT_FIELD_FONT = new Font("Tahoma", Font.PLAIN, 12);
 	
@@ -89,16 +126,32 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 	private JRadioButton radioWellsActiveNode, radioWellsAllNode;
 	private JCheckBox rplRoutingToggle;
 	private JCheckBox idealRoutingToggle;
+	private JCheckBox etxRoutingToggle;
+	private JTextField etxInfo;
+	private JCheckBoxMenuItem showMetrics;
+	private JCheckBoxMenuItem showPartition;
+	private ArrayList<LowpanNode> borderRouters;
+	private boolean rankByEtx;
+	private JComboBox<String> generatorKind;
+	private JComboBox<String> linkModelSelector;
+	private JTextField generatorCount;
+	private JTextField generatorSeed;
+	private JComboBox<String> trafficKind;
+	private JComboBox<String> trafficFlows;
+	private JTextField trafficInterval;
+	private JTextField trafficSeconds;
+	private RouteRequester routes;
+	private TopologySnapshot snapshot;
 	
 	
 	//generic constructor
 	public NetworkView(String title,
-			HashSet<LowpanNode> nodes,
 			boolean fullScreen,
 			MouseListener mouseListener,
 			ActionListener actionListener,
 			KeyListener keyListener,
-			ComponentListener componentListener)
+			ComponentListener componentListener,
+			RouteRequester routes)
 	{
 		//set up main window frame
 		super(title);
@@ -114,15 +167,36 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 		
 		//init non-gui components
 		this.activeNode = null;
+		this.routes = routes;
+		this.snapshot = null;
+		this.borderRouters = new ArrayList<LowpanNode>();
+		this.rankByEtx = false;
 		
 		//set up menu bar
 		JMenuBar menuBar = new JMenuBar();
+		JMenu fileMenuBin = new JMenu("File");
 		JMenu presetsMenuBin = new JMenu("Presets");
+		JMenu mobilityMenuBin = new JMenu("Mobility");
+		JMenu trafficMenuBin = new JMenu("Traffic");
 		JMenu visualizationMenuBin = new JMenu("Visualization");
+		menuBar.add(fileMenuBin);
 		menuBar.add(presetsMenuBin);
+		menuBar.add(mobilityMenuBin);
+		menuBar.add(trafficMenuBin);
 		menuBar.add(visualizationMenuBin);
 		this.setJMenuBar(menuBar);
 		
+		//add scenario load/save to file bin
+		JMenuItem openScenario = new JMenuItem("Open Scenario...");
+		openScenario.setActionCommand(MENU_OPEN_SCENARIO);
+		openScenario.addActionListener(actionListener);
+		fileMenuBin.add(openScenario);
+		
+		JMenuItem saveScenario = new JMenuItem("Save Scenario...");
+		saveScenario.setActionCommand(MENU_SAVE_SCENARIO);
+		saveScenario.addActionListener(actionListener);
+		fileMenuBin.add(saveScenario);
+		
 		//add presets to preset bin
 		JMenuItem[] preset = new JMenuItem[PRESETS.length];
 		for (int i=0; i<preset.length; i++)
@@ -132,15 +206,87 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 			preset[i].addActionListener(actionListener);
 			presetsMenuBin.add(preset[i]);
 		}
+		presetsMenuBin.addSeparator();
+		
+		JMenuItem generate = new JMenuItem("Generate Mesh...");
+		generate.setActionCommand(MENU_GENERATE);
+		generate.addActionListener(actionListener);
+		presetsMenuBin.add(generate);
+		generatorKind = new JComboBox<String>(MeshGenerator.KINDS);
+		generatorCount = new JTextField("1000");
+		generatorSeed = new JTextField("1");
+		
+		//add traffic simulation to traffic bin
+		JMenuItem simulateTraffic = new JMenuItem("Simulate Traffic...");
+		simulateTraffic.setActionCommand(MENU_TRAFFIC);
+		simulateTraffic.addActionListener(actionListener);
+		trafficMenuBin.add(simulateTraffic);
+		trafficKind = new JComboBox<String>(TrafficModel.KINDS);
+		trafficFlows = new JComboBox<String>(TRAFFIC_FLOWS);
+		trafficInterval = new JTextField("1000");
+		trafficSeconds = new JTextField("60");
+		
+		//add models, then speeds, to mobility bin
+		ButtonGroup models = new ButtonGroup();
+		JRadioButtonMenuItem stationary = new JRadioButtonMenuItem("Stationary", true);
+		stationary.setActionCommand(MENU_MOBILITY_OFF);
+		stationary.addActionListener(actionListener);
+		models.add(stationary);
+		mobilityMenuBin.add(stationary);
+		for (int i=0; i<MobilityModel.KINDS.length; i++)
+		{
+			JRadioButtonMenuItem model = new JRadioButtonMenuItem(MOBILITY_NAMES[i]);
+			model.setActionCommand(MENU_MOBILITY + MobilityModel.KINDS[i]);
+			model.addActionListener(actionListener);
+			models.add(model);
+			mobilityMenuBin.add(model);
+		}
+		mobilityMenuBin.addSeparator();
+		
+		ButtonGroup speeds = new ButtonGroup();
+		for (int speed : MOBILITY_SPEEDS)
+		{
+			JRadioButtonMenuItem item = new JRadioButtonMenuItem("Speed " + speed + "x", speed == 1);
+			item.setActionCommand(MENU_MOBILITY_SPEED + speed);
+			item.addActionListener(actionListener);
+			speeds.add(item);
+			mobilityMenuBin.add(item);
+		}
 		
 		//add to visualization bin
 		JMenuItem showDodagTree = new JMenuItem("Show Current DODAG Tree");
 		showDodagTree.setActionCommand(MENU_SHOW_DODAG);
 		showDodagTree.addActionListener(this);
 		visualizationMenuBin.add(showDodagTree);
+		
+		JMenuItem chooseBorderRouters = new JMenuItem("Choose Border Routers...");
+		chooseBorderRouters.setActionCommand(MENU_BORDER_ROUTERS);
+		chooseBorderRouters.addActionListener(this);
+		visualizationMenuBin.add(chooseBorderRouters);
+		
+		showPartition = new JCheckBoxMenuItem("Show DODAG Partition");
+		showPartition.setActionCommand(MENU_SHOW_PARTITION);
+		showPartition.addActionListener(this);
+		visualizationMenuBin.add(showPartition);
+		visualizationMenuBin.addSeparator();
+		
+		showMetrics = new JCheckBoxMenuItem("Show Metrics Overlay");
+		showMetrics.setActionCommand(MENU_SHOW_METRICS);
+		showMetrics.addActionListener(this);
+		visualizationMenuBin.add(showMetrics);
+		
+		JMenuItem resetMetrics = new JMenuItem("Reset Metrics");
+		resetMetrics.setActionCommand(MENU_RESET_METRICS);
+		resetMetrics.addActionListener(this);
+		visualizationMenuBin.add(resetMetrics);
+		
+		JMenuItem dumpMetrics = new JMenuItem("Dump Metrics to File...");
+		dumpMetrics.setActionCommand(MENU_DUMP_METRICS);
+		dumpMetrics.addActionListener(this);
+		visualizationMenuBin.add(dumpMetrics);
 
 		//add main canvas for network
-		canvasPane = new NodeCanvas(nodes);
+		canvasPane = new NodeCanvas();
 		canvasPane.setBackground(Color.WHITE);
 		canvasPane.setBorder(BorderFactory.createLineBorder(Color.black));
 		canvasPane.setPreferredSize(new Dimension(DEFAULT_WINDOW_X, DEFAULT_WINDOW_Y));
@@ -324,8 +470,7 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 		meshEdges.add(radioMeshAllNode);
 		auxSubPanel.add(radioMeshAllNode);
 		
-		//add radio types
-		ButtonGroup radioButtons = new ButtonGroup();
+		//add link models
 		JTextField labelRadioType = new JTextField();
 		labelRadioType.setText("Radio Type:");
 		labelRadioType.setEditable(false);
@@ -334,20 +479,11 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 		labelRadioType.setBounds(10, 156, 120, 23);
 		auxSubPanel.add(labelRadioType);
 		
-		JRadioButton radioRadioB = new JRadioButton("\"Realistic\" Radio B");
-		radioRadioB.setBounds(132, 182, 135, 23);
-		radioRadioB.setActionCommand(RADIO_TYPE_B);
-		radioRadioB.addActionListener(actionListener);
-		radioButtons.add(radioRadioB);
-		auxSubPanel.add(radioRadioB);
-		
-		JRadioButton radioRadioA = new JRadioButton("\"EasySim\" Radio A");
-		radioRadioA.setBounds(132, 156, 135, 23);
-		radioRadioA.setActionCommand(RADIO_TYPE_A);
-		radioRadioA.addActionListener(actionListener);
-		radioRadioA.setSelected(true);
-		radioButtons.add(radioRadioA);
-		auxSubPanel.add(radioRadioA);
+		linkModelSelector = new JComboBox<String>(LINK_MODEL_NAMES);
+		linkModelSelector.setBounds(132, 156, 135, 23);
+		linkModelSelector.setActionCommand(LINK_MODEL);
+		linkModelSelector.addActionListener(actionListener);
+		auxSubPanel.add(linkModelSelector);
 		
 		//add checkboxes for mesh display settings
 		toggleDistances = new JCheckBox("Edge Labels");
@@ -414,6 +550,20 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 		idealRoutingToggle.addActionListener(this);
 		routingPanel.add(idealRoutingToggle);
 		
+		etxRoutingToggle = new JCheckBox("ETX Routing");
+		etxRoutingToggle.setSelected(false);
+		etxRoutingToggle.setBounds(10, 150, 100, 23);
+		etxRoutingToggle.addActionListener(this);
+		routingPanel.add(etxRoutingToggle);
+		
+		//add readout of the ETX route cost and how long it took to find
+		etxInfo = new JTextField();
+		etxInfo.setEditable(false);
+		etxInfo.setColumns(10);
+		etxInfo.setBorder(null);
+		etxInfo.setBounds(116, 151, 149, 20);
+		routingPanel.add(etxInfo);
+		
 		//add label for DODAG select 
 		JTextField dodagNodeLabel = new JTextField();
 		dodagNodeLabel.setText("DODAG:");
@@ -483,21 +633,84 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 	}
 	
 	
-	//update routing selectors
-	public void updateRoutingSelectors(HashSet<LowpanNode> nodes)
+	//take over a newly published snapshot, everything shown is read from it
+	public void setSnapshot(TopologySnapshot snapshot)
 	{
+		boolean sameNodes = snapshot.hasSameNodes(this.snapshot);
+		this.snapshot = snapshot;
+		if (!sameNodes)
+		{
+			updateRoutingSelectors();
+		}
+		
+		//active node is carried across by ID, it may have been removed
+		activeNode = (activeNode == null) ? null : snapshot.getNode(activeNode.getId());
+		canvasPane.setSnapshot(snapshot);
+		canvasPane.setActiveNode(activeNode);
+		updateEtxInfo();
+		this.update();
+	}
+	
+	
+	//show the cost of the ETX route on screen, and how long it took to work out
+	private void updateEtxInfo()
+	{
+		ArrayList<LowpanNode> route = (snapshot == null) ? null : snapshot.getEtxRoute();
+		if (!etxRoutingToggle.isSelected() || snapshot == null || snapshot.getEtxTime() < 0)
+		{
+			etxInfo.setText("");
+		}
+		else if (route == null)
+		{
+			etxInfo.setText(String.format("No Routes (%.3f ms)", snapshot.getEtxTime()/1e6));
+		}
+		else
+		{
+			etxInfo.setText(String.format("ETX %.2f (%.3f ms)", snapshot.getMeshGraph().routeCost(route), snapshot.getEtxTime()/1e6));
+		}
+	}
+	
+	
+	//get the snapshot currently on screen, null before the first
+	public TopologySnapshot getSnapshot()
+	{
+		return snapshot;
+	}
+	
+	
+	//update routing selectors, keeping selections whose nodes are still in the mesh
+	private void updateRoutingSelectors()
+	{
+		LowpanNode src = (LowpanNode)sourceSelector.getSelectedItem();
+		LowpanNode dest = (LowpanNode)destinationSelector.getSelectedItem();
+		LowpanNode root = (LowpanNode)rootNodeSelector.getSelectedItem();
+		
 		//remove old nodes
 		sourceSelector.removeAllItems();
 		destinationSelector.removeAllItems();
 		rootNodeSelector.removeAllItems();
 		
 		//add new items
-		for (LowpanNode node : nodes)
+		for (int i=0; i<snapshot.size(); i++)
 		{
+			LowpanNode node = snapshot.getMeshGraph().getNode(i);
 			sourceSelector.addItem(node);
 			destinationSelector.addItem(node);
 			rootNodeSelector.addItem(node);
 		}
+		reselect(sourceSelector, src);
+		reselect(destinationSelector, dest);
+		reselect(rootNodeSelector, root);
+	}
+	
+	
+	//select the current copy of a previously selected node, if it still exists
+	private void reselect(JComboBox<LowpanNode> selector, LowpanNode old)
+	{
+		if (old != null && snapshot.getNode(old.getId()) != null)
+		{
+			selector.setSelectedItem(snapshot.getNode(old.getId()));
+		}
 	}
 	
 	
@@ -541,6 +754,193 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 	}
 	
 	
+	/* ask the user for a scenario file to open or save to
+	 *
+	 * RETURN path of the file chosen
+	 * OTHERWISE return null if the user backed out
+	 */
+	public String chooseScenarioFile(boolean save)
+	{
+		JFileChooser chooser = new JFileChooser();
+		if (save)
+		{
+			chooser.setSelectedFile(new File("mesh.lps"));
+		}
+		int choice = save ? chooser.showSaveDialog(this) : chooser.showOpenDialog(this);
+		return (choice == JFileChooser.APPROVE_OPTION) ? chooser.getSelectedFile().getPath() : null;
+	}
+	
+	
+	//ask for the layout, size and seed of a mesh to generate, false if cancelled
+	public boolean chooseGenerator()
+	{
+		JPanel form = new JPanel(new GridLayout(3, 2, 5, 5));
+		form.add(new JLabel("Layout"));
+		form.add(generatorKind);
+		form.add(new JLabel("Nodes"));
+		form.add(generatorCount);
+		form.add(new JLabel("Seed"));
+		form.add(generatorSeed);
+		int choice = JOptionPane.showConfirmDialog(this, form, "Generate Mesh", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+		return (choice == JOptionPane.OK_OPTION);
+	}
+	
+	
+	/* ask which nodes act as border routers, each rooting a DODAG of the same RPL instance,
+	 * and whether nodes rank by hops or by ETX; no border routers goes back to the single DODAG root
+	 *
+	 * RETURN true if the user picked
+	 * OTHERWISE return false if cancelled
+	 */
+	private boolean chooseBorderRouters()
+	{
+		LowpanNode[] nodes = new LowpanNode[(snapshot == null) ? 0 : snapshot.size()];
+		for (int i=0; i<nodes.length; i++)
+		{
+			nodes[i] = snapshot.getMeshGraph().getNode(i);
+		}
+		JList<LowpanNode> list = new JList<LowpanNode>(nodes);
+		list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+		for (LowpanNode old : borderRouters)
+		{
+			int index = (snapshot == null) ? -1 : snapshot.getMeshGraph().indexOfId(old.getId());
+			if (index >= 0)
+			{
+				list.addSelectionInterval(index, index);
+			}
+		}
+		JCheckBox etx = new JCheckBox("Rank by ETX", rankByEtx);
+		
+		JPanel form = new JPanel(new BorderLayout(5, 5));
+		form.add(new JLabel("Border Routers"), BorderLayout.NORTH);
+		form.add(new JScrollPane(list), BorderLayout.CENTER);
+		form.add(etx, BorderLayout.SOUTH);
+		int choice = JOptionPane.showConfirmDialog(this, form, "Border Routers", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+		if (choice != JOptionPane.OK_OPTION)
+		{
+			return false;
+		}
+		borderRouters = new ArrayList<LowpanNode>(list.getSelectedValuesList());
+		rankByEtx = etx.isSelected();
+		return true;
+	}
+	
+	
+	//ask for the flows, traffic pattern, mean interval and length of a traffic simulation, false if cancelled
+	public boolean chooseTraffic()
+	{
+		JPanel form = new JPanel(new GridLayout(4, 2, 5, 5));
+		form.add(new JLabel("Flows"));
+		form.add(trafficFlows);
+		form.add(new JLabel("Pattern"));
+		form.add(trafficKind);
+		form.add(new JLabel("Mean Interval (ms)"));
+		form.add(trafficInterval);
+		form.add(new JLabel("Simulated Time (s)"));
+		form.add(trafficSeconds);
+		int choice = JOptionPane.showConfirmDialog(this, form, "Simulate Traffic", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+		return (choice == JOptionPane.OK_OPTION);
+	}
+	
+	
+	//show the report of a finished traffic simulation
+	public void showTrafficReport(String report)
+	{
+		JTextArea text = new JTextArea(report, 20, 100);
+		text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+		text.setEditable(false);
+		JOptionPane.showMessageDialog(this, new JScrollPane(text), "Traffic Report", JOptionPane.PLAIN_MESSAGE);
+	}
+	
+	
+	//generic getters for traffic inputs, null if not a valid number
+	public String getTrafficKind()
+	{
+		return (String)trafficKind.getSelectedItem();
+	}
+	public boolean isTrafficToRoot()
+	{
+		return (trafficFlows.getSelectedIndex() == 0);
+	}
+	public Integer getTrafficInterval()
+	{
+		try
+		{
+			return Integer.parseInt(trafficInterval.getText().trim());
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+	public Integer getTrafficSeconds()
+	{
+		try
+		{
+			return Integer.parseInt(trafficSeconds.getText().trim());
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+	
+	
+	//generic getters for the nodes picked in the routing selectors, null if none
+	public LowpanNode getSourceNode()
+	{
+		return (LowpanNode)sourceSelector.getSelectedItem();
+	}
+	public LowpanNode getDestinationNode()
+	{
+		return (LowpanNode)destinationSelector.getSelectedItem();
+	}
+	public LowpanNode getRootNode()
+	{
+		return (LowpanNode)rootNodeSelector.getSelectedItem();
+	}
+	public boolean isRplRouting()
+	{
+		return rplRoutingToggle.isSelected();
+	}
+	
+	
+	//get the name of the link model picked, one of LinkModel.KINDS
+	public String getLinkModelKind()
+	{
+		return LinkModel.KINDS[linkModelSelector.getSelectedIndex()];
+	}
+	
+	
+	//generic getters for generator inputs, null if not a valid number
+	public String getGeneratorKind()
+	{
+		return (String)generatorKind.getSelectedItem();
+	}
+	public Integer getGeneratorCount()
+	{
+		try
+		{
+			return Integer.parseInt(generatorCount.getText().trim());
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+	public Long getGeneratorSeed()
+	{
+		try
+		{
+			return Long.parseLong(generatorSeed.getText().trim());
+		}
+		catch (NumberFormatException e)
+		{
+			return null;
+		}
+	}
+	
+	
 	//get active node
 	public LowpanNode getActiveNode()
 	{
@@ -596,13 +996,39 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 		//display DODAG in util window
 		if (cmd.equals(MENU_SHOW_DODAG))
 		{
-			if (rplRoutingToggle.isSelected())
+			DodagForest forest = (snapshot == null) ? null : snapshot.getForest();
+			if (rplRoutingToggle.isSelected() && !borderRouters.isEmpty())
+			{
+				if (forest != null)
+				{
+					for (int i=0; i<forest.getRootCount(); i++)
+					{
+						DodagFrame dodag = new DodagFrame(forest.toCompactTree(snapshot.getMeshGraph(), i), this);
+					}
+				}
+				else
+				{
+					JOptionPane.showMessageDialog(this,
+						    "DODAGs are still being built, try again shortly.",
+						    "DODAG Tree Error",
+						    JOptionPane.ERROR_MESSAGE);
+				}
+			}
+			else if (rplRoutingToggle.isSelected())
 			{
 				LowpanNode root = (LowpanNode)rootNodeSelector.getSelectedItem();
+				CompactTree tree = (snapshot == null) ? null : snapshot.getDodag();
 				
-				if (root != null)
+				if (root != null && tree != null && tree.getRoot().getId() == root.getId())
 				{
-					DodagFrame dodag = new DodagFrame(root.treeify(), this);
+					DodagFrame dodag = new DodagFrame(tree, this);
+				}
+				else if (root != null)
+				{
+					JOptionPane.showMessageDialog(this,
+						    "DODAG is still being built, try again shortly.",
+						    "DODAG Tree Error",
+						    JOptionPane.ERROR_MESSAGE);
 				}
 				else
 				{
@@ -621,25 +1047,60 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 			}
 		}
 		
-		//button press or otherwise
-		else
+		//pick border routers, then refresh routing as for any other routing change
+		else if (cmd.equals(MENU_BORDER_ROUTERS))
 		{
-			//set enable for edge distances and rpl root node selector
-			toggleDistances.setEnabled(radioMeshActiveNode.isSelected() || radioMeshAllNode.isSelected());	
-			rootNodeSelector.setEnabled(rplRoutingToggle.isSelected());
-			
-			//set enable for routing selectors
-			boolean route = (idealRoutingToggle.isSelected() || rplRoutingToggle.isSelected());
-			sourceSelector.setEnabled(route);
-			destinationSelector.setEnabled(route);
-			
-			//update routing information		TODO these casts should be unnecessary
-			if (route)
+			if (chooseBorderRouters())
+			{
+				routes.requestForest(borderRouters, rankByEtx);
+				updateRouting();
+			}
+		}
+		
+		//colour nodes by the DODAG they joined
+		else if (cmd.equals(MENU_SHOW_PARTITION))
+		{
+			canvasPane.setPartition(showPartition.isSelected());
+			canvasPane.repaint();
+		}
+		
+		//metrics overlay, collection runs while it is shown
+		else if (cmd.equals(MENU_SHOW_METRICS))
+		{
+			Metrics.setEnabled(showMetrics.isSelected());
+			canvasPane.setMetricsOverlay(showMetrics.isSelected());
+			canvasPane.repaint();
+		}
+		
+		//start counting from scratch
+		else if (cmd.equals(MENU_RESET_METRICS))
+		{
+			Metrics.reset();
+			canvasPane.repaint();
+		}
+		
+		//write metrics out to a file of the user's choosing
+		else if (cmd.equals(MENU_DUMP_METRICS))
+		{
+			JFileChooser chooser = new JFileChooser();
+			chooser.setSelectedFile(new File("metrics.txt"));
+			if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION)
 			{
-				canvasPane.setRoutingNodes( (LowpanNode)sourceSelector.getSelectedItem(), 
-											(LowpanNode)destinationSelector.getSelectedItem(),
-											(LowpanNode)rootNodeSelector.getSelectedItem());
+				if (!Metrics.dump(chooser.getSelectedFile().getPath()))
+				{
+					JOptionPane.showMessageDialog(this,
+							"Could not write to " + chooser.getSelectedFile().getPath(),
+							"Metrics Error",
+							JOptionPane.ERROR_MESSAGE);
+				}
 			}
+		}
+		
+		//button press or otherwise
+		else
+		{
+			toggleDistances.setEnabled(radioMeshActiveNode.isSelected() || radioMeshAllNode.isSelected());
+			updateRouting();
 			
 			//set flags in node canvas
 			canvasPane.setSignalWells(radioWellsActiveNode.isSelected(), radioWellsAllNode.isSelected());
@@ -648,7 +1109,28 @@ public class NetworkView extends JFrame implements ActionListener, SizeReporter
 			canvasPane.setNodeIds(toggleLabels.isSelected());
 			canvasPane.setIdealRouting(idealRoutingToggle.isSelected());
 			canvasPane.setRplRouting(rplRoutingToggle.isSelected());
+			canvasPane.setEtxRouting(etxRoutingToggle.isSelected());
+			updateEtxInfo();
 			this.update();
 		}
 	}
+	
+	
+	//enable routing selectors to match the routing toggles, and ask for the routes now shown
+	private void updateRouting()
+	{
+		//border routers stand in for the single DODAG root while any are picked
+		boolean rpl = rplRoutingToggle.isSelected();
+		rootNodeSelector.setEnabled(rpl && borderRouters.isEmpty());
+		
+		//set enable for routing selectors
+		boolean route = (idealRoutingToggle.isSelected() || rpl || etxRoutingToggle.isSelected());
+		sourceSelector.setEnabled(route);
+		destinationSelector.setEnabled(route);
+		
+		//routes are worked out off the event thread, and only while shown		TODO these casts should be unnecessary
+		routes.requestRoutes(route ? (LowpanNode)sourceSelector.getSelectedItem() : null, 
+							 route ? (LowpanNode)destinationSelector.getSelectedItem() : null,
+							 (rpl && borderRouters.isEmpty()) ? (LowpanNode)rootNodeSelector.getSelectedItem() : null);
+	}
 }
@@ -2,12 +2,17 @@
  * Class:				NodeCanvas.java
  * Project:				Lowpan Network Sim
  * Author:				Jason Van Kerkhoven
- * Date of Update:		12/02/2017
- * Version:				1.0.0
+ * Date of Update:		18/10/2026
+ * Version:				2.0.0
  * 
  * Purpose:				Draw a system of nodes, including signal wells and mesh links.
  * 
- * Update Log:			v1.0.0
+ * Update Log:			v2.0.0
+ * 							- routes cached until the topology changes
+ * 							- static layers cached in BufferedImages
+ * 							- layers culled to the viewport with level-of-detail rendering
+ * 							- link quality, DODAG forest and metrics overlay drawing
+ * 						v1.0.0
  * 							- null
  */
 package ui;
@@ -16,22 +21,44 @@ package ui;
 //import libraries
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.Stroke;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.HashSet;
 import javax.swing.JPanel;
 
 //link packages
+import datatype.DodagForest;
 import datatype.LowpanNode;
+import datatype.MeshGraph;
+import datatype.Metrics;
+import datatype.TopologySnapshot;
 
 public class NodeCanvas extends JPanel
 {
 	//declaring static class constants
 	private static final int ROUTING_THICCNESS = 4;
 	public static final int NODE_DIAMETER = 20;
+	private static final int FLAG_WELLS = 1;
+	private static final int FLAG_MESH = 2;
+	private static final int FLAG_IDS = 4;
+	private static final int FLAG_DISTANCES = 8;
+	private static final int FLAG_PARTITION = 16;
+	private static final int DETAIL_FULL = 0;				// nodes, labels, wells
+	private static final int DETAIL_REDUCED = 1;			// dots and edges only
+	private static final int DETAIL_PIXEL = 2;				// pixel nodes and edge density
+	private static final int FULL_DETAIL_AREA = 4*NODE_DIAMETER*NODE_DIAMETER;
+	private static final int PIXEL_DETAIL_AREA = 36;
+	private static final int DOT_SIZE = 4;
+	private static final int DENSITY_BIN = 4;
+	private static final int METRICS_INSET = 6;
+	private static final int ROOT_RING = 6;
+	private static final float GOLDEN_HUE = 0.618034f;		// spreads root hues evenly, however many roots
 	
 	
 	//declaring local instance variables
@@ -42,11 +69,21 @@ public class NodeCanvas extends JPanel
 	private boolean showDistances;
 	private boolean showIdealRouting;
 	private boolean showRplRouting;
-	private LowpanNode src, dest, dodag;
-	HashSet<LowpanNode> nodes;
+	private boolean showEtxRouting;
+	private boolean showMetrics;
+	private boolean showPartition;
+	private TopologySnapshot snapshot;
+	
+	//static layers, redrawn only when topology, flags or size change
+	private BufferedImage meshLayer;
+	private BufferedImage nodeLayer;
+	private long layerEpoch;
+	private int layerFlags;
+	private DodagForest layerForest;
+	private int detail;
 	
 	//generic constructor
-	public NodeCanvas(HashSet<LowpanNode> nodes)
+	public NodeCanvas()
 	{
 		super();
 		
@@ -59,17 +96,27 @@ public class NodeCanvas extends JPanel
 		showDistances = false;
 		showIdealRouting = false;
 		showRplRouting = false;
+		showEtxRouting = false;
+		showMetrics = false;
+		showPartition = false;
 		
 		//initialize other values
 		activeNode = null;
-		src = null;
-		dest = null;
-		dodag = null;
-		this.nodes = nodes;
+		snapshot = null;
+		meshLayer = null;
+		nodeLayer = null;
+		layerEpoch = -1;
+		layerFlags = -1;
+		layerForest = null;
+		detail = DETAIL_FULL;
 	}
 	
 	
 	//generic setters
+	public void setSnapshot(TopologySnapshot snapshot)
+	{
+		this.snapshot = snapshot;
+	}
 	public void setActiveNode(LowpanNode node)
 	{
 		this.activeNode = node;
@@ -100,11 +147,17 @@ public class NodeCanvas extends JPanel
 	{
 		showIdealRouting = flag;
 	}
-	public void setRoutingNodes(LowpanNode src, LowpanNode dest, LowpanNode dodag)
+	public void setEtxRouting(boolean flag)
+	{
+		showEtxRouting = flag;
+	}
+	public void setMetricsOverlay(boolean flag)
 	{
-		this.src = src;
-		this.dest = dest;
-		this.dodag = dodag;
+		showMetrics = flag;
+	}
+	public void setPartition(boolean flag)
+	{
+		showPartition = flag;
 	}
 	
 	
@@ -112,156 +165,360 @@ public class NodeCanvas extends JPanel
 	//called on every component update or super component update trickle-down
 	public void paint(Graphics g)
 	{
+		long start = Metrics.start();
 		super.paint(g);
-
+		if (snapshot == null)
+		{
+			return;
+		}
+		validateLayers();
+		MeshGraph graph = snapshot.getMeshGraph();
+		int active = (activeNode == null) ? -1 : graph.indexOfId(activeNode.getId());
+		
 		//draw all mesh edges as layer 1
-		if (showMeshOnNode && activeNode != null)
+		if (showMeshOnNode && active >= 0)
 		{
-			for (LowpanNode neighbour : activeNode.getNeighbours())
+			Point loc = graph.getNode(active).getLocation();
+			for (int k=graph.getOffsets()[active]; k<graph.getOffsets()[active+1]; k++)
 			{
-				//draw edge
-				g.setColor(Color.GREEN);
-				g.drawLine(activeNode.getLocation().x, activeNode.getLocation().y, neighbour.getLocation().x, neighbour.getLocation().y);
-			
-				//label edge
-				if(showDistances)
-				{
-					g.setColor(Color.BLACK);
-					
-					String dist = String.format("%.02f", activeNode.getLocation().distance(neighbour.getLocation()));
-					int x = ((activeNode.getLocation().x + neighbour.getLocation().x) / 2) + 10;
-					int y = ((activeNode.getLocation().y + neighbour.getLocation().y) / 2) + 10;
-					g.drawString(dist, x, y);
-				}
+				drawEdge(g, loc, graph.getNode(graph.getAdjacency()[k]).getLocation(), graph.getQualities()[k]);
 			}
 		}
 		else if (showMeshOnAll)
 		{
-			for (LowpanNode node : nodes)
+			g.drawImage(meshLayer, 0, 0, null);
+			paintBorder(g);
+		}
+		
+		
+		//draw all routing as layer 2, routes are only in the snapshot if they were asked for
+		Graphics2D g2d = (Graphics2D)g;
+		Stroke reset = g2d.getStroke();
+		if (showRplRouting)
+		{
+			g.setColor(Color.MAGENTA);
+			drawRoute(g2d, snapshot.getRplRoute(), ROUTING_THICCNESS+4);
+		}
+		if (showEtxRouting)
+		{
+			g.setColor(Color.ORANGE);
+			drawRoute(g2d, snapshot.getEtxRoute(), ROUTING_THICCNESS+2);
+		}
+		if (showIdealRouting)
+		{
+			g.setColor(Color.CYAN);
+			drawRoute(g2d, snapshot.getIdealRoute(), ROUTING_THICCNESS);
+		}
+		g2d.setStroke(reset);
+		
+		
+		//draw all nodes, wells, and labels on layer 3
+		g.drawImage(nodeLayer, 0, 0, null);
+		if (showWellsOnNode && active >= 0)
+		{
+			drawWell(g, graph.getNode(active));
+		}
+		Metrics.stop(Metrics.REPAINT, start);
+		
+		//metrics on top of everything, as of the end of this frame
+		if (showMetrics)
+		{
+			drawMetrics(g);
+		}
+	}
+	
+	
+	//redraw static layers if anything drawn on them may have changed
+	private void validateLayers()
+	{
+		int w = Math.max(1, getWidth());
+		int h = Math.max(1, getHeight());
+		int flags = (showWellsOnAll ? FLAG_WELLS : 0) |
+					(showMeshOnAll ? FLAG_MESH : 0) |
+					(showNodeIds ? FLAG_IDS : 0) |
+					(showDistances ? FLAG_DISTANCES : 0) |
+					(showPartition ? FLAG_PARTITION : 0);
+		long epoch = snapshot.getTopologyEpoch();
+		DodagForest forest = showPartition ? snapshot.getForest() : null;
+		
+		if (nodeLayer != null && nodeLayer.getWidth() == w && nodeLayer.getHeight() == h &&
+			layerEpoch == epoch && layerFlags == flags && layerForest == forest)
+		{
+			return;
+		}
+		long start = Metrics.start();
+		
+		//only nodes that can show up on the canvas are drawn, edges and wells reach in from outside it
+		Rectangle view = new Rectangle(0, 0, w, h);
+		MeshGraph graph = snapshot.getMeshGraph();
+		int reach = 2*snapshot.getMaxRange();
+		Rectangle near = new Rectangle(-reach, -reach, w + 2*reach, h + 2*reach);
+		ArrayList<LowpanNode> nearby = snapshot.getNodesIn(near);
+		
+		//pick detail from how crowded the canvas is
+		int visible = 0;
+		for (LowpanNode node : nearby)
+		{
+			if (view.contains(node.getLocation()))
 			{
-				for (LowpanNode neighbour : node.getNeighbours())
-				{
-					//draw edge
-					g.setColor(Color.GREEN);
-					g.drawLine(node.getLocation().x, node.getLocation().y, neighbour.getLocation().x, neighbour.getLocation().y);
-					
-					//label edge
-					if(showDistances)
-					{
-						g.setColor(Color.BLACK);
-						
-						String dist = String.format("%.02f", node.getLocation().distance(neighbour.getLocation()));
-						int x = ((node.getLocation().x + neighbour.getLocation().x) / 2) + 10;
-						int y = ((node.getLocation().y + neighbour.getLocation().y) / 2) + 10;
-						g.drawString(dist, x, y);
-					}
-				}
+				visible++;
 			}
 		}
+		long pixelsPerNode = ((long)w*h) / Math.max(1, visible);
+		detail = (pixelsPerNode >= FULL_DETAIL_AREA) ? DETAIL_FULL : 
+				 (pixelsPerNode >= PIXEL_DETAIL_AREA) ? DETAIL_REDUCED : DETAIL_PIXEL;
 		
-		
-		//draw all routing as layer 2
-		if ((src != null && dest != null))
+		//mesh layer is opaque over the background so it can be copied straight in
+		meshLayer = null;
+		if (showMeshOnAll)
 		{
-			Graphics2D g2d = (Graphics2D)g;
-			Stroke reset = g2d.getStroke();
-			
-			if (showRplRouting && dodag != null)
+			meshLayer = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+			if (detail == DETAIL_PIXEL)
+			{
+				shadeEdgeDensity(meshLayer, graph, nearby);
+			}
+			else
 			{
-				ArrayList<LowpanNode> path = src.routeRPL(dest, dodag); //TODO should not need to reroute each update
-				if (path != null)
+				Graphics g = meshLayer.getGraphics();
+				g.setColor(getBackground());
+				g.fillRect(0, 0, w, h);
+				int[] offsets = graph.getOffsets();
+				int[] adjacency = graph.getAdjacency();
+				float[] quality = graph.getQualities();
+				for (LowpanNode node : nearby)
 				{
-					g2d.setStroke(new BasicStroke(ROUTING_THICCNESS+4));
-					g.setColor(Color.MAGENTA);
-					
-					if (path.size() > 2)
+					Point loc = node.getLocation();
+					int i = graph.indexOfId(node.getId());
+					for (int k=offsets[i]; k<offsets[i+1]; k++)
 					{
-						for (int i=0; i<path.size()-1; i++)
+						LowpanNode neighbour = graph.getNode(adjacency[k]);
+						Point other = neighbour.getLocation();
+						if (isDrawnFrom(node, neighbour, near) && view.intersectsLine(loc.x, loc.y, other.x, other.y))
 						{
-							LowpanNode cur = path.get(i);
-							LowpanNode nxt = path.get(i+1);
-							
-							g2d.drawLine(cur.getLocation().x, cur.getLocation().y, nxt.getLocation().x, nxt.getLocation().y);
+							drawEdge(g, loc, other, quality[k]);
 						}
 					}
-					else if (path.size() == 2)
-					{
-						LowpanNode cur = path.get(0);
-						LowpanNode nxt = path.get(1);
-						
-						g.drawLine(cur.getLocation().x, cur.getLocation().y, nxt.getLocation().x, nxt.getLocation().y);
-					}
-					else
-					{
-						//TODO routing error
-					}
 				}
+				g.dispose();
 			}
-			
-			if (showIdealRouting)
+		}
+		
+		//node layer
+		nodeLayer = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+		if (detail == DETAIL_PIXEL)
+		{
+			//single pixel per node, written straight into the image
+			int[] pixels = new int[w*h];
+			for (LowpanNode node : nearby)
 			{
-				ArrayList<LowpanNode> path = src.routeIdeal(dest);		//TODO should not need to reroute each update
-				if (path != null)
+				Point loc = node.getLocation();
+				if (view.contains(loc))
 				{
-					g.setColor(Color.CYAN);
-					g2d.setStroke(new BasicStroke(ROUTING_THICCNESS));
-					
-					if (path.size() > 2)
-					{
-						for (int i=0; i<path.size()-1; i++)
-						{
-							LowpanNode cur = path.get(i);
-							LowpanNode nxt = path.get(i+1);
-							
-							g2d.drawLine(cur.getLocation().x, cur.getLocation().y, nxt.getLocation().x, nxt.getLocation().y);
-						}
-					}
-					else if (path.size() == 2)
+					pixels[loc.y*w + loc.x] = nodeColour(forest, graph.indexOfId(node.getId())).getRGB();
+				}
+			}
+			nodeLayer.getRaster().setDataElements(0, 0, w, h, pixels);
+		}
+		else
+		{
+			Graphics g = nodeLayer.getGraphics();
+			for (LowpanNode node : nearby)
+			{
+				Point loc = node.getLocation();
+				
+				//wells may cross onto the canvas from a node outside it
+				if (showWellsOnAll && detail == DETAIL_FULL)
+				{
+					int range = node.getRange();
+					if (view.intersects(loc.x-range, loc.y-range, 2*range, 2*range))
 					{
-						LowpanNode cur = path.get(0);
-						LowpanNode nxt = path.get(1);
-						
-						g.drawLine(cur.getLocation().x, cur.getLocation().y, nxt.getLocation().x, nxt.getLocation().y);
+						drawWell(g, node);
 					}
-					else
+				}
+				
+				if (!view.intersects(loc.x - NODE_DIAMETER, loc.y - NODE_DIAMETER, 2*NODE_DIAMETER, 2*NODE_DIAMETER))
+				{
+					continue;
+				}
+				
+				//draw node, ringed if it roots a DODAG
+				int i = graph.indexOfId(node.getId());
+				g.setColor(nodeColour(forest, i));
+				if (detail == DETAIL_FULL)
+				{
+					int centroidX = loc.x - NODE_DIAMETER/2;
+					int centroidY = loc.y - NODE_DIAMETER/2;
+					g.fillOval(centroidX, centroidY, NODE_DIAMETER, NODE_DIAMETER);
+					if (forest != null && forest.getParent(i) == DodagForest.NONE && forest.getOwner(i) != DodagForest.NONE)
 					{
-						//TODO throw error, unexpected routing result
+						g.drawOval(centroidX-ROOT_RING, centroidY-ROOT_RING, NODE_DIAMETER+2*ROOT_RING, NODE_DIAMETER+2*ROOT_RING);
 					}
 				}
+				else
+				{
+					g.fillRect(loc.x - DOT_SIZE/2, loc.y - DOT_SIZE/2, DOT_SIZE, DOT_SIZE);
+				}
+				
+				//draw node label
+				if (showNodeIds && detail == DETAIL_FULL)
+				{
+					g.setColor(Color.BLACK);
+					String id = ""+node.getId();
+					int charOffset = id.length()*4;
+					g.drawString(id, loc.x-charOffset, loc.y+NODE_DIAMETER);
+				}
 			}
-			
-			g2d.setStroke(reset);
+			g.dispose();
 		}
 		
+		layerEpoch = epoch;
+		layerFlags = flags;
+		layerForest = forest;
+		Metrics.stop(Metrics.LAYER_REBUILD, start);
+	}
+	
+	
+	//colour of a node by the DODAG it joined, black if not partitioning or it joined none
+	private static Color nodeColour(DodagForest forest, int index)
+	{
+		if (forest == null || forest.getOwner(index) == DodagForest.NONE)
+		{
+			return Color.BLACK;
+		}
+		return Color.getHSBColor((forest.getOwner(index)*GOLDEN_HUE) % 1, 0.8f, 0.85f);
+	}
+	
+	
+	//draw metrics report in the top left corner over a translucent backing
+	private void drawMetrics(Graphics g)
+	{
+		String[] lines = Metrics.report().split("\n");
+		g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+		FontMetrics fm = g.getFontMetrics();
+		int width = 0;
+		for (String line : lines)
+		{
+			width = Math.max(width, fm.stringWidth(line));
+		}
 		
-		//draw all nodes, wells, and labels on layer 3
-		for (LowpanNode node : nodes)
+		g.setColor(new Color(255, 255, 255, 210));
+		g.fillRect(METRICS_INSET, METRICS_INSET, width + 2*METRICS_INSET, lines.length*fm.getHeight() + 2*METRICS_INSET);
+		g.setColor(Color.BLACK);
+		for (int i=0; i<lines.length; i++)
+		{
+			g.drawString(lines[i], 2*METRICS_INSET, 2*METRICS_INSET + i*fm.getHeight() + fm.getAscent());
+		}
+	}
+	
+	
+	//each edge is drawn once, from the lower ID end unless the other end was never looked at
+	private boolean isDrawnFrom(LowpanNode node, LowpanNode neighbour, Rectangle near)
+	{
+		return (node.getId() < neighbour.getId() || !near.contains(neighbour.getLocation()));
+	}
+	
+	
+	/* edges too dense to draw one by one, shade the background by how many edges end in each patch
+	 * at this detail nodes are only a few pixels apart, so edge ends stand in for the edges
+	 * themselves, and the cost does not grow with the number of edges
+	 */
+	private void shadeEdgeDensity(BufferedImage layer, MeshGraph graph, ArrayList<LowpanNode> nearby)
+	{
+		int w = layer.getWidth();
+		int h = layer.getHeight();
+		int cols = w/DENSITY_BIN + 1;
+		int rows = h/DENSITY_BIN + 1;
+		int[] counts = new int[cols*rows];
+		int max = 0;
+		
+		for (LowpanNode node : nearby)
 		{
-			//draw node
 			Point loc = node.getLocation();
-			int centroidX = loc.x - NODE_DIAMETER/2;
-			int centroidY = loc.y - NODE_DIAMETER/2;
-			g.setColor(Color.BLACK);
-			g.fillOval(centroidX, centroidY, NODE_DIAMETER, NODE_DIAMETER);
-			
-			//draw well if needed
-			if ((showWellsOnNode && node == activeNode) || showWellsOnAll)
+			if (loc.x >= 0 && loc.x < w && loc.y >= 0 && loc.y < h)
 			{
-				int wellDiameter = 2*node.getRange();
-				int wellCentroidX = loc.x - wellDiameter/2;
-				int wellCentroidY = loc.y - wellDiameter/2;
-				
-				g.setColor(Color.RED);
-				g.drawOval(wellCentroidX, wellCentroidY, wellDiameter, wellDiameter);
+				int bin = (loc.y/DENSITY_BIN)*cols + loc.x/DENSITY_BIN;
+				counts[bin] += graph.degree(graph.indexOfId(node.getId()));
+				max = Math.max(max, counts[bin]);
+			}
+		}
+		
+		//blend edge colour over background on a log scale, once per patch
+		Color back = getBackground();
+		double scale = Math.log1p(max);
+		for (int bin=0; bin<counts.length; bin++)
+		{
+			double t = (counts[bin] == 0) ? 0 : 0.2 + 0.8*Math.log1p(counts[bin])/scale;
+			int r = (int)(back.getRed()   + (Color.GREEN.getRed()   - back.getRed())*t);
+			int g = (int)(back.getGreen() + (Color.GREEN.getGreen() - back.getGreen())*t);
+			int b = (int)(back.getBlue()  + (Color.GREEN.getBlue()  - back.getBlue())*t);
+			counts[bin] = (r << 16) | (g << 8) | b;
+		}
+		int[] pixels = new int[w*h];
+		for (int y=0; y<h; y++)
+		{
+			for (int x=0; x<w; x++)
+			{
+				pixels[y*w + x] = counts[(y/DENSITY_BIN)*cols + x/DENSITY_BIN];
 			}
+		}
+		layer.getRaster().setDataElements(0, 0, w, h, pixels);
+	}
+	
+	
+	//draw a single mesh edge shaded from green for a perfect link to red for the weakest, and its length if needed
+	private void drawEdge(Graphics g, Point a, Point b, float quality)
+	{
+		g.setColor(Color.getHSBColor(quality/3, 1, 1));
+		g.drawLine(a.x, a.y, b.x, b.y);
+		
+		if(showDistances)
+		{
+			g.setColor(Color.BLACK);
 			
-			//draw node label
-			if (showNodeIds)
+			String dist = String.format("%.02f", a.distance(b));
+			int x = ((a.x + b.x) / 2) + 10;
+			int y = ((a.y + b.y) / 2) + 10;
+			g.drawString(dist, x, y);
+		}
+	}
+	
+	
+	//draw the radio well of a node
+	private void drawWell(Graphics g, LowpanNode node)
+	{
+		Point loc = node.getLocation();
+		int wellDiameter = 2*node.getRange();
+		int wellCentroidX = loc.x - wellDiameter/2;
+		int wellCentroidY = loc.y - wellDiameter/2;
+		
+		g.setColor(Color.RED);
+		g.drawOval(wellCentroidX, wellCentroidY, wellDiameter, wellDiameter);
+	}
+	
+	
+	//draw a route in the current colour
+	private void drawRoute(Graphics2D g2d, ArrayList<LowpanNode> path, int thickness)
+	{
+		if (path == null || path.size() < 2)
+		{
+			return;
+		}
+		
+		//skip hops entirely outside the area being repainted
+		Rectangle clip = g2d.getClipBounds();
+		if (clip != null)
+		{
+			clip.grow(thickness, thickness);
+		}
+		
+		g2d.setStroke(new BasicStroke(thickness));
+		for (int i=0; i<path.size()-1; i++)
+		{
+			Point cur = path.get(i).getLocation();
+			Point nxt = path.get(i+1).getLocation();
+			if (clip == null || clip.intersectsLine(cur.x, cur.y, nxt.x, nxt.y))
 			{
-				String id = ""+node.getId();
-				int charOffset = id.length()*4;
-				g.setColor(Color.BLACK);
-				g.drawString(id, loc.x-charOffset, loc.y+NODE_DIAMETER);
+				g2d.drawLine(cur.x, cur.y, nxt.x, nxt.y);
 			}
 		}
 	}
@@ -0,0 +1,14 @@
+package ui;
+
+import java.util.Collection;
+
+import datatype.LowpanNode;
+
+public interface RouteRequester
+{
+	//ask for routes between src and dest, and the DODAG rooted at root, with every snapshot (null => not wanted)
+	public void requestRoutes(LowpanNode src, LowpanNode dest, LowpanNode root);
+	
+	//ask for the DODAGs of one RPL instance rooted at every border router, ranked by hops or ETX, with every snapshot (empty => not wanted)
+	public void requestForest(Collection<LowpanNode> borderRouters, boolean etx);
+}